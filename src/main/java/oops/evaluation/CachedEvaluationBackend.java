@@ -0,0 +1,62 @@
+package oops.evaluation;
+
+import java.util.List;
+
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import oops.model.EvaluationResult;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Evaluation backend that looks for the results in the on-disk cache before contacting the OOPS! web service, and
+ * caches the responses of the web service.
+ */
+public class CachedEvaluationBackend implements EvaluationBackend {
+
+	private static final Logger logger = LoggerFactory.getLogger(CachedEvaluationBackend.class);
+
+	private static final String NAME = "OOPS! web service (cached)";
+
+	private final RemoteEvaluationBackend remoteBackend;
+
+	private final EvaluationCache evaluationCache;
+
+	/**
+	 * @param remoteBackend
+	 *            the backend that contacts the OOPS! web service
+	 * @param evaluationCache
+	 *            the cache of the web service responses
+	 */
+	public CachedEvaluationBackend(RemoteEvaluationBackend remoteBackend, EvaluationCache evaluationCache) {
+		this.remoteBackend = remoteBackend;
+		this.evaluationCache = evaluationCache;
+	}
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public boolean isRemote() {
+		return true;
+	}
+
+	@Override
+	public EvaluationResult evaluate(OWLOntology ontology, List<String> pitfalls) throws Exception {
+		String fingerprint = EvaluationCache.getFingerprint(ontology, pitfalls);
+
+		EvaluationResult cachedResults = evaluationCache.get(fingerprint);
+
+		if (cachedResults != null) {
+			logger.info("evaluate[CachedEvaluationBackend] found the results in the cache");
+			return cachedResults;
+		} else {
+			return remoteBackend.request(ontology, pitfalls, in -> evaluationCache.store(fingerprint, in));
+		}
+	}
+}
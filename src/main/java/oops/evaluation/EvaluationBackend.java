@@ -0,0 +1,41 @@
+package oops.evaluation;
+
+import java.util.List;
+
+import org.semanticweb.owlapi.model.OWLOntology;
+
+import oops.model.EvaluationResult;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * A service that detects the pitfalls of an ontology, either remotely through the OOPS! web service or locally.
+ */
+public interface EvaluationBackend {
+
+	/**
+	 * @return the name of the backend to show in the UI
+	 */
+	public String getName();
+
+	/**
+	 * Returns true if the ontology is sent over the network for its
+	 * evaluation, so big ontologies are worth splitting into several requests
+	 *
+	 * @return true if the backend is remote
+	 */
+	public boolean isRemote();
+
+	/**
+	 * Evaluates the given ontology
+	 *
+	 * @param ontology
+	 *            the ontology to evaluate
+	 * @param pitfalls
+	 *            the pitfalls to check, or an empty list to check all of them
+	 * @return the evaluation results
+	 * @throws Exception
+	 */
+	public EvaluationResult evaluate(OWLOntology ontology, List<String> pitfalls) throws Exception;
+}
@@ -0,0 +1,202 @@
+package oops.evaluation;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import oops.model.EvaluationResult;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Content-addressed on-disk cache of OOPS! evaluation results. The entries are the raw OOPS! WS responses, stored
+ * under a fingerprint of the evaluated ontology and pitfalls subset, and the cache is kept under a maximum size by
+ * evicting the least recently used entries.
+ */
+public class EvaluationCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(EvaluationCache.class);
+
+	private static final String ENTRY_EXTENSION = ".xml";
+
+	private static final String TEMP_ENTRY_EXTENSION = ".tmp";
+
+	private final Path cacheDirectory;
+
+	private final long maxSize;
+
+	private final OOPSResponseParser responseParser = new OOPSResponseParser();
+
+	/**
+	 * @param cacheDirectory
+	 *            the directory where the cached responses are stored
+	 * @param maxSize
+	 *            the maximum size in bytes of all the cached responses
+	 */
+	public EvaluationCache(Path cacheDirectory, long maxSize) {
+		this.cacheDirectory = cacheDirectory;
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Computes a stable fingerprint of the given ontology's content and the
+	 * pitfalls subset to evaluate. The axioms are hashed individually and
+	 * their hashes sorted, so the fingerprint does not depend on the
+	 * iteration order of the ontology.
+	 *
+	 * @param ontology
+	 *            the ontology to evaluate
+	 * @param pitfallsSubset
+	 *            the pitfalls to evaluate
+	 * @return the hexadecimal fingerprint
+	 * @throws NoSuchAlgorithmException
+	 */
+	public static String getFingerprint(OWLOntology ontology, List<String> pitfallsSubset)
+			throws NoSuchAlgorithmException {
+		MessageDigest axiomDigest = MessageDigest.getInstance("SHA-256");
+
+		long axiomHashes[] = new long[ontology.getAxiomCount()];
+		int numAxioms = 0;
+		for (OWLAxiom axiom : ontology.getAxioms()) {
+			byte hash[] = axiomDigest.digest(axiom.toString().getBytes(StandardCharsets.UTF_8));
+			if (numAxioms == axiomHashes.length) {
+				axiomHashes = Arrays.copyOf(axiomHashes, numAxioms * 2 + 1);
+			}
+			axiomHashes[numAxioms++] = ByteBuffer.wrap(hash).getLong();
+		}
+		Arrays.sort(axiomHashes, 0, numAxioms);
+
+		MessageDigest digest = MessageDigest.getInstance("SHA-256");
+		digest.update(ontology.getOntologyID().toString().getBytes(StandardCharsets.UTF_8));
+		ontology.getImportsDeclarations().stream().map(Object::toString).sorted()
+				.forEach(d -> digest.update(d.getBytes(StandardCharsets.UTF_8)));
+		ontology.getAnnotations().stream().map(Object::toString).sorted()
+				.forEach(a -> digest.update(a.getBytes(StandardCharsets.UTF_8)));
+
+		ByteBuffer hashesBuffer = ByteBuffer.allocate(Long.BYTES);
+		for (int i = 0; i < numAxioms; i++) {
+			hashesBuffer.clear();
+			hashesBuffer.putLong(axiomHashes[i]);
+			digest.update(hashesBuffer.array());
+		}
+
+		pitfallsSubset.stream().sorted()
+				.forEach(p -> digest.update((p + ",").getBytes(StandardCharsets.UTF_8)));
+
+		StringBuilder fingerprint = new StringBuilder();
+		for (byte b : digest.digest()) {
+			fingerprint.append(String.format("%02x", b));
+		}
+
+		return fingerprint.toString();
+	}
+
+	/**
+	 * Returns the cached results for the given fingerprint, marking the entry
+	 * as recently used
+	 *
+	 * @param fingerprint
+	 *            the fingerprint of the evaluated ontology and pitfalls
+	 * @return the cached results or null if there are none
+	 */
+	public EvaluationResult get(String fingerprint) {
+		File entry = getEntryPath(fingerprint).toFile();
+
+		if (!entry.isFile()) {
+			return null;
+		}
+
+		try (InputStream in = Files.newInputStream(entry.toPath())) {
+			EvaluationResult results = responseParser.parse(in);
+			entry.setLastModified(System.currentTimeMillis());
+
+			return results;
+		} catch (Exception e) {
+			logger.warn("Discarding unreadable cache entry " + entry + ": " + e.getLocalizedMessage());
+			entry.delete();
+
+			return null;
+		}
+	}
+
+	/**
+	 * Parses the given OOPS! WS response and stores it in the cache under the
+	 * given fingerprint. Only responses that can be parsed are stored.
+	 *
+	 * @param fingerprint
+	 *            the fingerprint of the evaluated ontology and pitfalls
+	 * @param oopsResponse
+	 *            the response stream from the OOPS! WebService
+	 * @return the results parsed from the response
+	 * @throws Exception
+	 */
+	public EvaluationResult store(String fingerprint, InputStream oopsResponse) throws Exception {
+		Files.createDirectories(cacheDirectory);
+
+		// the response is downloaded into its own temporary file, so concurrent stores do not block each other
+		Path tempEntry = Files.createTempFile(cacheDirectory, fingerprint, TEMP_ENTRY_EXTENSION);
+
+		try {
+			Files.copy(oopsResponse, tempEntry, StandardCopyOption.REPLACE_EXISTING);
+
+			EvaluationResult results;
+			try (InputStream in = Files.newInputStream(tempEntry)) {
+				results = responseParser.parse(in);
+			}
+
+			synchronized (this) {
+				Files.move(tempEntry, getEntryPath(fingerprint), StandardCopyOption.REPLACE_EXISTING);
+
+				evictEntries();
+			}
+
+			return results;
+		} finally {
+			Files.deleteIfExists(tempEntry);
+		}
+	}
+
+	/**
+	 * Deletes the least recently used entries until the cache fits in its
+	 * maximum size
+	 */
+	private void evictEntries() {
+		File entries[] = cacheDirectory.toFile().listFiles((dir, name) -> name.endsWith(ENTRY_EXTENSION));
+
+		if (entries == null) {
+			return;
+		}
+
+		long totalSize = Arrays.stream(entries).mapToLong(File::length).sum();
+
+		Arrays.sort(entries, Comparator.comparingLong(File::lastModified));
+
+		for (int i = 0; i < entries.length && totalSize > maxSize; i++) {
+			long entrySize = entries[i].length();
+
+			if (entries[i].delete()) {
+				totalSize -= entrySize;
+				logger.debug("Evicted cache entry " + entries[i].getName());
+			}
+		}
+	}
+
+	private Path getEntryPath(String fingerprint) {
+		return cacheDirectory.resolve(fingerprint + ENTRY_EXTENSION);
+	}
+}
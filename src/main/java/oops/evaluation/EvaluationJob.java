@@ -0,0 +1,199 @@
+package oops.evaluation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import org.semanticweb.owlapi.model.OWLOntology;
+
+import oops.model.EvaluationResult;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * A single evaluation request submitted to the OOPSEvaluator. The job owns the ontology and pitfalls subset it
+ * evaluates and the outcome of the evaluation, so concurrent submissions do not overwrite each other's state. The
+ * jobs are created and cancelled through the OOPSEvaluator.
+ */
+public class EvaluationJob {
+
+	/**
+	 * The lifecycle states of an evaluation job
+	 */
+	public enum State {
+		QUEUED, RUNNING, DONE, FAILED, CANCELLED
+	}
+
+	private final OWLOntology ontology;
+
+	private final List<String> pitfallsSubset;
+
+	private final EvaluationBackend backend;
+
+	private volatile State state = State.QUEUED;
+
+	private volatile EvaluationResult result;
+
+	private volatile Exception exception;
+
+	private Future<?> future;
+
+	/**
+	 * @param ontology
+	 *            the ontology to evaluate
+	 * @param pitfallsSubset
+	 *            the pitfalls to check, or an empty list to check all of them
+	 * @param backend
+	 *            the backend that evaluates the ontology
+	 */
+	EvaluationJob(OWLOntology ontology, List<String> pitfallsSubset, EvaluationBackend backend) {
+		this.ontology = ontology;
+		this.pitfallsSubset = Collections.unmodifiableList(new ArrayList<String>(pitfallsSubset));
+		this.backend = backend;
+	}
+
+	/**
+	 * @return the ontology to evaluate
+	 */
+	public OWLOntology getOntology() {
+		return ontology;
+	}
+
+	/**
+	 * @return the pitfalls to check, or an empty list to check all of them
+	 */
+	public List<String> getPitfallsSubset() {
+		return pitfallsSubset;
+	}
+
+	/**
+	 * @return the backend that evaluates the ontology
+	 */
+	public EvaluationBackend getBackend() {
+		return backend;
+	}
+
+	/**
+	 * @return the current state of the job
+	 */
+	public State getState() {
+		return state;
+	}
+
+	/**
+	 * @return the evaluation results, or null if the job has not finished
+	 *         successfully
+	 */
+	public EvaluationResult getResult() {
+		return result;
+	}
+
+	/**
+	 * @return the exception that made the job fail, or null if it has not
+	 *         failed
+	 */
+	public Exception getException() {
+		return exception;
+	}
+
+	/**
+	 * @return true if the job is queued or running
+	 */
+	public boolean isInFlight() {
+		State currentState = state;
+		return currentState == State.QUEUED || currentState == State.RUNNING;
+	}
+
+	/**
+	 * Returns true if this job evaluates the given ontology with the given
+	 * pitfalls subset and backend
+	 *
+	 * @param ontology
+	 *            the ontology to evaluate
+	 * @param pitfallsSubset
+	 *            the pitfalls to check
+	 * @param backend
+	 *            the backend that evaluates the ontology
+	 * @return true if the job has the same inputs
+	 */
+	boolean hasInputs(OWLOntology ontology, List<String> pitfallsSubset, EvaluationBackend backend) {
+		return this.ontology == ontology && this.pitfallsSubset.equals(pitfallsSubset) && this.backend == backend;
+	}
+
+	/**
+	 * Cancels the job. A queued job will not be run and a running job stops
+	 * at its next checkpoint, discarding its results.
+	 *
+	 * @return the state of the job before cancelling it, or null if it had
+	 *         already finished
+	 */
+	State cancel() {
+		State previousState;
+		Future<?> jobFuture;
+
+		synchronized (this) {
+			if (!isInFlight()) {
+				return null;
+			}
+			previousState = state;
+			state = State.CANCELLED;
+			jobFuture = future;
+		}
+
+		if (jobFuture != null) {
+			jobFuture.cancel(true);
+		}
+
+		return previousState;
+	}
+
+	synchronized void setFuture(Future<?> future) {
+		this.future = future;
+	}
+
+	/**
+	 * Moves the job to the running state
+	 *
+	 * @return false if the job has been cancelled before starting
+	 */
+	synchronized boolean start() {
+		if (state != State.QUEUED) {
+			return false;
+		}
+		state = State.RUNNING;
+
+		return true;
+	}
+
+	/**
+	 * Stores the results of the job
+	 *
+	 * @return false if the job has been cancelled in the meantime
+	 */
+	synchronized boolean complete(EvaluationResult result) {
+		if (state != State.RUNNING) {
+			return false;
+		}
+		this.result = result;
+		state = State.DONE;
+
+		return true;
+	}
+
+	/**
+	 * Stores the exception that made the job fail
+	 *
+	 * @return false if the job has been cancelled in the meantime
+	 */
+	synchronized boolean fail(Exception exception) {
+		if (state != State.RUNNING) {
+			return false;
+		}
+		this.exception = exception;
+		state = State.FAILED;
+
+		return true;
+	}
+}
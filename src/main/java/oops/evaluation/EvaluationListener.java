@@ -14,4 +14,6 @@ public interface EvaluationListener {
 	public void onEvaluationDone(EvaluationResult result);
 	
 	public void OnEvaluationException(Throwable exception);
+	
+	public void onEvaluationCancelled();
 }
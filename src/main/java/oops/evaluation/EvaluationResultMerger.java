@@ -0,0 +1,423 @@
+package oops.evaluation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import oops.model.ElementPair;
+import oops.model.EvaluationResult;
+import oops.model.InfoElementWithAffectedElems;
+import oops.model.Pitfall;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Utility methods to combine partial evaluation results into a single EvaluationResult.
+ */
+public class EvaluationResultMerger {
+
+	// the pitfalls whose affected elements are reported in pairs
+	private static final Set<String> PAIRED_PITFALLS = new HashSet<String>(Arrays.asList(
+			OOPSEvaluator.PITFALL_WRONG_INVERSE_ID, OOPSEvaluator.PITFALL_MIGHT_BE_EQUIVALENT_ID,
+			OOPSEvaluator.PITFALL_MIGHT_BE_INVERSE_ID, OOPSEvaluator.PITFALL_EQUIVALENT_CLASSES_ID,
+			OOPSEvaluator.PITFALL_SAME_LABEL));
+
+	private static final List<Function<EvaluationResult, List<ElementPair>>> PAIR_LISTS = Arrays.asList(
+			EvaluationResult::getElementsWithSameLabel, EvaluationResult::getEquivalentClasses,
+			EvaluationResult::getEquivalentRelations, EvaluationResult::getEquivalentAttributes,
+			EvaluationResult::getWrongInverseRelations, EvaluationResult::getMightBeInverseRelations);
+
+	private EvaluationResultMerger() {}
+
+	/**
+	 * Returns the elements paired with any of the given ones in the pair lists
+	 * of the given results
+	 *
+	 * @param results
+	 *            the results with the pairs
+	 * @param elements
+	 *            the IRIs of the elements whose partners are wanted
+	 * @return the IRIs of the partners that are not among the given elements
+	 */
+	public static Set<String> getPairPartners(EvaluationResult results, Set<String> elements) {
+		Set<String> partners = new HashSet<String>();
+
+		for (Function<EvaluationResult, List<ElementPair>> pairsGetter : PAIR_LISTS) {
+			List<ElementPair> pairs = pairsGetter.apply(results);
+
+			if (pairs != null) {
+				for (ElementPair pair : pairs) {
+					if (elements.contains(pair.getElementA())) {
+						partners.add(pair.getElementB());
+					}
+					if (elements.contains(pair.getElementB())) {
+						partners.add(pair.getElementA());
+					}
+				}
+			}
+		}
+		partners.removeAll(elements);
+
+		return partners;
+	}
+
+	/**
+	 * Returns a copy of the previous results where the pitfalls of the given
+	 * elements have been replaced by the ones of a re-evaluation of those
+	 * elements. Only the results of the updated elements are taken from the
+	 * update, so the other elements it covers keep their previous results, and
+	 * the number of affected elements of each pitfall is recomputed over the
+	 * merged results. The updated elements include the pair partners of the
+	 * changed ones: the pairs of a changed element and the pairs between two
+	 * updated elements are taken from the update, while the pairs of a partner
+	 * with an element that was not re-evaluated are kept. The paired pitfalls
+	 * of the merged elements then follow the merged pairs. If general results
+	 * are given, they also replace the previous pitfalls that apply to the
+	 * whole ontology.
+	 *
+	 * @param previous
+	 *            the results of the previous evaluation
+	 * @param update
+	 *            the results of the re-evaluated elements
+	 * @param generalUpdate
+	 *            the results of the re-evaluated general pitfalls, or null to
+	 *            keep the previous ones
+	 * @param changedElements
+	 *            the IRIs of the elements changed since the previous
+	 *            evaluation
+	 * @param updatedElements
+	 *            the IRIs of the re-evaluated elements, which are the changed
+	 *            ones and their pair partners
+	 * @return the merged results
+	 */
+	public static EvaluationResult replaceElements(EvaluationResult previous, EvaluationResult update,
+			EvaluationResult generalUpdate, Set<String> changedElements, Set<String> updatedElements) {
+		EvaluationResult.Builder merged = new EvaluationResult.Builder();
+		PitfallCollector pitfalls = new PitfallCollector();
+
+		Predicate<ElementPair> replacedPair = pair -> changedElements.contains(pair.getElementA())
+				|| changedElements.contains(pair.getElementB())
+				|| (updatedElements.contains(pair.getElementA()) && updatedElements.contains(pair.getElementB()));
+
+		List<ElementPair> elementsWithSameLabel = replacePairs(previous.getElementsWithSameLabel(),
+				update.getElementsWithSameLabel(), replacedPair);
+		List<ElementPair> equivalentClasses = replacePairs(previous.getEquivalentClasses(),
+				update.getEquivalentClasses(), replacedPair);
+		List<ElementPair> equivalentRelations = replacePairs(previous.getEquivalentRelations(),
+				update.getEquivalentRelations(), replacedPair);
+		List<ElementPair> equivalentAttributes = replacePairs(previous.getEquivalentAttributes(),
+				update.getEquivalentAttributes(), replacedPair);
+		List<ElementPair> wrongInverseRelations = replacePairs(previous.getWrongInverseRelations(),
+				update.getWrongInverseRelations(), replacedPair);
+		List<ElementPair> mightBeInverseRelations = replacePairs(previous.getMightBeInverseRelations(),
+				update.getMightBeInverseRelations(), replacedPair);
+		List<String> relationsWithoutInverse = replaceElementsList(previous.getRelationsWithoutInverse(),
+				update.getRelationsWithoutInverse(), updatedElements);
+
+		previous.getDetectedPitfalls().forEach((element, elementPitfalls) -> {
+			if (!updatedElements.contains(element)) {
+				pitfalls.addAll(element, elementPitfalls, generalUpdate == null, true);
+			}
+		});
+		update.getDetectedPitfalls().forEach((element, elementPitfalls) -> {
+			if (updatedElements.contains(element)) {
+				pitfalls.addAll(element, elementPitfalls, false, false);
+			}
+		});
+
+		// the paired pitfalls follow the merged pairs, which also reach the elements newly paired with a changed one
+		Map<String, Set<String>> pairedElementsByCode = new HashMap<String, Set<String>>();
+		addPairedElements(pairedElementsByCode, OOPSEvaluator.PITFALL_SAME_LABEL, elementsWithSameLabel);
+		addPairedElements(pairedElementsByCode, OOPSEvaluator.PITFALL_EQUIVALENT_CLASSES_ID, equivalentClasses);
+		addPairedElements(pairedElementsByCode, OOPSEvaluator.PITFALL_MIGHT_BE_EQUIVALENT_ID, equivalentRelations);
+		addPairedElements(pairedElementsByCode, OOPSEvaluator.PITFALL_MIGHT_BE_EQUIVALENT_ID, equivalentAttributes);
+		addPairedElements(pairedElementsByCode, OOPSEvaluator.PITFALL_WRONG_INVERSE_ID, wrongInverseRelations);
+		addPairedElements(pairedElementsByCode, OOPSEvaluator.PITFALL_MIGHT_BE_INVERSE_ID, mightBeInverseRelations);
+		if (relationsWithoutInverse != null) {
+			pairedElementsByCode.computeIfAbsent(OOPSEvaluator.PITFALL_MIGHT_BE_INVERSE_ID,
+					k -> new HashSet<String>()).addAll(relationsWithoutInverse);
+		}
+		pairedElementsByCode.forEach((code, elements) -> elements.forEach(element -> pitfalls.add(element, code)));
+
+		pitfalls.addTo(merged);
+
+		if (generalUpdate != null) {
+			generalUpdate.getDetectedPitfalls().forEach((element, elementPitfalls) ->
+					addPitfalls(merged, element, elementPitfalls, true, false));
+		}
+
+		merged.setElementsWithSameLabel(elementsWithSameLabel);
+		merged.setEquivalentClasses(equivalentClasses);
+		merged.setEquivalentRelations(equivalentRelations);
+		merged.setEquivalentAttributes(equivalentAttributes);
+		merged.setWrongInverseRelations(wrongInverseRelations);
+		merged.setMightBeInverseRelations(mightBeInverseRelations);
+		merged.setRelationsWithoutInverse(relationsWithoutInverse);
+
+		merged.setSuggestions(replaceInfoElements(previous.getSuggestions(), update.getSuggestions(),
+				updatedElements));
+		merged.setWarnings(replaceInfoElements(previous.getWarnings(), update.getWarnings(), updatedElements));
+
+		return merged.build();
+	}
+
+	/**
+	 * Merges the results of several evaluations of overlapping parts of the
+	 * same ontology. The elements found in several parts keep each pitfall
+	 * once, the pairs are deduplicated regardless of their order, and the
+	 * number of affected elements of each pitfall is recomputed over the
+	 * merged results. The general pitfalls are taken from the general results
+	 * if there are any, or from the partial results otherwise.
+	 * 
+	 * @param partialResults
+	 *            the results of each part
+	 * @param generalResults
+	 *            the results of the pitfalls that apply to the whole
+	 *            ontology, or null to take them from the partial results
+	 * @return the merged results
+	 */
+	public static EvaluationResult union(List<EvaluationResult> partialResults, EvaluationResult generalResults) {
+		EvaluationResult.Builder merged = new EvaluationResult.Builder();
+		PitfallCollector pitfalls = new PitfallCollector();
+
+		for (EvaluationResult partialResult : partialResults) {
+			partialResult.getDetectedPitfalls().forEach((element, elementPitfalls) ->
+					pitfalls.addAll(element, elementPitfalls, generalResults == null, true));
+		}
+		pitfalls.addTo(merged);
+
+		if (generalResults != null) {
+			generalResults.getDetectedPitfalls().forEach((element, elementPitfalls) ->
+					addPitfalls(merged, element, elementPitfalls, true, false));
+		}
+
+		merged.setElementsWithSameLabel(unionPairs(partialResults, EvaluationResult::getElementsWithSameLabel));
+		merged.setEquivalentClasses(unionPairs(partialResults, EvaluationResult::getEquivalentClasses));
+		merged.setEquivalentRelations(unionPairs(partialResults, EvaluationResult::getEquivalentRelations));
+		merged.setEquivalentAttributes(unionPairs(partialResults, EvaluationResult::getEquivalentAttributes));
+		merged.setWrongInverseRelations(unionPairs(partialResults, EvaluationResult::getWrongInverseRelations));
+		merged.setMightBeInverseRelations(unionPairs(partialResults, EvaluationResult::getMightBeInverseRelations));
+
+		Set<String> relationsWithoutInverse = new LinkedHashSet<String>();
+		partialResults.stream()
+				.filter(r -> r.getRelationsWithoutInverse() != null)
+				.forEach(r -> relationsWithoutInverse.addAll(r.getRelationsWithoutInverse()));
+		if (!relationsWithoutInverse.isEmpty()) {
+			merged.setRelationsWithoutInverse(new ArrayList<String>(relationsWithoutInverse));
+		}
+
+		merged.setSuggestions(unionInfoElements(partialResults, EvaluationResult::getSuggestions));
+		merged.setWarnings(unionInfoElements(partialResults, EvaluationResult::getWarnings));
+
+		return merged.build();
+	}
+
+	private static List<ElementPair> unionPairs(List<EvaluationResult> partialResults,
+			Function<EvaluationResult, List<ElementPair>> pairsGetter) {
+		Set<ElementPair> pairs = new LinkedHashSet<ElementPair>();
+		boolean anyPairs = false;
+
+		for (EvaluationResult partialResult : partialResults) {
+			List<ElementPair> partialPairs = pairsGetter.apply(partialResult);
+
+			if (partialPairs != null) {
+				anyPairs = true;
+
+				for (ElementPair pair : partialPairs) {
+					if (!pairs.contains(new ElementPair(pair.getElementB(), pair.getElementA()))) {
+						pairs.add(pair);
+					}
+				}
+			}
+		}
+
+		return anyPairs ? new ArrayList<ElementPair>(pairs) : null;
+	}
+
+	private static List<InfoElementWithAffectedElems> unionInfoElements(List<EvaluationResult> partialResults,
+			Function<EvaluationResult, List<InfoElementWithAffectedElems>> infoElementsGetter) {
+		Map<String, Set<String>> affectedElementsByName = new LinkedHashMap<String, Set<String>>();
+		Map<String, String> descriptionsByName = new HashMap<String, String>();
+
+		for (EvaluationResult partialResult : partialResults) {
+			List<InfoElementWithAffectedElems> infoElems = infoElementsGetter.apply(partialResult);
+
+			if (infoElems != null) {
+				for (InfoElementWithAffectedElems infoElem : infoElems) {
+					descriptionsByName.put(infoElem.getName(), infoElem.getDescription());
+					affectedElementsByName.computeIfAbsent(infoElem.getName(), k -> new LinkedHashSet<String>())
+							.addAll(infoElem.getAffectedElements());
+				}
+			}
+		}
+
+		List<InfoElementWithAffectedElems> infoElems = new ArrayList<InfoElementWithAffectedElems>();
+
+		affectedElementsByName.forEach((name, elements) -> infoElems.add(new InfoElementWithAffectedElems(name,
+				descriptionsByName.get(name), elements.size(), new ArrayList<String>(elements))));
+
+		return infoElems.size() > 0 ? infoElems : null;
+	}
+
+	/**
+	 * Collects the pitfalls that do not apply to the whole ontology, so they
+	 * can be added to the merged results with one instance per code whose
+	 * number of affected elements is the number of merged elements that have
+	 * it. The general pitfalls are kept as they were reported. The paired
+	 * pitfalls left out of an element can be given back to it later on.
+	 */
+	private static class PitfallCollector {
+
+		private final Map<String, Pitfall> pitfallsByCode = new LinkedHashMap<String, Pitfall>();
+
+		private final Map<String, Set<String>> elementsByCode = new HashMap<String, Set<String>>();
+
+		private final Map<String, List<Pitfall>> generalPitfalls = new LinkedHashMap<String, List<Pitfall>>();
+
+		void addAll(String element, List<Pitfall> pitfalls, boolean includeGeneral, boolean includePaired) {
+			for (Pitfall pitfall : pitfalls) {
+				if (OOPSEvaluator.isGeneralPitfall(pitfall.getPitfallID())) {
+					if (includeGeneral) {
+						generalPitfalls.computeIfAbsent(element, k -> new ArrayList<Pitfall>()).add(pitfall);
+					}
+				} else {
+					pitfallsByCode.putIfAbsent(pitfall.getPitfallID(), pitfall);
+
+					if (includePaired || !PAIRED_PITFALLS.contains(pitfall.getPitfallID())) {
+						add(element, pitfall.getPitfallID());
+					}
+				}
+			}
+		}
+
+		// adds a pitfall already seen by the collector to the given element
+		void add(String element, String code) {
+			if (pitfallsByCode.containsKey(code)) {
+				elementsByCode.computeIfAbsent(code, k -> new LinkedHashSet<String>()).add(element);
+			}
+		}
+
+		void addTo(EvaluationResult.Builder merged) {
+			pitfallsByCode.forEach((code, pitfall) -> {
+				Set<String> elements = elementsByCode.getOrDefault(code, Collections.emptySet());
+				Pitfall countedPitfall = new Pitfall(pitfall.getImportanceLevel(), code, pitfall.getName(),
+						pitfall.getDescription(), elements.size());
+
+				elements.forEach(element -> merged.addPitfall(element, countedPitfall));
+			});
+			generalPitfalls.forEach((element, pitfalls) -> pitfalls.forEach(p -> merged.addPitfall(element, p)));
+		}
+	}
+
+	/**
+	 * Adds the pitfalls of an element to the given results, filtering them by
+	 * whether they apply to the whole ontology or not
+	 */
+	private static void addPitfalls(EvaluationResult.Builder merged, String element, List<Pitfall> pitfalls,
+			boolean includeGeneral, boolean includeSpecific) {
+		for (Pitfall pitfall : pitfalls) {
+			if (OOPSEvaluator.isGeneralPitfall(pitfall.getPitfallID()) ? includeGeneral : includeSpecific) {
+				merged.addPitfall(element, pitfall);
+			}
+		}
+	}
+
+	private static List<ElementPair> replacePairs(List<ElementPair> previous, List<ElementPair> update,
+			Predicate<ElementPair> replacedPair) {
+		if (previous == null && update == null) {
+			return null;
+		}
+
+		List<ElementPair> pairs = new ArrayList<ElementPair>();
+
+		if (previous != null) {
+			previous.stream().filter(replacedPair.negate()).forEach(pairs::add);
+		}
+
+		if (update != null) {
+			update.stream().filter(replacedPair).forEach(pairs::add);
+		}
+
+		return pairs;
+	}
+
+	private static void addPairedElements(Map<String, Set<String>> pairedElementsByCode, String code,
+			List<ElementPair> pairs) {
+		if (pairs != null) {
+			Set<String> elements = pairedElementsByCode.computeIfAbsent(code, k -> new HashSet<String>());
+
+			pairs.forEach(pair -> {
+				elements.add(pair.getElementA());
+				elements.add(pair.getElementB());
+			});
+		}
+	}
+
+	private static List<String> replaceElementsList(List<String> previous, List<String> update,
+			Set<String> updatedElements) {
+		if (previous == null && update == null) {
+			return null;
+		}
+
+		List<String> elements = new ArrayList<String>();
+
+		if (previous != null) {
+			previous.stream().filter(element -> !updatedElements.contains(element)).forEach(elements::add);
+		}
+
+		if (update != null) {
+			update.stream().filter(updatedElements::contains).forEach(elements::add);
+		}
+
+		return elements;
+	}
+
+	/**
+	 * Merges suggestions or warnings by name, replacing the affected elements
+	 * that have been re-evaluated
+	 */
+	private static List<InfoElementWithAffectedElems> replaceInfoElements(List<InfoElementWithAffectedElems> previous,
+			List<InfoElementWithAffectedElems> update, Set<String> updatedElements) {
+		if (previous == null && update == null) {
+			return null;
+		}
+
+		Map<String, List<String>> affectedElementsByName = new LinkedHashMap<String, List<String>>();
+		Map<String, String> descriptionsByName = new HashMap<String, String>();
+
+		if (previous != null) {
+			for (InfoElementWithAffectedElems infoElem : previous) {
+				descriptionsByName.put(infoElem.getName(), infoElem.getDescription());
+				replaceElementsList(infoElem.getAffectedElements(), null, updatedElements).forEach(element ->
+						affectedElementsByName.computeIfAbsent(infoElem.getName(), k -> new ArrayList<String>())
+								.add(element));
+			}
+		}
+
+		if (update != null) {
+			for (InfoElementWithAffectedElems infoElem : update) {
+				descriptionsByName.put(infoElem.getName(), infoElem.getDescription());
+				infoElem.getAffectedElements().stream().filter(updatedElements::contains).forEach(element ->
+						affectedElementsByName.computeIfAbsent(infoElem.getName(), k -> new ArrayList<String>())
+								.add(element));
+			}
+		}
+
+		List<InfoElementWithAffectedElems> infoElems = new ArrayList<InfoElementWithAffectedElems>();
+
+		affectedElementsByName.forEach((name, elements) -> infoElems.add(new InfoElementWithAffectedElems(name,
+				descriptionsByName.get(name), elements.size(), elements)));
+
+		return infoElems.size() > 0 ? infoElems : null;
+	}
+}
@@ -1,81 +1,66 @@
 package oops.evaluation;
 
-import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
-import java.io.DataOutputStream;
-import java.io.InputStreamReader;
-import java.io.StringWriter;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.model.OWLOntology;
-import org.semanticweb.owlapi.rdf.rdfxml.renderer.RDFXMLRenderer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
-import oops.model.ElementPair;
+import oops.evaluation.local.LocalEvaluationBackend;
+import oops.evaluation.local.OntologyMetadataDetector;
+import oops.evaluation.local.PitfallCatalogue;
+import oops.evaluation.local.ReasonerAccess;
 import oops.model.EvaluationResult;
-import oops.model.InfoElementWithAffectedElems;
-import oops.model.Pitfall;
-import oops.model.PitfallImportanceLevel;
 
 /**
  * Author: Lukas Gedvilas<br>
  * Universidad Politécnica de Madrid<br><br>
  *
- * Evaluation service for the OOPS! plugin that uses the OOPS!(oops.linkeddata.es) web service
- * for the evaluation logic.
+ * Evaluation service for the OOPS! plugin that runs the evaluations with a pluggable backend, by default the
+ * OOPS!(oops.linkeddata.es) web service.
  */
 public class OOPSEvaluator {
     
     private static final Logger logger = LoggerFactory.getLogger(OOPSEvaluator.class);
     
-    private static final String OOPS_WS_ENDPOINT = "http://oops-ws.oeg-upm.net/rest";
+    private static final Path CACHE_DIRECTORY = Paths.get(System.getProperty("user.home"), ".oops-plugin", "cache");
     
-    private static final String OOPS_WS_REQUEST_TEMPLATE = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
-    		+ "<OOPSRequest>"
-    		+ "    <OntologyURI></OntologyURI>"
-    		+ "    <OntologyContent><![CDATA[ %s ]]></OntologyContent>"
-    		+ "    <Pitfalls>%s</Pitfalls>"
-    		+ "    <OutputFormat>XML</OutputFormat>"
-    		+ "</OOPSRequest>";
+    private static final long CACHE_MAX_SIZE = 64L * 1024 * 1024; // keep up to 64MB of cached responses
     
-    private static final int OOPS_WS_TIMEOUT = 30 * 1000; // set OOPS! WS timeout to 30s
+    // modules bigger than this share of the ontology's axioms are not worth an incremental evaluation
+    private static final double INCREMENTAL_MAX_MODULE_RATIO = 0.5;
+    
+    // ontologies bigger than this number of axioms are split into shards evaluated in parallel
+    private static final int DEFAULT_MAX_SHARD_AXIOMS = 20000;
+    
+    private static final int SHARD_REQUESTS_THREADS = 4; // max number of concurrent OOPS! WS requests
+    
+    private static final int MAX_QUEUED_EVALUATIONS = 4; // max number of evaluations waiting for the running one
     
-	private static final String OOPS_XML_PREFIX = "oops:";
-	private static final String OOPS_TAG_RESPONSE = OOPS_XML_PREFIX + "OOPSResponse";
-	private static final String OOPS_TAG_PITFALL = OOPS_XML_PREFIX + "Pitfall";
-	private static final String OOPS_TAG_NAME = OOPS_XML_PREFIX + "Name";
-	private static final String OOPS_TAG_CODE = OOPS_XML_PREFIX + "Code";
-	private static final String OOPS_TAG_DESCRIPTION = OOPS_XML_PREFIX + "Description";
-	private static final String OOPS_TAG_IMPORTANCE = OOPS_XML_PREFIX + "Importance";
-	private static final String OOPS_TAG_NUMBER_AFFECTED_ELEMS = OOPS_XML_PREFIX + "NumberAffectedElements";
-	private static final String OOPS_TAG_AFFECTS = OOPS_XML_PREFIX + "Affects";
-	private static final String OOPS_TAG_AFFECTED_ELEM = OOPS_XML_PREFIX + "AffectedElement";
-	private static final String OOPS_TAG_WRONG_INVERSE = OOPS_XML_PREFIX + "MightNotBeInverseOf";
-	private static final String OOPS_TAG_MIGHT_BE_INVERSE = OOPS_XML_PREFIX + "MightBeInverse";
-	private static final String OOPS_TAG_EQUIVALENT_PROPERTY = OOPS_XML_PREFIX + "MightBeEquivalentProperty";
-	private static final String OOPS_TAG_EQUIVALENT_ATTRIBUTE = OOPS_XML_PREFIX + "MightBeEquivalentAttribute";
-	private static final String OOPS_TAG_EQUIVALENT_CLASSES = OOPS_XML_PREFIX + "MightBeEquivalentClass";
-	private static final String OOPS_TAG_NO_INVERSE_SUGGESTION = OOPS_XML_PREFIX + "NoInverseSuggestion";
-	private static final String OOPS_TAG_SAME_LABEL = OOPS_XML_PREFIX + "HaveSameLabel";
-	private static final String OOPS_TAG_SUGGESTION = OOPS_XML_PREFIX + "Suggestion";
-	private static final String OOPS_TAG_WARNING = OOPS_XML_PREFIX + "Warning";
-	
 	public static final String PITFALL_WRONG_INVERSE_ID = "P05";
 	public static final String PITFALL_MIGHT_BE_INVERSE_ID = "P13";
 	public static final String PITFALL_MIGHT_BE_EQUIVALENT_ID = "P12";
@@ -85,53 +70,117 @@ public class OOPSEvaluator {
 	// pitfalls that apply to the ontology in general
 	private static final String generalPitfalls[] = { "P10", "P22", "P38", "P39", "P41" };
 	
-	private static final String OWL_THING_IRI = "http://www.w3.org/2002/07/owl#Thing";
+	// pitfalls that compare or connect elements across the whole ontology, so no shard can check them on its own
+	private static final String wholeOntologyPitfalls[] = { "P04", "P08", PITFALL_MIGHT_BE_EQUIVALENT_ID, 
+			PITFALL_MIGHT_BE_INVERSE_ID, PITFALL_EQUIVALENT_CLASSES_ID, PITFALL_SAME_LABEL };
+	
+	public static final String OWL_THING_IRI = "http://www.w3.org/2002/07/owl#Thing";
 
-    private static OWLOntology activeOntology;
+    private static OOPSEvaluator instance = null;
     
-    private static List<String> pitfallsSubset;
+    private static List<EvaluationListener> listeners = new CopyOnWriteArrayList<EvaluationListener>();
     
-    private static OOPSEvaluator instance = null;
+    private static List<EvaluationJob> inFlightJobs = new ArrayList<EvaluationJob>();
+    
+    // a single worker runs the evaluations in order, as they share the change tracker and the current results
+    private static ExecutorService evaluationExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, 
+    		new LinkedBlockingQueue<Runnable>(MAX_QUEUED_EVALUATIONS), 
+    		runnable -> {
+    			Thread thread = new Thread(runnable, "oops-evaluation");
+    			thread.setDaemon(true);
+    			return thread;
+    		});
+    
+    private static volatile EvaluationResult evaluationResults = null; // the published, immutable snapshot
+    
+    private static final RemoteEvaluationBackend remoteBackend = new RemoteEvaluationBackend();
+    
+    private static final LocalEvaluationBackend localBackend = new LocalEvaluationBackend();
+    
+    private static final List<EvaluationBackend> availableBackends = Collections.unmodifiableList(Arrays.asList(
+    		new CachedEvaluationBackend(remoteBackend, new EvaluationCache(CACHE_DIRECTORY, CACHE_MAX_SIZE)),
+    		remoteBackend,
+    		localBackend));
+    
+    private static EvaluationBackend backend = availableBackends.get(0); // the backend for the next evaluations
+    
+    private static OntologyChangeTracker changeTracker = null;
     
-    private static ArrayList<EvaluationListener> listeners = new ArrayList<EvaluationListener>();
+    private static List<String> evaluatedPitfallsSubset = null; // the pitfalls subset of the current results
     
-    private static EvaluationResult evaluationResults = null;
+    private static EvaluationBackend evaluatedBackend = null; // the backend of the current results
+    
+    private static int maxShardAxioms = DEFAULT_MAX_SHARD_AXIOMS;
+    
+    private static ExecutorService shardRequestsExecutor = Executors.newFixedThreadPool(SHARD_REQUESTS_THREADS, 
+    		runnable -> {
+    			Thread thread = new Thread(runnable, "oops-shard-request");
+    			thread.setDaemon(true);
+    			return thread;
+    		});
 
 	/**
-     * A runnable task that completes the ontology evaluation process using the OOPS! Web Service
-     */
-    private static Runnable evaluationTask = () -> {
-    	listeners.forEach(l -> l.onEvaluationStarted()); // notify all listeners about evaluation start
-    	
-    	Instant startInstant = Instant.now();
-		
-		activeOntology.getOWLOntologyManager();
+	 * Completes the evaluation of the given job, notifying the listeners
+	 * unless the job is cancelled in the meantime
+	 * 
+	 * @param job
+	 *            the job to run
+	 */
+	private static void runEvaluationJob(EvaluationJob job) {
+		if (!job.start()) {
+			return; // cancelled while queued
+		}
 		
-		StringWriter rdfWriter = new StringWriter();
-		RDFXMLRenderer rdfRenderer = new RDFXMLRenderer(activeOntology, rdfWriter);
+		listeners.forEach(l -> l.onEvaluationStarted()); // notify all listeners about evaluation start
+    	
+		Instant startInstant = Instant.now();
 		
 		try {
-			rdfRenderer.render();
-			
-			String rdfFormattedOntology = rdfWriter.toString();
-			
-			String pitfallsField = pitfallsSubset.stream().collect(Collectors.joining(","));
-			String oopsRequestBody = String.format(OOPS_WS_REQUEST_TEMPLATE, rdfFormattedOntology, pitfallsField);
-			
-			String oopsResponse = sendOOPSRequest(oopsRequestBody);
+			EvaluationResult results;
+			if (canEvaluateIncrementally(job)) {
+				results = evaluateIncrementally(job.getOntology(), job.getPitfallsSubset(), job.getBackend());
+			} else {
+				trackChanges(job.getOntology());
+				results = evaluateOntology(job.getOntology(), job.getPitfallsSubset(), job.getBackend());
+			}
 			
-			evaluationResults = getResultsFromResponse(oopsResponse);
-	        
-	        logger.info(String.format("evaluationTask[OOPSEvaluator] finished in %d seconds", 
-					Duration.between(startInstant, Instant.now()).getSeconds()));
-	        
-	        listeners.forEach(l -> l.onEvaluationDone(evaluationResults)); // send results to each listener
+			if (job.complete(results)) {
+				evaluationResults = results;
+				evaluatedPitfallsSubset = job.getPitfallsSubset();
+				evaluatedBackend = job.getBackend();
+				
+				logger.info(String.format("evaluationTask[OOPSEvaluator] finished in %d seconds", 
+						Duration.between(startInstant, Instant.now()).getSeconds()));
+				
+				listeners.forEach(l -> l.onEvaluationDone(results)); // send results to each listener
+			} else {
+				evaluatedPitfallsSubset = null; // the tracked changes may be out of sync with the results
+				logger.info("evaluationTask[OOPSEvaluator] discarded the results of a cancelled evaluation");
+			}
 		} catch (Exception e) {
-			logger.error("An exception has ocurred while evaluating the ontology! Exception message: "
-					+ e.getLocalizedMessage());
-			listeners.forEach(l -> l.OnEvaluationException(e));
+			evaluatedPitfallsSubset = null; // the next evaluation has to be a complete one
+			
+			if (job.fail(e)) {
+				logger.error("An exception has ocurred while evaluating the ontology! Exception message: "
+						+ e.getLocalizedMessage());
+				listeners.forEach(l -> l.OnEvaluationException(e));
+			}
+		} finally {
+			synchronized (inFlightJobs) {
+				inFlightJobs.remove(job);
+			}
+		}
+	}
+	
+	/**
+	 * Throws a CancellationException if the evaluation running in the current
+	 * thread has been cancelled
+	 */
+	private static void checkCancelled() {
+		if (Thread.currentThread().isInterrupted()) {
+			throw new CancellationException("The evaluation has been cancelled");
 		}
-    };
+	}
 	
 	/**
 	 * Returns an OOPSEvaluator singleton instance
@@ -147,413 +196,271 @@ public class OOPSEvaluator {
 	}
 	
 	/**
-	 * Send the required message to OOPS! WS endpoint and returns its response
+	 * Evaluates the given ontology, splitting it into shards if the backend is
+	 * remote and the ontology is bigger than the shard size cap
 	 * 
-	 * @param oopsRequestBody
-	 *            the message to send
-	 * @return the response text
+	 * @param ontology
+	 *            the ontology to evaluate
+	 * @param pitfalls
+	 *            the pitfalls to check, or an empty list to check all of them
+	 * @param backend
+	 *            the backend that evaluates the ontology
+	 * @return the evaluation results
 	 * @throws Exception
 	 */
-	private static String sendOOPSRequest(String oopsRequestBody) throws Exception {
-		HttpURLConnection connection = (HttpURLConnection) new URL(OOPS_WS_ENDPOINT).openConnection();
-		connection.setRequestMethod("POST");
-		connection.setReadTimeout(OOPS_WS_TIMEOUT);
-		
-		// Send POST request
-		connection.setDoOutput(true);
-		DataOutputStream wr = new DataOutputStream(connection.getOutputStream());
-		wr.writeBytes(oopsRequestBody);
-		wr.flush();
-		wr.close();
-		
-		int responseCode = connection.getResponseCode();
-		
-		if (responseCode == 200) {
-			BufferedReader in = new BufferedReader(
-			        new InputStreamReader(connection.getInputStream()));
-			String response = in.lines().collect(Collectors.joining("\n"));
-			
-			return response;
+	private static EvaluationResult evaluateOntology(OWLOntology ontology, List<String> pitfalls, 
+			EvaluationBackend backend) throws Exception {
+		if (backend.isRemote() && maxShardAxioms > 0 && ontology.getAxiomCount() > maxShardAxioms) {
+			return evaluateSharded(ontology, pitfalls, backend);
 		} else {
-			throw new Exception("The OOPS! web service request has failed with status code " + responseCode);
+			return evaluateWholeOntology(ontology, pitfalls, backend);
 		}
 	}
 	
 	/**
-	 * Parses the OOPS! WS response and returns the organised results
+	 * Evaluates the given ontology in a single call to the backend
 	 * 
-	 * @param oopsResponse
-	 *            the response from the OOPS! WebService
-	 * @return OOPS! WS results
+	 * @param ontology
+	 *            the ontology to evaluate
+	 * @param pitfalls
+	 *            the pitfalls to check, or an empty list to check all of them
+	 * @param backend
+	 *            the backend that evaluates the ontology
+	 * @return the evaluation results
 	 * @throws Exception
 	 */
-	private static EvaluationResult getResultsFromResponse(String oopsResponse) throws Exception {
-		DocumentBuilder dBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+	private static EvaluationResult evaluateWholeOntology(OWLOntology ontology, List<String> pitfalls, 
+			EvaluationBackend backend) throws Exception {
+		checkCancelled();
 		
-		Document doc = dBuilder.parse(new ByteArrayInputStream(oopsResponse.getBytes()));
-		doc.getDocumentElement().normalize();
-		
-		Element parsedResponse = (Element) doc.getElementsByTagName(OOPS_TAG_RESPONSE).item(0);
-		
-		NodeList pitfallsList = parsedResponse.getElementsByTagName(OOPS_TAG_PITFALL);
+		return backend.evaluate(ontology, pitfalls);
+	}
+	
+	/**
+	 * Evaluates a big ontology as a set of locality-module shards sent to the
+	 * OOPS! WS concurrently. The shards only check the pitfalls of single
+	 * elements and of the axioms they contain, which a module can tell about.
+	 * The pitfalls that compare or connect elements across the ontology (P04,
+	 * P08, P12, P13, P30 and P32) would be missed or made up for the pairs and
+	 * components split between shards, so they are checked once on the local
+	 * indexes of the whole ontology. The general pitfalls are checked on a
+	 * skeleton of the ontology.
+	 * 
+	 * @param ontology
+	 *            the ontology to evaluate
+	 * @param pitfalls
+	 *            the pitfalls to check, or an empty list to check all of them
+	 * @param backend
+	 *            the backend that evaluates the shards
+	 * @return the merged evaluation results
+	 * @throws Exception
+	 */
+	private static EvaluationResult evaluateSharded(OWLOntology ontology, List<String> pitfalls, 
+			EvaluationBackend backend) throws Exception {
+		OntologyPartitioner partitioner = new OntologyPartitioner(ontology);
 		
-		HashMap<String, ArrayList<Pitfall>> detectedPitfalls = new HashMap<String, ArrayList<Pitfall>>();
+		List<String> selectedGeneralPitfalls = getSelectedGeneralPitfalls(pitfalls);
+		List<String> selectedWholeOntologyPitfalls = Stream.of(wholeOntologyPitfalls)
+				.filter(p -> pitfalls.isEmpty() || pitfalls.contains(p))
+				.collect(Collectors.toList());
+		List<String> modulePitfalls = (pitfalls.isEmpty() ? PitfallCatalogue.getPitfallIDs() : pitfalls).stream()
+				.filter(p -> !isGeneralPitfall(p) && !selectedWholeOntologyPitfalls.contains(p))
+				.collect(Collectors.toList());
 		
-		evaluationResults = new EvaluationResult();
+		List<Future<EvaluationResult>> shardEvaluations = new ArrayList<Future<EvaluationResult>>();
 		
-		if (pitfallsList.getLength() == 0) {
-			logger.debug("There are no pitfalls!");
-		} else {
-			logger.debug(String.format("There are %d pitfalls!  -->>", pitfallsList.getLength()));
-			for (int i = 0; i < pitfallsList.getLength(); i++) {
-				Element pitfall = (Element) pitfallsList.item(i);
-				Node pitfallDescriptionNode = pitfall.getElementsByTagName(OOPS_TAG_DESCRIPTION).item(0);
-				Node pitfallCodeNode = pitfall.getElementsByTagName(OOPS_TAG_CODE).item(0);
-				Node pitfallNameNode = pitfall.getElementsByTagName(OOPS_TAG_NAME).item(0);
-				Node pitfallImportanceNode = pitfall.getElementsByTagName(OOPS_TAG_IMPORTANCE).item(0);
-				Node pitfallNumAffectedElemsNode = pitfall.getElementsByTagName(OOPS_TAG_NUMBER_AFFECTED_ELEMS).item(0);
-				Element pitfallAffectsElement = (Element) pitfall.getElementsByTagName(OOPS_TAG_AFFECTS).item(0);
-
-				String pitfallDescription = pitfallDescriptionNode.getTextContent();
-				String pitfallCode = pitfallCodeNode.getTextContent();
-				String pitfallName = pitfallNameNode.getTextContent();
-				String pitfallImportance = pitfallImportanceNode.getTextContent();
+		try {
+			if (!modulePitfalls.isEmpty()) {
+				List<Set<OWLAxiom>> shards = partitioner.partition(maxShardAxioms);
 				
-				int pitfallNumAffectedElems = 0;
-				if (pitfallNumAffectedElemsNode != null) {
-					pitfallNumAffectedElems = Integer.parseInt(pitfallNumAffectedElemsNode.getTextContent());
-				}
+				logger.info(String.format("evaluateSharded[OOPSEvaluator] evaluating %d axioms in %d shards", 
+						ontology.getAxiomCount(), shards.size()));
 				
-				switch (pitfallCode) {
-				case PITFALL_EQUIVALENT_CLASSES_ID:
-					NodeList mightBeEquivalentClassList = pitfallAffectsElement.getElementsByTagName(OOPS_TAG_EQUIVALENT_CLASSES);
-					
-					ArrayList<ElementPair> equivalentClasses = new ArrayList<ElementPair>();
-					
-					for (int j = 0; j < mightBeEquivalentClassList.getLength(); j++) {
-						Element mightBeEquivalentNode = (Element) mightBeEquivalentClassList.item(j);
-						
-						NodeList equivalentClassesNodes = mightBeEquivalentNode.getElementsByTagName(OOPS_TAG_AFFECTED_ELEM);
-						String equivalent1 = equivalentClassesNodes.item(0).getFirstChild().getNodeValue();
-						String equivalent2 = equivalentClassesNodes.item(1).getFirstChild().getNodeValue();
-						
-						for (String elementIRI : new String[]{equivalent1, equivalent2}) {
-							if (!detectedPitfalls.containsKey(elementIRI)) {
-								detectedPitfalls.put(elementIRI, new ArrayList<Pitfall>());
-							}
-							
-							detectedPitfalls.get(elementIRI).add(
-									new Pitfall(
-											PitfallImportanceLevel.valueOf(pitfallImportance.toUpperCase()),
-											pitfallCode,
-											pitfallName,
-											pitfallDescription,
-											pitfallNumAffectedElems));
-						}
-						
-						equivalentClasses.add(new ElementPair(equivalent1, equivalent2));
-					}
-					
-					evaluationResults.setEquivalentClasses(equivalentClasses);
-					break;
-				case PITFALL_MIGHT_BE_EQUIVALENT_ID:
-					NodeList mightBeEquivalentPropertyList = pitfallAffectsElement.getElementsByTagName(OOPS_TAG_EQUIVALENT_PROPERTY);
-					NodeList mightBeEquivalentAttributeList = pitfallAffectsElement.getElementsByTagName(OOPS_TAG_EQUIVALENT_ATTRIBUTE);
-					
-					ArrayList<ElementPair> equivalentProperties = new ArrayList<ElementPair>();
-					ArrayList<ElementPair> equivalentAttributes = new ArrayList<ElementPair>();
-					
-					for (int j = 0; j < mightBeEquivalentPropertyList.getLength(); j++) { // eq properties loop
-						Element mightBeEquivalentPropertyNode = (Element) mightBeEquivalentPropertyList.item(j);
-						
-						NodeList equivalentPropertyNodes = mightBeEquivalentPropertyNode.getElementsByTagName(OOPS_TAG_AFFECTED_ELEM);
-						String equivalent1 = equivalentPropertyNodes.item(0).getFirstChild().getNodeValue();
-						String equivalent2 = equivalentPropertyNodes.item(1).getFirstChild().getNodeValue();
-						
-						for (String elementIRI : new String[]{equivalent1, equivalent2}) {
-							if (!detectedPitfalls.containsKey(elementIRI)) {
-								detectedPitfalls.put(elementIRI, new ArrayList<Pitfall>());
-							}
-							
-							detectedPitfalls.get(elementIRI).add(
-									new Pitfall(
-											PitfallImportanceLevel.valueOf(pitfallImportance.toUpperCase()),
-											pitfallCode,
-											pitfallName,
-											pitfallDescription,
-											pitfallNumAffectedElems));
-						}
-						
-						equivalentProperties.add(new ElementPair(equivalent1, equivalent2));
-					}
-					
-					for (int j = 0; j < mightBeEquivalentAttributeList.getLength(); j++) { // eq attributes loop
-						Element mightBeEquivalentAttributeNode = (Element) mightBeEquivalentAttributeList.item(j);
-						
-						NodeList equivalentAttributesNodes = mightBeEquivalentAttributeNode.getElementsByTagName(OOPS_TAG_AFFECTED_ELEM);
-						String equivalent1 = equivalentAttributesNodes.item(0).getFirstChild().getNodeValue();
-						String equivalent2 = equivalentAttributesNodes.item(1).getFirstChild().getNodeValue();
-						
-						for (String elementIRI : new String[]{equivalent1, equivalent2}) {
-							if (!detectedPitfalls.containsKey(elementIRI)) {
-								detectedPitfalls.put(elementIRI, new ArrayList<Pitfall>());
-							}
-							
-							detectedPitfalls.get(elementIRI).add(
-									new Pitfall(
-											PitfallImportanceLevel.valueOf(pitfallImportance.toUpperCase()),
-											pitfallCode,
-											pitfallName,
-											pitfallDescription,
-											pitfallNumAffectedElems));
-						}
-						
-						equivalentAttributes.add(new ElementPair(equivalent1, equivalent2));
-					}
-					
-					if (equivalentProperties.size() > 0) {
-						evaluationResults.setEquivalentRelations(equivalentProperties);
-					}
-					
-					if (equivalentAttributes.size() > 0) {
-						evaluationResults.setEquivalentAttributes(equivalentAttributes);
-					}
-					
-					break;
-				case PITFALL_MIGHT_BE_INVERSE_ID:
-					// MIGHT BE INVERSE
-					NodeList mightBeInverseList = pitfallAffectsElement.getElementsByTagName(OOPS_TAG_MIGHT_BE_INVERSE);
-					
-					List<ElementPair> inverseRelations = new ArrayList<ElementPair>();
-					
-					for (int j = 0; j < mightBeInverseList.getLength(); j++) {
-						Element mightBeInverseNode = (Element) mightBeInverseList.item(j);
-						
-						NodeList inverseNodes = mightBeInverseNode.getElementsByTagName(OOPS_TAG_AFFECTED_ELEM);
-						String equivalent1 = inverseNodes.item(0).getFirstChild().getNodeValue();
-						String equivalent2 = inverseNodes.item(1).getFirstChild().getNodeValue();
-						
-						for (String elementIRI : new String[]{equivalent1, equivalent2}) {
-							if (!detectedPitfalls.containsKey(elementIRI)) {
-								detectedPitfalls.put(elementIRI, new ArrayList<Pitfall>());
-							}
-							
-							detectedPitfalls.get(elementIRI).add(
-									new Pitfall(
-											PitfallImportanceLevel.valueOf(pitfallImportance.toUpperCase()),
-											pitfallCode,
-											pitfallName,
-											pitfallDescription,
-											pitfallNumAffectedElems));
-						}
-						
-						inverseRelations.add(new ElementPair(equivalent1, equivalent2));
-					}
-					
-					evaluationResults.setMightBeInverseRelations(inverseRelations);
-					
-					// NO INVERSE SUGGESTION
-					NodeList noInverseSuggestionNodes = pitfallAffectsElement.getElementsByTagName(OOPS_TAG_NO_INVERSE_SUGGESTION);
-					
-					List<String> noInverseSuggestions = new ArrayList<String>();
-					
-					for (int j = 0; j < noInverseSuggestionNodes.getLength(); j++) {
-						Element noInverseNode = (Element) noInverseSuggestionNodes.item(j);
-						
-						NodeList inverseNodes = noInverseNode.getElementsByTagName(OOPS_TAG_AFFECTED_ELEM);
-						
-						for (int nodeIndex = 0; nodeIndex < inverseNodes.getLength(); nodeIndex++) {
-							Node affectedElement = inverseNodes.item(nodeIndex);
-							String affectedElementIRI = affectedElement.getTextContent();
-							if (!detectedPitfalls.containsKey(affectedElementIRI)) {
-								detectedPitfalls.put(affectedElementIRI, new ArrayList<Pitfall>());
-							}
-							
-							detectedPitfalls.get(affectedElementIRI).add(
-									new Pitfall(
-											PitfallImportanceLevel.valueOf(pitfallImportance.toUpperCase()),
-											pitfallCode,
-											pitfallName,
-											pitfallDescription,
-											pitfallNumAffectedElems));
-							
-							noInverseSuggestions.add(affectedElementIRI);
-						}
-					}
-					
-					evaluationResults.setRelationsWithoutInverse(noInverseSuggestions);
-					
-					break;
-				case PITFALL_WRONG_INVERSE_ID:
-					NodeList wrongInverseList = pitfallAffectsElement.getElementsByTagName(OOPS_TAG_WRONG_INVERSE);
-					
-					ArrayList<ElementPair> wrongInverseRelations = new ArrayList<ElementPair>();
-					
-					for (int j = 0; j < wrongInverseList.getLength(); j++) {
-						Element wrongInverseNode = (Element) wrongInverseList.item(j);
-						
-						NodeList wrongInverseNodes = wrongInverseNode.getElementsByTagName(OOPS_TAG_AFFECTED_ELEM);
-						String equivalent1 = wrongInverseNodes.item(0).getFirstChild().getNodeValue();
-						String equivalent2 = wrongInverseNodes.item(1).getFirstChild().getNodeValue();
-						
-						for (String elementIRI : new String[]{equivalent1, equivalent2}) {
-							if (!detectedPitfalls.containsKey(elementIRI)) {
-								detectedPitfalls.put(elementIRI, new ArrayList<Pitfall>());
-							}
-							
-							detectedPitfalls.get(elementIRI).add(
-									new Pitfall(
-											PitfallImportanceLevel.valueOf(pitfallImportance.toUpperCase()),
-											pitfallCode,
-											pitfallName,
-											pitfallDescription,
-											pitfallNumAffectedElems));
-						}
-						
-						wrongInverseRelations.add(new ElementPair(equivalent1, equivalent2));
-					}
-					
-					evaluationResults.setWrongInverseRelations(wrongInverseRelations);
-					
-					break;
-				case PITFALL_SAME_LABEL:
-					NodeList haveSameLabelNodeList = pitfallAffectsElement.getElementsByTagName(OOPS_TAG_SAME_LABEL);
-					
-					ArrayList<ElementPair> elementsWithSameLabel = new ArrayList<ElementPair>();
-					
-					for (int j = 0; j < haveSameLabelNodeList.getLength(); j++) {
-						Element hasSameLabelNode = (Element) haveSameLabelNodeList.item(j);
-						
-						NodeList sameLabelNodes = hasSameLabelNode.getElementsByTagName(OOPS_TAG_AFFECTED_ELEM);
-						String equivalent1 = sameLabelNodes.item(0).getFirstChild().getNodeValue();
-						String equivalent2 = sameLabelNodes.item(1).getFirstChild().getNodeValue();
-						
-						for (String elementIRI : new String[]{equivalent1, equivalent2}) {
-							if (!detectedPitfalls.containsKey(elementIRI)) {
-								detectedPitfalls.put(elementIRI, new ArrayList<Pitfall>());
-							}
-							
-							detectedPitfalls.get(elementIRI).add(
-									new Pitfall(
-											PitfallImportanceLevel.valueOf(pitfallImportance.toUpperCase()),
-											pitfallCode,
-											pitfallName,
-											pitfallDescription,
-											pitfallNumAffectedElems));
-						}
-						
-						elementsWithSameLabel.add(new ElementPair(equivalent1, equivalent2));
-					}
+				for (Set<OWLAxiom> shard : shards) {
+					// the shard ontologies are built here, as the OWL API is not safe for concurrent reads
+					OWLOntology shardOntology = partitioner.createModuleOntology(shard, Collections.emptySet());
 					
-					evaluationResults.setElementsWithSameLabel(elementsWithSameLabel);
-					
-					break;
-				default:
-					if (isGeneralPitfall(pitfallCode)) {
-						// add pitfall to the root element of the owl ontology
-						detectedPitfalls.put(OWL_THING_IRI, new ArrayList<Pitfall>(Arrays.asList(new Pitfall(
-								PitfallImportanceLevel.valueOf(pitfallImportance.toUpperCase()),
-								pitfallCode,
-								pitfallName,
-								pitfallDescription,
-								pitfallNumAffectedElems))));
-					} else {
-						NodeList affectedElements = pitfallAffectsElement.getElementsByTagName(OOPS_TAG_AFFECTED_ELEM);
-						for (int j = 0; j < affectedElements.getLength(); j++) {
-							Node affectedElement = affectedElements.item(j);
-							String affectedElementIRI = affectedElement.getTextContent();
-							
-							if (!detectedPitfalls.containsKey(affectedElementIRI)) {
-								detectedPitfalls.put(affectedElementIRI, new ArrayList<Pitfall>());
-							}
-							
-							detectedPitfalls.get(affectedElementIRI).add(
-									new Pitfall(
-											PitfallImportanceLevel.valueOf(pitfallImportance.toUpperCase()),
-											pitfallCode,
-											pitfallName,
-											pitfallDescription,
-											pitfallNumAffectedElems));
-						}
-					}
+					shardEvaluations.add(shardRequestsExecutor.submit(
+							() -> evaluateWholeOntology(shardOntology, modulePitfalls, backend)));
 				}
 			}
-		}
-        
-		evaluationResults.setDetectedPitfalls(detectedPitfalls);
-		
-		// SUGGESTIONS
-		NodeList suggestionsList = parsedResponse.getElementsByTagName(OOPS_TAG_SUGGESTION);
-		
-		if (suggestionsList.getLength() == 0) {
-			logger.debug("There are no suggestions!");
-		} else {
-			logger.debug(String.format("There are %d suggestions!", suggestionsList.getLength()));
-			List<InfoElementWithAffectedElems> suggestions = new ArrayList<InfoElementWithAffectedElems>();
 			
-			for (int i = 0; i < suggestionsList.getLength(); i++) {
-				Element suggestion = (Element) suggestionsList.item(i);
-				Node elemDescriptionNode = suggestion.getElementsByTagName(OOPS_TAG_DESCRIPTION).item(0);
-				Node elemNameNode = suggestion.getElementsByTagName(OOPS_TAG_NAME).item(0);
-				Node numAffectedElemsNode = suggestion.getElementsByTagName(OOPS_TAG_NUMBER_AFFECTED_ELEMS).item(0);
-				Element affectsElement = (Element) suggestion.getElementsByTagName(OOPS_TAG_AFFECTS).item(0);
-
-				String description = elemDescriptionNode.getTextContent();
-				String name = elemNameNode.getTextContent();
-				int numAffectedElems = Integer.parseInt(numAffectedElemsNode.getTextContent());
-				
-				List<String> affectedElements = new ArrayList<String>();
-				NodeList affectedElementNodes = affectsElement.getElementsByTagName(OOPS_TAG_AFFECTED_ELEM);
-				
-				for (int j = 0; j < affectedElementNodes.getLength(); j++) {
-					Node affectedElement = affectedElementNodes.item(j);
-					String affectedElementIRI = affectedElement.getTextContent();
-					
-					affectedElements.add(affectedElementIRI);
-				}
-				
-				suggestions.add(new InfoElementWithAffectedElems(name, description, numAffectedElems, 
-						affectedElements));
+			List<EvaluationResult> results = new ArrayList<EvaluationResult>();
+			if (!selectedWholeOntologyPitfalls.isEmpty()) {
+				results.add(evaluateWholeOntology(ontology, selectedWholeOntologyPitfalls, localBackend));
 			}
 			
-			evaluationResults.setSuggestions(suggestions);
-		}
-		
-		// WARNINGS
-		NodeList warningsList = parsedResponse.getElementsByTagName(OOPS_TAG_WARNING);
-		
-		if (warningsList.getLength() == 0) {
-			logger.debug("There are no warnings!");
-		} else {
-			logger.debug(String.format("There are %d warnings!", warningsList.getLength()));
-			List<InfoElementWithAffectedElems> warnings = new ArrayList<InfoElementWithAffectedElems>();
+			EvaluationResult generalResults = null;
+			if (!selectedGeneralPitfalls.isEmpty()) {
+				generalResults = evaluateWholeOntology(partitioner.createSkeletonOntology(), 
+						selectedGeneralPitfalls, backend);
+			}
 			
-			for (int i = 0; i < warningsList.getLength(); i++) {
-				Element warning = (Element) warningsList.item(i);
-				Node elemNameNode = warning.getElementsByTagName(OOPS_TAG_NAME).item(0);
-				Node numAffectedElemsNode = warning.getElementsByTagName(OOPS_TAG_NUMBER_AFFECTED_ELEMS).item(0);
-				Element affectsElement = (Element) warning.getElementsByTagName(OOPS_TAG_AFFECTS).item(0);
-
-				String name = elemNameNode.getTextContent();
-				int numAffectedElems = Integer.parseInt(numAffectedElemsNode.getTextContent());
-				
-				List<String> affectedElements = new ArrayList<String>();
-				NodeList affectedElementNodes = affectsElement.getElementsByTagName(OOPS_TAG_AFFECTED_ELEM);
-				
-				for (int j = 0; j < affectedElementNodes.getLength(); j++) {
-					Node affectedElement = affectedElementNodes.item(j);
-					String affectedElementIRI = affectedElement.getTextContent();
-					
-					affectedElements.add(affectedElementIRI);
-				}
-				
-				warnings.add(new InfoElementWithAffectedElems(name, null, numAffectedElems, affectedElements));
+			checkCancelled();
+			
+			for (Future<EvaluationResult> shardEvaluation : shardEvaluations) {
+				results.add(shardEvaluation.get());
 			}
 			
-			evaluationResults.setWarnings(warnings);
+			return EvaluationResultMerger.union(results, generalResults);
+		} catch (ExecutionException e) {
+			throw (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+		} catch (InterruptedException e) {
+			throw new CancellationException("The evaluation has been cancelled");
+		} finally {
+			shardEvaluations.forEach(f -> f.cancel(true)); // no-op for the finished ones
+		}
+	}
+	
+	/**
+	 * Returns the general pitfalls included in the given pitfalls subset
+	 * 
+	 * @param pitfalls
+	 *            the pitfalls subset, or an empty list for all of them
+	 * @return the selected general pitfalls
+	 */
+	private static List<String> getSelectedGeneralPitfalls(List<String> pitfalls) {
+		return Stream.of(generalPitfalls)
+				.filter(p -> pitfalls.isEmpty() || pitfalls.contains(p))
+				.collect(Collectors.toList());
+	}
+	
+	/**
+	 * Starts tracking the changes of the given ontology, replacing the
+	 * previous tracker
+	 * 
+	 * @param ontology
+	 *            the ontology whose changes are to be tracked
+	 */
+	private static void trackChanges(OWLOntology ontology) {
+		if (changeTracker != null) {
+			changeTracker.dispose();
+		}
+		
+		changeTracker = new OntologyChangeTracker(ontology);
+	}
+	
+	/**
+	 * Returns true if the current results belong to the ontology, pitfalls
+	 * subset and backend of the given job, so only the changes made since then
+	 * need evaluation. Only the remote backends evaluate incrementally, as the
+	 * local one keeps its own indexes up to date and would gain nothing from
+	 * smaller ontologies.
+	 * 
+	 * @param job
+	 *            the job to run
+	 * @return true if the job's ontology can be evaluated incrementally
+	 */
+	private static boolean canEvaluateIncrementally(EvaluationJob job) {
+		return job.getBackend().isRemote() && evaluationResults != null && changeTracker != null 
+				&& changeTracker.getOntology() == job.getOntology()
+				&& job.getPitfallsSubset().equals(evaluatedPitfallsSubset)
+				&& job.getBackend() == evaluatedBackend;
+	}
+	
+	/**
+	 * Re-evaluates only a locality-based module around the entities changed
+	 * since the last evaluation and merges the pitfalls of those entities into
+	 * the current results. The pair partners of the changed entities, such as
+	 * the classes that shared a label with them, are re-evaluated with them,
+	 * so their pairs are found again or dropped. The module is completed with
+	 * every axiom that references those entities, and only they take their
+	 * results from it, as the other entities of the module may lack axioms
+	 * that their pitfalls depend on. The general pitfalls are refreshed
+	 * separately on the skeleton of the ontology, as a module cannot tell
+	 * about them. The changes are taken from the tracker when the evaluation
+	 * starts, so the edits made while it runs are left for the next one, and
+	 * they are given back to it if the evaluation fails or is cancelled.
+	 * 
+	 * @param ontology
+	 *            the ontology to evaluate
+	 * @param pitfallsSubset
+	 *            the pitfalls to check, or an empty list to check all of them
+	 * @param backend
+	 *            the backend that evaluates the ontology
+	 * @return the updated evaluation results
+	 * @throws Exception
+	 */
+	private static EvaluationResult evaluateIncrementally(OWLOntology ontology, List<String> pitfallsSubset, 
+			EvaluationBackend backend) throws Exception {
+		OntologyChangeTracker tracker = changeTracker;
+		OntologyChangeTracker.Changes changes = tracker.takeChanges();
+		
+		if (changes.getEntities().isEmpty() && !changes.isOntologyHeaderChanged()) {
+			logger.info("evaluateIncrementally[OOPSEvaluator] there are no changes since the last evaluation");
+			return evaluationResults;
+		}
+		
+		try {
+			return evaluateChanges(ontology, changes.getEntities(), pitfallsSubset, backend);
+		} catch (Exception e) {
+			tracker.restoreChanges(changes); // left for the next evaluation
+			throw e;
 		}
-        
-        return evaluationResults;
+	}
+	
+	/**
+	 * Evaluates the module of the given changed entities and merges its
+	 * results into the current ones
+	 * 
+	 * @param ontology
+	 *            the ontology to evaluate
+	 * @param changedEntities
+	 *            the entities changed since the last evaluation
+	 * @param pitfallsSubset
+	 *            the pitfalls to check, or an empty list to check all of them
+	 * @param backend
+	 *            the backend that evaluates the ontology
+	 * @return the updated evaluation results
+	 * @throws Exception
+	 */
+	private static EvaluationResult evaluateChanges(OWLOntology ontology, Set<OWLEntity> changedEntities, 
+			List<String> pitfallsSubset, EvaluationBackend backend) throws Exception {
+		OntologyPartitioner partitioner = new OntologyPartitioner(ontology);
+		
+		Set<String> changedElements = changedEntities.stream()
+				.map(entity -> entity.getIRI().toString())
+				.collect(Collectors.toSet());
+		
+		// the previous pairs of the changed entities are only found again if both elements are re-evaluated
+		Set<String> updatedElements = new HashSet<String>(changedElements);
+		Set<OWLEntity> updatedEntities = new HashSet<OWLEntity>(changedEntities);
+		for (String partner : EvaluationResultMerger.getPairPartners(evaluationResults, changedElements)) {
+			updatedElements.add(partner);
+			updatedEntities.addAll(ontology.getEntitiesInSignature(IRI.create(partner)));
+		}
+		
+		Set<OWLAxiom> moduleAxioms = new HashSet<OWLAxiom>(partitioner.extractModule(updatedEntities));
+		
+		// the axioms that are local for the updated entities, such as the subclass axioms of their children
+		updatedEntities.forEach(entity -> moduleAxioms.addAll(ontology.getReferencingAxioms(entity)));
+		
+		if (moduleAxioms.size() > ontology.getAxiomCount() * INCREMENTAL_MAX_MODULE_RATIO) {
+			logger.info("evaluateIncrementally[OOPSEvaluator] the changes are too broad, evaluating everything");
+			trackChanges(ontology);
+			return evaluateOntology(ontology, pitfallsSubset, backend);
+		}
+		
+		logger.info(String.format("evaluateIncrementally[OOPSEvaluator] re-evaluating %d changed entities and "
+				+ "%d pair partners with a module of %d axioms", changedElements.size(), 
+				updatedElements.size() - changedElements.size(), moduleAxioms.size()));
+		
+		EvaluationResult moduleResults = new EvaluationResult.Builder().build();
+		if (!updatedEntities.isEmpty()) {
+			moduleResults = evaluateOntology(partitioner.createModuleOntology(moduleAxioms, updatedEntities), 
+					pitfallsSubset, backend);
+		}
+		
+		List<String> selectedGeneralPitfalls = getSelectedGeneralPitfalls(pitfallsSubset);
+		
+		EvaluationResult generalResults = null;
+		if (!selectedGeneralPitfalls.isEmpty()) {
+			generalResults = evaluateOntology(partitioner.createSkeletonOntology(), selectedGeneralPitfalls, 
+					backend);
+		}
+		
+		return EvaluationResultMerger.replaceElements(evaluationResults, moduleResults, generalResults,
+				changedElements, updatedElements);
 	}
 	
 	/**
@@ -567,8 +474,107 @@ public class OOPSEvaluator {
 		return Stream.of(generalPitfalls).anyMatch(p -> p.equals(pitfallCode));
 	}
 	
+	/**
+	 * @return the backends the evaluations can be run with
+	 */
+	public static List<EvaluationBackend> getAvailableBackends() {
+		return availableBackends;
+	}
+	
+	/**
+	 * @return the backend of the next evaluations
+	 */
+	public static EvaluationBackend getBackend() {
+		return backend;
+	}
+	
+	/**
+	 * Sets the backend of the next evaluations
+	 * 
+	 * @param backend
+	 *            the backend to use
+	 */
+	public static void setBackend(EvaluationBackend backend) {
+		OOPSEvaluator.backend = backend;
+	}
+	
+	/**
+	 * Sets how the local backend runs its queries with the reasoner of the
+	 * editor, to check the pitfalls that need reasoning
+	 * 
+	 * @param reasonerAccess
+	 *            the access to the reasoner of the editor, or null if there is
+	 *            no reasoner
+	 */
+	public static void setReasonerAccess(ReasonerAccess reasonerAccess) {
+		localBackend.setReasonerAccess(reasonerAccess);
+	}
+	
+	/**
+	 * Sets the minimum similarity of the names of two elements for the local
+	 * backend to suggest them as equivalent (pitfalls P12 and P30)
+	 * 
+	 * @param classThreshold
+	 *            the Jaccard similarity for classes, greater than 0 and at
+	 *            most 1
+	 * @param propertyThreshold
+	 *            the Jaccard similarity for properties, greater than 0 and at
+	 *            most 1
+	 */
+	public static void setSimilarityThresholds(double classThreshold, double propertyThreshold) {
+		localBackend.setSimilarityThresholds(classThreshold, propertyThreshold);
+	}
+	
+	/**
+	 * @return the minimum similarity of the names of two classes for the local
+	 *         backend to suggest them as equivalent
+	 */
+	public static double getClassSimilarityThreshold() {
+		return localBackend.getClassSimilarityThreshold();
+	}
+	
+	/**
+	 * @return the minimum similarity of the names of two properties for the
+	 *         local backend to suggest them as equivalent
+	 */
+	public static double getPropertySimilarityThreshold() {
+		return localBackend.getPropertySimilarityThreshold();
+	}
+	
+	/**
+	 * Sets whether the local backend counts the entities declared in the
+	 * imported ontologies as typed when checking the pitfalls P34 and P35
+	 * 
+	 * @param includeImports
+	 *            true to also look for the declarations in the imports closure
+	 */
+	public static void setTypedByImports(boolean includeImports) {
+		localBackend.setTypedByImports(includeImports);
+	}
+	
+	/**
+	 * @return true if the local backend counts the entities declared in the
+	 *         imported ontologies as typed
+	 */
+	public static boolean isTypedByImports() {
+		return localBackend.isTypedByImports();
+	}
+	
+	/**
+	 * Sets the number of axioms above which an ontology is split into shards
+	 * that are evaluated in parallel
+	 * 
+	 * @param maxShardAxioms
+	 *            the shard size cap, or 0 to always evaluate the ontology in a
+	 *            single request
+	 */
+	public static void setMaxShardAxioms(int maxShardAxioms) {
+		OOPSEvaluator.maxShardAxioms = maxShardAxioms;
+	}
+	
     /**
-	 * @return the evaluationResults
+	 * @return the evaluationResults, an immutable snapshot that can be read
+	 *         from any thread
 	 */
 	public static EvaluationResult getEvaluationResults() {
 		return evaluationResults;
@@ -597,22 +603,58 @@ public class OOPSEvaluator {
 	}
 
 	/**
-	 * This method is synchronized, only lets one thread to execute it and
-	 * checks if the evaluation is already done. If there are results already
-	 * available, it returns them directly. Otherwise, it evaluates the
-	 * ontology, saves the results and returns them.
+	 * Submits the evaluation of the given ontology with the current backend.
+	 * If the same ontology is already being evaluated with the same pitfalls
+	 * subset and backend, the job in flight is returned instead of submitting
+	 * a new one.
 	 * 
 	 * @param ontology
 	 *            the ontology to evaluate
-	 * @return the results after evaluating the given ontology
-	 * @throws InterruptedException
+	 * @param pitfallsSubset
+	 *            the pitfalls to check, or an empty list to check all of them
+	 * @return the job that evaluates the given ontology
+	 * @throws RejectedExecutionException
+	 *             if there are too many evaluations waiting to be run
 	 */
-	public void evaluate(OWLOntology ontology, List<String> pitfallsSubset) throws InterruptedException {
-		OOPSEvaluator.activeOntology = ontology;
-		OOPSEvaluator.pitfallsSubset = pitfallsSubset;
+	public EvaluationJob evaluate(OWLOntology ontology, List<String> pitfallsSubset) {
+		// the pitfalls answered from the ontology metadata never need the web service
+		EvaluationBackend jobBackend = (backend.isRemote() && OntologyMetadataDetector.coversAll(pitfallsSubset))
+				? localBackend : backend;
 		
-		Thread thread = new Thread(evaluationTask);
-		thread.start();
+		synchronized (inFlightJobs) {
+			for (EvaluationJob inFlightJob : inFlightJobs) {
+				if (inFlightJob.isInFlight() && inFlightJob.hasInputs(ontology, pitfallsSubset, jobBackend)) {
+					logger.info("evaluate[OOPSEvaluator] joining an identical evaluation in flight");
+					return inFlightJob;
+				}
+			}
+			
+			EvaluationJob job = new EvaluationJob(ontology, pitfallsSubset, jobBackend);
+			
+			job.setFuture(evaluationExecutor.submit(() -> runEvaluationJob(job)));
+			inFlightJobs.add(job);
+			
+			return job;
+		}
+	}
+	
+	/**
+	 * Cancels the given evaluation job. The listeners are notified if the job
+	 * had already started.
+	 * 
+	 * @param job
+	 *            the job to cancel
+	 */
+	public void cancel(EvaluationJob job) {
+		EvaluationJob.State previousState = job.cancel();
+		
+		synchronized (inFlightJobs) {
+			inFlightJobs.remove(job);
+		}
+		
+		if (previousState == EvaluationJob.State.RUNNING) {
+			listeners.forEach(l -> l.onEvaluationCancelled());
+		}
 	}
 
 }
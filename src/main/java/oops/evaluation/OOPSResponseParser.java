@@ -0,0 +1,336 @@
+package oops.evaluation;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import oops.model.ElementPair;
+import oops.model.EvaluationResult;
+import oops.model.InfoElementWithAffectedElems;
+import oops.model.Pitfall;
+import oops.model.PitfallImportanceLevel;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Single-pass StAX parser for the OOPS! WS responses. It fills an EvaluationResult builder while reading the
+ * response forward, without building a DOM of it.
+ */
+public class OOPSResponseParser {
+
+	private static final Logger logger = LoggerFactory.getLogger(OOPSResponseParser.class);
+
+	private static final String OOPS_XML_PREFIX = "oops:";
+	private static final String OOPS_TAG_PITFALL = OOPS_XML_PREFIX + "Pitfall";
+	private static final String OOPS_TAG_NAME = OOPS_XML_PREFIX + "Name";
+	private static final String OOPS_TAG_CODE = OOPS_XML_PREFIX + "Code";
+	private static final String OOPS_TAG_DESCRIPTION = OOPS_XML_PREFIX + "Description";
+	private static final String OOPS_TAG_IMPORTANCE = OOPS_XML_PREFIX + "Importance";
+	private static final String OOPS_TAG_NUMBER_AFFECTED_ELEMS = OOPS_XML_PREFIX + "NumberAffectedElements";
+	private static final String OOPS_TAG_AFFECTS = OOPS_XML_PREFIX + "Affects";
+	private static final String OOPS_TAG_AFFECTED_ELEM = OOPS_XML_PREFIX + "AffectedElement";
+	private static final String OOPS_TAG_WRONG_INVERSE = OOPS_XML_PREFIX + "MightNotBeInverseOf";
+	private static final String OOPS_TAG_MIGHT_BE_INVERSE = OOPS_XML_PREFIX + "MightBeInverse";
+	private static final String OOPS_TAG_EQUIVALENT_PROPERTY = OOPS_XML_PREFIX + "MightBeEquivalentProperty";
+	private static final String OOPS_TAG_EQUIVALENT_ATTRIBUTE = OOPS_XML_PREFIX + "MightBeEquivalentAttribute";
+	private static final String OOPS_TAG_EQUIVALENT_CLASSES = OOPS_XML_PREFIX + "MightBeEquivalentClass";
+	private static final String OOPS_TAG_NO_INVERSE_SUGGESTION = OOPS_XML_PREFIX + "NoInverseSuggestion";
+	private static final String OOPS_TAG_SAME_LABEL = OOPS_XML_PREFIX + "HaveSameLabel";
+	private static final String OOPS_TAG_SUGGESTION = OOPS_XML_PREFIX + "Suggestion";
+	private static final String OOPS_TAG_WARNING = OOPS_XML_PREFIX + "Warning";
+
+	private final XMLInputFactory inputFactory;
+
+	public OOPSResponseParser() {
+		inputFactory = XMLInputFactory.newInstance();
+		// the WS responses use the "oops:" prefix, so the tags are matched by their qualified names
+		inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+		inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+	}
+
+	/**
+	 * Parses the OOPS! WS response in a single forward pass and returns the
+	 * organised results
+	 *
+	 * @param oopsResponse
+	 *            the response stream from the OOPS! WebService
+	 * @return OOPS! WS results
+	 * @throws XMLStreamException
+	 */
+	public EvaluationResult parse(InputStream oopsResponse) throws XMLStreamException {
+		XMLStreamReader reader = inputFactory.createXMLStreamReader(oopsResponse);
+
+		EvaluationResult.Builder evaluationResults = new EvaluationResult.Builder();
+		List<InfoElementWithAffectedElems> suggestions = new ArrayList<InfoElementWithAffectedElems>();
+		List<InfoElementWithAffectedElems> warnings = new ArrayList<InfoElementWithAffectedElems>();
+
+		int numPitfalls = 0;
+		ParsedElement current = null; // the pitfall, suggestion or warning being read
+
+		try {
+			while (reader.hasNext()) {
+				int event = reader.next();
+
+				if (event == XMLStreamConstants.START_ELEMENT) {
+					String tag = qualifiedName(reader);
+
+					if (current == null) {
+						if (tag.equals(OOPS_TAG_PITFALL) || tag.equals(OOPS_TAG_SUGGESTION)
+								|| tag.equals(OOPS_TAG_WARNING)) {
+							current = new ParsedElement(tag);
+						}
+					} else if (current.inAffects) {
+						if (tag.equals(OOPS_TAG_AFFECTED_ELEM)) {
+							current.addAffectedElement(reader.getElementText());
+						} else {
+							current.openGroup(tag);
+						}
+					} else if (tag.equals(OOPS_TAG_AFFECTS)) {
+						current.inAffects = true;
+					} else if (tag.equals(OOPS_TAG_NAME)) {
+						current.name = firstText(current.name, reader);
+					} else if (tag.equals(OOPS_TAG_CODE)) {
+						current.code = firstText(current.code, reader);
+					} else if (tag.equals(OOPS_TAG_DESCRIPTION)) {
+						current.description = firstText(current.description, reader);
+					} else if (tag.equals(OOPS_TAG_IMPORTANCE)) {
+						current.importance = firstText(current.importance, reader);
+					} else if (tag.equals(OOPS_TAG_NUMBER_AFFECTED_ELEMS)) {
+						current.numAffectedElems = firstText(current.numAffectedElems, reader);
+					}
+				} else if (event == XMLStreamConstants.END_ELEMENT && current != null) {
+					String tag = qualifiedName(reader);
+
+					if (tag.equals(current.tag)) {
+						if (tag.equals(OOPS_TAG_PITFALL)) {
+							addPitfall(current, evaluationResults);
+							numPitfalls++;
+						} else if (tag.equals(OOPS_TAG_SUGGESTION)) {
+							suggestions.add(new InfoElementWithAffectedElems(current.name, current.description,
+									Integer.parseInt(current.numAffectedElems), current.affectedElements));
+						} else {
+							warnings.add(new InfoElementWithAffectedElems(current.name, null,
+									Integer.parseInt(current.numAffectedElems), current.affectedElements));
+						}
+						current = null;
+					} else if (tag.equals(OOPS_TAG_AFFECTS)) {
+						current.inAffects = false;
+					} else if (current.inAffects) {
+						current.closeGroup();
+					}
+				}
+			}
+		} finally {
+			reader.close();
+		}
+
+		logger.debug(String.format("There are %d pitfalls, %d suggestions and %d warnings!", numPitfalls,
+				suggestions.size(), warnings.size()));
+
+		if (suggestions.size() > 0) {
+			evaluationResults.setSuggestions(suggestions);
+		}
+
+		if (warnings.size() > 0) {
+			evaluationResults.setWarnings(warnings);
+		}
+
+		return evaluationResults.build();
+	}
+
+	/**
+	 * Adds a completely read pitfall to the detected pitfalls and fills the
+	 * additional pair lists of the results for the pitfalls that have them
+	 *
+	 * @param parsedPitfall
+	 *            the read pitfall
+	 * @param evaluationResults
+	 *            the results to fill with the pitfall and the additional lists
+	 */
+	private void addPitfall(ParsedElement parsedPitfall, EvaluationResult.Builder evaluationResults) {
+		String pitfallCode = parsedPitfall.code;
+
+		int pitfallNumAffectedElems = 0;
+		if (parsedPitfall.numAffectedElems != null) {
+			pitfallNumAffectedElems = Integer.parseInt(parsedPitfall.numAffectedElems);
+		}
+
+		Pitfall pitfall = new Pitfall(
+				PitfallImportanceLevel.valueOf(parsedPitfall.importance.toUpperCase()),
+				pitfallCode,
+				parsedPitfall.name,
+				parsedPitfall.description,
+				pitfallNumAffectedElems);
+
+		switch (pitfallCode) {
+		case OOPSEvaluator.PITFALL_EQUIVALENT_CLASSES_ID:
+			evaluationResults.setEquivalentClasses(
+					getPairs(parsedPitfall, OOPS_TAG_EQUIVALENT_CLASSES, pitfall, evaluationResults));
+			break;
+		case OOPSEvaluator.PITFALL_MIGHT_BE_EQUIVALENT_ID:
+			List<ElementPair> equivalentProperties =
+					getPairs(parsedPitfall, OOPS_TAG_EQUIVALENT_PROPERTY, pitfall, evaluationResults);
+			List<ElementPair> equivalentAttributes =
+					getPairs(parsedPitfall, OOPS_TAG_EQUIVALENT_ATTRIBUTE, pitfall, evaluationResults);
+
+			if (equivalentProperties.size() > 0) {
+				evaluationResults.setEquivalentRelations(equivalentProperties);
+			}
+
+			if (equivalentAttributes.size() > 0) {
+				evaluationResults.setEquivalentAttributes(equivalentAttributes);
+			}
+			break;
+		case OOPSEvaluator.PITFALL_MIGHT_BE_INVERSE_ID:
+			evaluationResults.setMightBeInverseRelations(
+					getPairs(parsedPitfall, OOPS_TAG_MIGHT_BE_INVERSE, pitfall, evaluationResults));
+
+			List<String> noInverseSuggestions = new ArrayList<String>();
+
+			for (AffectedElementsGroup group : parsedPitfall.groups) {
+				if (group.tag.equals(OOPS_TAG_NO_INVERSE_SUGGESTION)) {
+					for (String affectedElementIRI : group.elements) {
+						evaluationResults.addPitfall(affectedElementIRI, pitfall);
+						noInverseSuggestions.add(evaluationResults.getCanonicalIRI(affectedElementIRI));
+					}
+				}
+			}
+
+			evaluationResults.setRelationsWithoutInverse(noInverseSuggestions);
+			break;
+		case OOPSEvaluator.PITFALL_WRONG_INVERSE_ID:
+			evaluationResults.setWrongInverseRelations(
+					getPairs(parsedPitfall, OOPS_TAG_WRONG_INVERSE, pitfall, evaluationResults));
+			break;
+		case OOPSEvaluator.PITFALL_SAME_LABEL:
+			evaluationResults.setElementsWithSameLabel(
+					getPairs(parsedPitfall, OOPS_TAG_SAME_LABEL, pitfall, evaluationResults));
+			break;
+		default:
+			if (OOPSEvaluator.isGeneralPitfall(pitfallCode)) {
+				// add pitfall to the root element of the owl ontology
+				evaluationResults.addPitfall(OOPSEvaluator.OWL_THING_IRI, pitfall);
+			} else {
+				for (String affectedElementIRI : parsedPitfall.affectedElements) {
+					evaluationResults.addPitfall(affectedElementIRI, pitfall);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Collects the element pairs of the given group type of a pitfall and marks
+	 * both elements of each pair with the pitfall. The pairs hold the IRI
+	 * strings kept for the detected pitfalls, so each IRI is stored once.
+	 *
+	 * @param parsedPitfall
+	 *            the read pitfall
+	 * @param groupTag
+	 *            the tag of the groups that hold the pairs
+	 * @param pitfall
+	 *            the pitfall to add to the paired elements
+	 * @param evaluationResults
+	 *            the results to fill with the pitfall
+	 * @return the element pairs of the given group type
+	 */
+	private List<ElementPair> getPairs(ParsedElement parsedPitfall, String groupTag, Pitfall pitfall,
+			EvaluationResult.Builder evaluationResults) {
+		List<ElementPair> pairs = new ArrayList<ElementPair>();
+
+		for (AffectedElementsGroup group : parsedPitfall.groups) {
+			if (group.tag.equals(groupTag) && group.elements.size() >= 2) {
+				String element1 = group.elements.get(0);
+				String element2 = group.elements.get(1);
+
+				evaluationResults.addPitfall(element1, pitfall);
+				evaluationResults.addPitfall(element2, pitfall);
+
+				pairs.add(new ElementPair(evaluationResults.getCanonicalIRI(element1),
+						evaluationResults.getCanonicalIRI(element2)));
+			}
+		}
+
+		return pairs;
+	}
+
+	/**
+	 * Reads the text of the current element, keeping the previously read value
+	 * if there was one, as only the first occurrence of each field counts
+	 */
+	private static String firstText(String previousValue, XMLStreamReader reader) throws XMLStreamException {
+		String text = reader.getElementText();
+		return previousValue != null ? previousValue : text;
+	}
+
+	private static String qualifiedName(XMLStreamReader reader) {
+		String prefix = reader.getPrefix();
+
+		if (prefix == null || prefix.isEmpty()) {
+			return reader.getLocalName();
+		} else {
+			return prefix + ":" + reader.getLocalName();
+		}
+	}
+
+	/**
+	 * The fields of a pitfall, suggestion or warning gathered while reading it
+	 */
+	private static class ParsedElement {
+		private final String tag;
+		private String name;
+		private String code;
+		private String description;
+		private String importance;
+		private String numAffectedElems;
+		private boolean inAffects;
+		private final List<String> affectedElements = new ArrayList<String>(); // all of them, in document order
+		private final List<AffectedElementsGroup> groups = new ArrayList<AffectedElementsGroup>();
+		private AffectedElementsGroup openGroup;
+
+		private ParsedElement(String tag) {
+			this.tag = tag;
+		}
+
+		private void openGroup(String groupTag) {
+			openGroup = new AffectedElementsGroup(groupTag);
+		}
+
+		private void closeGroup() {
+			if (openGroup != null) {
+				groups.add(openGroup);
+				openGroup = null;
+			}
+		}
+
+		private void addAffectedElement(String elementIRI) {
+			affectedElements.add(elementIRI);
+
+			if (openGroup != null) {
+				openGroup.elements.add(elementIRI);
+			}
+		}
+	}
+
+	/**
+	 * The affected elements wrapped by a grouping tag, like the pairs of
+	 * elements that might be equivalent
+	 */
+	private static class AffectedElementsGroup {
+		private final String tag;
+		private final List<String> elements = new ArrayList<String>();
+
+		private AffectedElementsGroup(String tag) {
+			this.tag = tag;
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package oops.evaluation;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.OWLOntologyChangeListener;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Ontology change listener that keeps track of the entities touched by the changes made to an ontology since its
+ * last evaluation. An evaluation takes the tracked changes when it starts, so the changes made while it runs are kept
+ * for the next one, and gives them back if it does not finish.
+ */
+public class OntologyChangeTracker implements OWLOntologyChangeListener {
+
+	private final OWLOntology ontology;
+
+	private final Set<OWLEntity> changedEntities = new HashSet<OWLEntity>();
+
+	private boolean ontologyHeaderChanged;
+
+	/**
+	 * Creates a tracker for the given ontology and starts listening to its
+	 * changes
+	 *
+	 * @param ontology
+	 *            the ontology to track
+	 */
+	public OntologyChangeTracker(OWLOntology ontology) {
+		this.ontology = ontology;
+
+		ontology.getOWLOntologyManager().addOntologyChangeListener(this);
+	}
+
+	@Override
+	public synchronized void ontologiesChanged(List<? extends OWLOntologyChange> changes) {
+		for (OWLOntologyChange change : changes) {
+			if (change.getOntology() == ontology) {
+				if (change.isAxiomChange()) {
+					changedEntities.addAll(change.getSignature());
+				} else {
+					ontologyHeaderChanged = true; // ontology ID, imports or ontology annotations
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the tracked ontology
+	 */
+	public OWLOntology getOntology() {
+		return ontology;
+	}
+
+	/**
+	 * Takes the changes made since the last evaluation and starts tracking
+	 * the next ones from scratch, in a single step
+	 *
+	 * @return the changes to evaluate
+	 */
+	public synchronized Changes takeChanges() {
+		Changes changes = new Changes(new HashSet<OWLEntity>(changedEntities), ontologyHeaderChanged);
+
+		changedEntities.clear();
+		ontologyHeaderChanged = false;
+
+		return changes;
+	}
+
+	/**
+	 * Tracks again the changes taken by an evaluation that has failed or has
+	 * been cancelled, together with the changes made since then
+	 *
+	 * @param changes
+	 *            the changes returned by {@link #takeChanges()}
+	 */
+	public synchronized void restoreChanges(Changes changes) {
+		changedEntities.addAll(changes.getEntities());
+		ontologyHeaderChanged |= changes.isOntologyHeaderChanged();
+	}
+
+	/**
+	 * Stops listening to the changes of the tracked ontology
+	 */
+	public void dispose() {
+		ontology.getOWLOntologyManager().removeOntologyChangeListener(this);
+	}
+
+	/**
+	 * The changes made to the ontology between two evaluations
+	 */
+	public static class Changes {
+
+		private final Set<OWLEntity> entities;
+
+		private final boolean ontologyHeaderChanged;
+
+		private Changes(Set<OWLEntity> entities, boolean ontologyHeaderChanged) {
+			this.entities = Collections.unmodifiableSet(entities);
+			this.ontologyHeaderChanged = ontologyHeaderChanged;
+		}
+
+		/**
+		 * @return the entities touched by the changes
+		 */
+		public Set<OWLEntity> getEntities() {
+			return entities;
+		}
+
+		/**
+		 * @return true if the ontology ID, imports or annotations have changed
+		 */
+		public boolean isOntologyHeaderChanged() {
+			return ontologyHeaderChanged;
+		}
+	}
+}
@@ -0,0 +1,343 @@
+package oops.evaluation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.AddImport;
+import org.semanticweb.owlapi.model.AddOntologyAnnotation;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotation;
+import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLDeclarationAxiom;
+import org.semanticweb.owlapi.model.OWLDocumentFormat;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLImportsDeclaration;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+
+import oops.evaluation.local.DisjointSets;
+import oops.evaluation.local.IntList;
+import uk.ac.manchester.cs.owlapi.modularity.ModuleType;
+import uk.ac.manchester.cs.owlapi.modularity.SyntacticLocalityModuleExtractor;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Splits an ontology into syntactic-locality modules that can be evaluated on their own, either around a set of
+ * entities or as overlapping shards that together cover all its logical axioms and entities. The shards are found in a linear
+ * pass that groups the axioms connected by their entities, followed by a single module extraction per shard.
+ */
+public class OntologyPartitioner {
+
+	private final OWLOntology ontology;
+
+	private final SyntacticLocalityModuleExtractor moduleExtractor;
+
+	/**
+	 * @param ontology
+	 *            the ontology to split
+	 */
+	public OntologyPartitioner(OWLOntology ontology) {
+		this.ontology = ontology;
+		this.moduleExtractor = new SyntacticLocalityModuleExtractor(ontology.getOWLOntologyManager(), ontology,
+				ModuleType.STAR);
+	}
+
+	/**
+	 * Extracts the STAR module of the ontology for the given signature
+	 *
+	 * @param signature
+	 *            the entities the module is about
+	 * @return the axioms of the module
+	 */
+	public Set<OWLAxiom> extractModule(Set<OWLEntity> signature) {
+		return moduleExtractor.extract(signature);
+	}
+
+	/**
+	 * Partitions the ontology into overlapping shards of about the given
+	 * number of axioms. The logical axioms are grouped in one pass by the
+	 * named entities they share, with a union-find over the entities; the
+	 * small groups are packed together and the groups above the cap are cut
+	 * into pieces of connected axioms, following a breadth-first walk over
+	 * their shared entities. Each shard is then completed with the STAR module
+	 * of its signature, so it can be evaluated on its own, and may exceed the
+	 * cap by the size of that module. Every logical axiom of the ontology ends
+	 * up in at least one shard, and so do the declarations and annotations of
+	 * the entities that no logical axiom uses.
+	 *
+	 * @param maxShardAxioms
+	 *            the size cap of the shards
+	 * @return the axioms of each shard
+	 */
+	public List<Set<OWLAxiom>> partition(int maxShardAxioms) {
+		List<OWLAxiom> axioms = new ArrayList<OWLAxiom>(ontology.getLogicalAxioms());
+
+		// the entities of each axiom, numbered; the built-in ones such as owl:Thing would join everything
+		Map<OWLEntity, Integer> entityIds = new HashMap<OWLEntity, Integer>();
+		int axiomEntities[][] = new int[axioms.size()][];
+
+		for (int i = 0; i < axioms.size(); i++) {
+			axiomEntities[i] = axioms.get(i).getSignature().stream()
+					.filter(entity -> !entity.isBuiltIn())
+					.mapToInt(entity -> entityIds.computeIfAbsent(entity, k -> entityIds.size()))
+					.toArray();
+		}
+
+		DisjointSets groups = new DisjointSets(entityIds.size());
+		List<IntList> axiomsByEntity = new ArrayList<IntList>(entityIds.size());
+
+		for (int i = 0; i < entityIds.size(); i++) {
+			axiomsByEntity.add(new IntList(2));
+		}
+		for (int i = 0; i < axioms.size(); i++) {
+			for (int entity : axiomEntities[i]) {
+				groups.union(axiomEntities[i][0], entity);
+				axiomsByEntity.get(entity).add(i);
+			}
+		}
+
+		// the axioms of each group, in the order of its first axiom
+		Map<Integer, IntList> axiomsByGroup = new LinkedHashMap<Integer, IntList>();
+		IntList looseAxioms = new IntList(); // the axioms without named entities
+
+		for (int i = 0; i < axioms.size(); i++) {
+			if (axiomEntities[i].length == 0) {
+				looseAxioms.add(i);
+			} else {
+				axiomsByGroup.computeIfAbsent(groups.find(axiomEntities[i][0]), k -> new IntList()).add(i);
+			}
+		}
+
+		List<Set<OWLAxiom>> shards = new ArrayList<Set<OWLAxiom>>();
+		Set<OWLAxiom> currentShard = new HashSet<OWLAxiom>();
+		boolean visitedAxioms[] = new boolean[axioms.size()];
+
+		for (IntList group : axiomsByGroup.values()) {
+			if (group.size() <= maxShardAxioms) {
+				currentShard = addToShard(shards, currentShard, toAxioms(axioms, group), maxShardAxioms);
+				continue;
+			}
+
+			for (int i = 0; i < group.size(); i++) {
+				int start = group.get(i);
+
+				if (!visitedAxioms[start]) {
+					currentShard = addConnectedAxioms(shards, currentShard, start, axioms, axiomEntities,
+							axiomsByEntity, visitedAxioms, maxShardAxioms);
+				}
+			}
+		}
+		currentShard = addToShard(shards, currentShard, toAxioms(axioms, looseAxioms), maxShardAxioms);
+
+		for (OWLAxiom axiom : getUnusedEntityAxioms(entityIds.keySet())) {
+			currentShard = addToShard(shards, currentShard, Collections.singleton(axiom), maxShardAxioms);
+		}
+
+		if (!currentShard.isEmpty()) {
+			shards.add(currentShard);
+		}
+
+		for (Set<OWLAxiom> shard : shards) {
+			shard.addAll(extractModule(getSignature(shard, Collections.emptySet())));
+		}
+
+		return shards;
+	}
+
+	/**
+	 * Adds the axioms reachable from the given one through their shared
+	 * entities to the shards, in breadth-first order, closing each shard as it
+	 * reaches the size cap
+	 *
+	 * @return the shard being filled after adding the axioms
+	 */
+	private static Set<OWLAxiom> addConnectedAxioms(List<Set<OWLAxiom>> shards, Set<OWLAxiom> currentShard,
+			int start, List<OWLAxiom> axioms, int axiomEntities[][], List<IntList> axiomsByEntity,
+			boolean visitedAxioms[], int maxShardAxioms) {
+		IntList queue = new IntList();
+		boolean visitedEntities[] = new boolean[axiomsByEntity.size()];
+		queue.add(start);
+		visitedAxioms[start] = true;
+
+		for (int head = 0; head < queue.size(); head++) {
+			int axiom = queue.get(head);
+
+			if (currentShard.size() >= maxShardAxioms) {
+				shards.add(currentShard);
+				currentShard = new HashSet<OWLAxiom>();
+			}
+			currentShard.add(axioms.get(axiom));
+
+			for (int entity : axiomEntities[axiom]) {
+				if (visitedEntities[entity]) {
+					continue;
+				}
+				visitedEntities[entity] = true;
+
+				IntList entityAxioms = axiomsByEntity.get(entity);
+				for (int i = 0; i < entityAxioms.size(); i++) {
+					if (!visitedAxioms[entityAxioms.get(i)]) {
+						visitedAxioms[entityAxioms.get(i)] = true;
+						queue.add(entityAxioms.get(i));
+					}
+				}
+			}
+		}
+
+		return currentShard;
+	}
+
+	/**
+	 * Returns the declarations of the entities that are not used by any
+	 * logical axiom, and the annotations of the IRIs that are neither used nor
+	 * declared, which only reach a shard this way
+	 *
+	 * @param usedEntities
+	 *            the entities used by the logical axioms
+	 * @return the declaration and annotation axioms of the unused entities
+	 */
+	private List<OWLAxiom> getUnusedEntityAxioms(Set<OWLEntity> usedEntities) {
+		Set<IRI> coveredIRIs = usedEntities.stream().map(OWLEntity::getIRI).collect(Collectors.toSet());
+		List<OWLAxiom> unusedEntityAxioms = new ArrayList<OWLAxiom>();
+
+		for (OWLDeclarationAxiom declarationAxiom : ontology.getAxioms(AxiomType.DECLARATION)) {
+			OWLEntity entity = declarationAxiom.getEntity();
+
+			if (!entity.isBuiltIn() && !usedEntities.contains(entity)) {
+				unusedEntityAxioms.add(declarationAxiom); // its module ontology adds the annotations
+			}
+			coveredIRIs.add(entity.getIRI());
+		}
+		for (OWLAnnotationAssertionAxiom annotationAxiom : ontology.getAxioms(AxiomType.ANNOTATION_ASSERTION)) {
+			if (annotationAxiom.getSubject() instanceof IRI && !coveredIRIs.contains(annotationAxiom.getSubject())) {
+				unusedEntityAxioms.add(annotationAxiom);
+			}
+		}
+
+		return unusedEntityAxioms;
+	}
+
+	private static Set<OWLAxiom> toAxioms(List<OWLAxiom> axioms, IntList axiomIds) {
+		Set<OWLAxiom> axiomSet = new HashSet<OWLAxiom>();
+
+		for (int i = 0; i < axiomIds.size(); i++) {
+			axiomSet.add(axioms.get(axiomIds.get(i)));
+		}
+
+		return axiomSet;
+	}
+
+	/**
+	 * Adds a group of axioms to the shard being filled, closing it first if
+	 * the group does not fit in it
+	 *
+	 * @return the shard being filled after adding the group
+	 */
+	private static Set<OWLAxiom> addToShard(List<Set<OWLAxiom>> shards, Set<OWLAxiom> currentShard,
+			Set<OWLAxiom> group, int maxShardAxioms) {
+		if (!currentShard.isEmpty() && currentShard.size() + group.size() > maxShardAxioms) {
+			shards.add(currentShard);
+			currentShard = new HashSet<OWLAxiom>();
+		}
+
+		currentShard.addAll(group);
+
+		return currentShard;
+	}
+
+	/**
+	 * Creates a standalone ontology with the given module of the ontology,
+	 * adding the declarations and annotations of its entities that the module
+	 * extraction leaves out
+	 *
+	 * @param moduleAxioms
+	 *            the logical axioms of the module
+	 * @param extraEntities
+	 *            entities whose declarations and annotations are to be
+	 *            included even if they do not appear in the module axioms
+	 * @return the module ontology
+	 * @throws OWLOntologyCreationException
+	 */
+	public OWLOntology createModuleOntology(Set<OWLAxiom> moduleAxioms, Set<OWLEntity> extraEntities)
+			throws OWLOntologyCreationException {
+		Set<OWLAxiom> axioms = new HashSet<OWLAxiom>(moduleAxioms);
+
+		for (OWLEntity entity : getSignature(moduleAxioms, extraEntities)) {
+			axioms.addAll(ontology.getDeclarationAxioms(entity));
+			axioms.addAll(ontology.getAnnotationAssertionAxioms(entity.getIRI()));
+		}
+
+		return OWLManager.createOWLOntologyManager().createOntology(axioms);
+	}
+
+	/**
+	 * Creates a reduced skeleton of the ontology for the pitfalls that need a
+	 * whole-ontology view. It keeps the ontology header, the entity
+	 * declarations, the named class hierarchy and the disjointness axioms,
+	 * including the disjoint unions. The document format of the ontology is
+	 * copied too, so its prefixes reach the namespace checks.
+	 *
+	 * @return the skeleton ontology
+	 * @throws OWLOntologyCreationException
+	 */
+	public OWLOntology createSkeletonOntology() throws OWLOntologyCreationException {
+		OWLOntologyManager skeletonManager = OWLManager.createOWLOntologyManager();
+		OWLOntology skeleton = skeletonManager.createOntology(ontology.getOntologyID());
+
+		Set<OWLAxiom> axioms = new HashSet<OWLAxiom>();
+		axioms.addAll(ontology.getAxioms(AxiomType.DECLARATION));
+		axioms.addAll(ontology.getAxioms(AxiomType.DISJOINT_CLASSES));
+		axioms.addAll(ontology.getAxioms(AxiomType.DISJOINT_UNION));
+		for (OWLSubClassOfAxiom subClassAxiom : ontology.getAxioms(AxiomType.SUBCLASS_OF)) {
+			if (!subClassAxiom.getSubClass().isAnonymous() && !subClassAxiom.getSuperClass().isAnonymous()) {
+				axioms.add(subClassAxiom);
+			}
+		}
+		skeletonManager.addAxioms(skeleton, axioms);
+
+		for (OWLImportsDeclaration importsDeclaration : ontology.getImportsDeclarations()) {
+			skeletonManager.applyChange(new AddImport(skeleton, importsDeclaration));
+		}
+
+		for (OWLAnnotation annotation : ontology.getAnnotations()) {
+			skeletonManager.applyChange(new AddOntologyAnnotation(skeleton, annotation));
+		}
+
+		OWLDocumentFormat format = ontology.getOWLOntologyManager().getOntologyFormat(ontology);
+		if (format != null) {
+			skeletonManager.setOntologyFormat(skeleton, format);
+		}
+
+		return skeleton;
+	}
+
+	/**
+	 * Returns the entities of the given axioms plus the given extra entities
+	 *
+	 * @param axioms
+	 *            the axioms whose signature is to be collected
+	 * @param extraEntities
+	 *            the entities to add to the signature
+	 * @return the signature
+	 */
+	public static Set<OWLEntity> getSignature(Set<OWLAxiom> axioms, Set<OWLEntity> extraEntities) {
+		Set<OWLEntity> signature = new HashSet<OWLEntity>(extraEntities);
+		axioms.forEach(axiom -> signature.addAll(axiom.getSignature()));
+
+		return signature;
+	}
+}
@@ -0,0 +1,115 @@
+package oops.evaluation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.rdf.rdfxml.renderer.RDFXMLRenderer;
+
+import oops.model.EvaluationResult;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Evaluation backend that sends the ontology to the OOPS!(oops.linkeddata.es) web service.
+ */
+public class RemoteEvaluationBackend implements EvaluationBackend {
+
+	private static final String NAME = "OOPS! web service";
+
+	private static final String OOPS_WS_ENDPOINT = "http://oops-ws.oeg-upm.net/rest";
+
+	// the request envelope is split around the ontology content, so the RDF/XML can be streamed in between
+	private static final String OOPS_WS_REQUEST_PREFIX = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+			+ "<OOPSRequest>"
+			+ "    <OntologyURI></OntologyURI>"
+			+ "    <OntologyContent><![CDATA[ ";
+
+	private static final String OOPS_WS_REQUEST_SUFFIX_TEMPLATE = " ]]></OntologyContent>"
+			+ "    <Pitfalls>%s</Pitfalls>"
+			+ "    <OutputFormat>XML</OutputFormat>"
+			+ "</OOPSRequest>";
+
+	private static final int OOPS_WS_TIMEOUT = 30 * 1000; // set OOPS! WS timeout to 30s
+
+	private static final int OOPS_WS_CHUNK_SIZE = 64 * 1024; // size of the chunks of the streamed request body
+
+	private final OOPSResponseParser responseParser = new OOPSResponseParser();
+
+	/**
+	 * Handles the response stream of a successful OOPS! WS request
+	 */
+	interface ResponseHandler {
+		public EvaluationResult handle(InputStream oopsResponse) throws Exception;
+	}
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public boolean isRemote() {
+		return true;
+	}
+
+	@Override
+	public EvaluationResult evaluate(OWLOntology ontology, List<String> pitfalls) throws Exception {
+		return request(ontology, pitfalls, responseParser::parse);
+	}
+
+	/**
+	 * Sends the evaluation request for the given ontology to OOPS! WS endpoint
+	 * and passes its response to the given handler. The ontology is rendered
+	 * as RDF/XML directly into the chunked request body, so the upload
+	 * overlaps with the serialization and the ontology is never held in memory
+	 * as text.
+	 *
+	 * @param ontology
+	 *            the ontology to evaluate
+	 * @param pitfalls
+	 *            the pitfalls to check, or an empty list to check all of them
+	 * @param responseHandler
+	 *            the handler of the response stream
+	 * @return the results returned by the handler
+	 * @throws Exception
+	 */
+	EvaluationResult request(OWLOntology ontology, List<String> pitfalls, ResponseHandler responseHandler)
+			throws Exception {
+		String pitfallsField = pitfalls.stream().collect(Collectors.joining(","));
+
+		HttpURLConnection connection = (HttpURLConnection) new URL(OOPS_WS_ENDPOINT).openConnection();
+		connection.setRequestMethod("POST");
+		connection.setReadTimeout(OOPS_WS_TIMEOUT);
+
+		// Send POST request
+		connection.setDoOutput(true);
+		connection.setChunkedStreamingMode(OOPS_WS_CHUNK_SIZE);
+		try (Writer wr = new BufferedWriter(
+				new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8))) {
+			wr.write(OOPS_WS_REQUEST_PREFIX);
+			new RDFXMLRenderer(ontology, wr).render();
+			wr.write(String.format(OOPS_WS_REQUEST_SUFFIX_TEMPLATE, pitfallsField));
+			wr.flush();
+		}
+
+		int responseCode = connection.getResponseCode();
+
+		if (responseCode == 200) {
+			try (InputStream in = new BufferedInputStream(connection.getInputStream())) {
+				return responseHandler.handle(in);
+			}
+		} else {
+			throw new Exception("The OOPS! web service request has failed with status code " + responseCode);
+		}
+	}
+}
@@ -0,0 +1,194 @@
+package oops.evaluation.local;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotation;
+import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLLiteral;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Index of the annotations of an ontology that is kept across evaluations. It is built once from the annotation
+ * assertion axioms and then updated with the annotation changes made to the ontology.
+ */
+public class AnnotationIndex extends IncrementalIndex {
+
+	private static final Pattern LABEL_SEPARATORS = Pattern.compile("[\\s_\\-]+");
+
+	private final Map<IRI, List<OWLAnnotation>> annotationsBySubject = new HashMap<IRI, List<OWLAnnotation>>();
+
+	private final Map<String, Set<IRI>> subjectsByLabel = new HashMap<String, Set<IRI>>();
+
+	// the IRIs never change, so their fragments are kept for the whole life of the index
+	private final Map<IRI, String> fragments = new ConcurrentHashMap<IRI, String>();
+
+	/**
+	 * Builds the index of the given ontology and starts listening to its
+	 * changes
+	 *
+	 * @param ontology
+	 *            the ontology to index
+	 */
+	public AnnotationIndex(OWLOntology ontology) {
+		super(ontology);
+
+		for (OWLAnnotationAssertionAxiom annotationAxiom : ontology.getAxioms(AxiomType.ANNOTATION_ASSERTION)) {
+			addAnnotation(annotationAxiom);
+		}
+	}
+
+	@Override
+	protected boolean isIndexed(OWLAxiom axiom) {
+		return axiom instanceof OWLAnnotationAssertionAxiom;
+	}
+
+	@Override
+	protected void addAxiom(OWLAxiom axiom) {
+		addAnnotation((OWLAnnotationAssertionAxiom) axiom);
+	}
+
+	@Override
+	protected void removeAxiom(OWLAxiom axiom) {
+		removeAnnotation((OWLAnnotationAssertionAxiom) axiom);
+	}
+
+	private void addAnnotation(OWLAnnotationAssertionAxiom annotationAxiom) {
+		if (!(annotationAxiom.getSubject() instanceof IRI)) {
+			return; // annotations of anonymous individuals
+		}
+
+		IRI subject = (IRI) annotationAxiom.getSubject();
+		OWLAnnotation annotation = annotationAxiom.getAnnotation();
+
+		List<OWLAnnotation> annotations = annotationsBySubject.computeIfAbsent(subject,
+				k -> new ArrayList<OWLAnnotation>(2));
+		if (annotations.contains(annotation)) {
+			return; // already scanned
+		}
+		annotations.add(annotation);
+
+		String label = getNormalizedLabel(annotation);
+		if (label != null) {
+			subjectsByLabel.computeIfAbsent(label, k -> new HashSet<IRI>()).add(subject);
+		}
+	}
+
+	private void removeAnnotation(OWLAnnotationAssertionAxiom annotationAxiom) {
+		if (!(annotationAxiom.getSubject() instanceof IRI)) {
+			return;
+		}
+
+		IRI subject = (IRI) annotationAxiom.getSubject();
+		OWLAnnotation annotation = annotationAxiom.getAnnotation();
+
+		List<OWLAnnotation> annotations = annotationsBySubject.get(subject);
+		if (annotations == null || !annotations.remove(annotation)) {
+			return;
+		}
+		if (annotations.isEmpty()) {
+			annotationsBySubject.remove(subject);
+		}
+
+		String label = getNormalizedLabel(annotation);
+		if (label != null && getNormalizedLabels(subject).noneMatch(label::equals)) {
+			Set<IRI> subjects = subjectsByLabel.get(label);
+			subjects.remove(subject);
+			if (subjects.isEmpty()) {
+				subjectsByLabel.remove(label);
+			}
+		}
+	}
+
+	private Stream<String> getNormalizedLabels(IRI subject) {
+		return getAnnotations(subject).stream().map(AnnotationIndex::getNormalizedLabel).filter(l -> l != null);
+	}
+
+	/**
+	 * Returns the normalized text of an rdfs:label annotation
+	 *
+	 * @return the normalized label, or null if the annotation is not a label
+	 *         with a literal value
+	 */
+	private static String getNormalizedLabel(OWLAnnotation annotation) {
+		if (annotation.getProperty().isLabel() && annotation.getValue() instanceof OWLLiteral) {
+			String label = normalizeLabel(((OWLLiteral) annotation.getValue()).getLiteral());
+
+			return label.isEmpty() ? null : label;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Normalizes a label for comparison, ignoring case and the differences in
+	 * spaces, underscores and hyphens
+	 *
+	 * @param label
+	 *            the label to normalize
+	 * @return the normalized label
+	 */
+	public static String normalizeLabel(String label) {
+		return LABEL_SEPARATORS.matcher(label.trim().toLowerCase(Locale.ROOT)).replaceAll(" ");
+	}
+
+	/**
+	 * Returns the annotations whose subject is the given IRI
+	 *
+	 * @param subject
+	 *            the annotated IRI
+	 * @return the annotations of the IRI
+	 */
+	public List<OWLAnnotation> getAnnotations(IRI subject) {
+		return annotationsBySubject.getOrDefault(subject, Collections.emptyList());
+	}
+
+	/**
+	 * @return the IRIs annotated with each normalized rdfs:label
+	 */
+	public Map<String, Set<IRI>> getSubjectsByLabel() {
+		return Collections.unmodifiableMap(subjectsByLabel);
+	}
+
+	/**
+	 * Returns true if the given IRI has an rdfs:label or rdfs:comment
+	 *
+	 * @param subject
+	 *            the annotated IRI
+	 * @return true if the IRI has a label or a comment
+	 */
+	public boolean hasLabelOrComment(IRI subject) {
+		return getAnnotations(subject).stream()
+				.anyMatch(a -> a.getProperty().isLabel() || a.getProperty().isComment());
+	}
+
+	/**
+	 * Returns the fragment of the given IRI, its part after the last '#' or
+	 * '/'
+	 *
+	 * @param iri
+	 *            the IRI
+	 * @return the fragment of the IRI
+	 */
+	public String getFragment(IRI iri) {
+		return fragments.computeIfAbsent(iri, k -> {
+			String iriString = k.toString();
+			return iriString.substring(Math.max(iriString.lastIndexOf('#'), iriString.lastIndexOf('/')) + 1);
+		});
+	}
+}
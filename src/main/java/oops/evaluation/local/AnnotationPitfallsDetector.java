@@ -0,0 +1,133 @@
+package oops.evaluation.local;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLEntity;
+
+import oops.evaluation.OOPSEvaluator;
+import oops.model.ElementPair;
+import oops.model.EvaluationResult;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Local detector of the pitfalls that depend on the labels and names of the ontology elements: P08 (missing
+ * annotations), P22 (different naming conventions) and P32 (several classes with the same label). All of them are
+ * answered from the annotation index, without scanning the annotation axioms.
+ */
+public class AnnotationPitfallsDetector implements PitfallDetector {
+
+	private static final String PITFALL_MISSING_ANNOTATIONS_ID = "P08";
+
+	private static final String PITFALL_NAMING_CONVENTIONS_ID = "P22";
+
+	/**
+	 * The ways of joining the words of a name
+	 */
+	private enum NamingStyle {
+		CAMEL_CASE, UNDERSCORES, HYPHENS, SPACES
+	}
+
+	@Override
+	public List<String> getPitfallIDs() {
+		return Arrays.asList(PITFALL_MISSING_ANNOTATIONS_ID, PITFALL_NAMING_CONVENTIONS_ID,
+				OOPSEvaluator.PITFALL_SAME_LABEL);
+	}
+
+	@Override
+	public EvaluationResult detect(OntologyIndexes indexes, List<String> pitfalls) {
+		PitfallReport report = new PitfallReport();
+		AnnotationIndex annotationIndex = indexes.getAnnotationIndex();
+
+		List<OWLEntity> elements = Stream.of(indexes.getClasses(), indexes.getObjectProperties(),
+				indexes.getDataProperties())
+				.flatMap(Set::stream)
+				.filter(entity -> !entity.isBuiltIn())
+				.collect(Collectors.toList());
+
+		if (pitfalls.contains(PITFALL_MISSING_ANNOTATIONS_ID)) {
+			report.addPitfall(PITFALL_MISSING_ANNOTATIONS_ID, elements.stream()
+					.filter(entity -> !annotationIndex.hasLabelOrComment(entity.getIRI()))
+					.map(entity -> entity.getIRI().toString())
+					.collect(Collectors.toList()));
+		}
+
+		if (pitfalls.contains(PITFALL_NAMING_CONVENTIONS_ID)) {
+			Set<NamingStyle> namingStyles = EnumSet.noneOf(NamingStyle.class);
+
+			for (OWLEntity entity : elements) {
+				NamingStyle namingStyle = getNamingStyle(annotationIndex.getFragment(entity.getIRI()));
+
+				if (namingStyle != null) {
+					namingStyles.add(namingStyle);
+				}
+			}
+
+			if (namingStyles.size() > 1) {
+				report.addGeneralPitfall(PITFALL_NAMING_CONVENTIONS_ID);
+			}
+		}
+
+		if (pitfalls.contains(OOPSEvaluator.PITFALL_SAME_LABEL)) {
+			Set<IRI> classIRIs = indexes.getClasses().stream().map(OWLEntity::getIRI).collect(Collectors.toSet());
+			List<ElementPair> pairs = new ArrayList<ElementPair>();
+
+			for (Set<IRI> subjects : annotationIndex.getSubjectsByLabel().values()) {
+				if (subjects.size() < 2) {
+					continue;
+				}
+
+				List<String> sameLabelClasses = subjects.stream()
+						.filter(classIRIs::contains)
+						.map(IRI::toString)
+						.sorted()
+						.collect(Collectors.toList());
+
+				for (int i = 0; i < sameLabelClasses.size(); i++) {
+					for (int j = i + 1; j < sameLabelClasses.size(); j++) {
+						pairs.add(new ElementPair(sameLabelClasses.get(i), sameLabelClasses.get(j)));
+					}
+				}
+			}
+
+			report.getBuilder().setElementsWithSameLabel(
+					report.addPairedPitfall(OOPSEvaluator.PITFALL_SAME_LABEL, pairs));
+		}
+
+		return report.getResult();
+	}
+
+	/**
+	 * Returns how the words of a name are joined
+	 *
+	 * @param name
+	 *            the name of an element
+	 * @return the naming style, or null for single-word names that fit any
+	 *         style
+	 */
+	private static NamingStyle getNamingStyle(String name) {
+		if (name.indexOf('_') >= 0) {
+			return NamingStyle.UNDERSCORES;
+		} else if (name.indexOf('-') >= 0) {
+			return NamingStyle.HYPHENS;
+		} else if (name.indexOf(' ') >= 0 || name.contains("%20")) {
+			return NamingStyle.SPACES;
+		}
+
+		for (int i = 1; i < name.length(); i++) {
+			if (Character.isUpperCase(name.charAt(i)) && Character.isLowerCase(name.charAt(i - 1))) {
+				return NamingStyle.CAMEL_CASE;
+			}
+		}
+
+		return null;
+	}
+}
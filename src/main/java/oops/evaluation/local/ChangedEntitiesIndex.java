@@ -0,0 +1,78 @@
+package oops.evaluation.local;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Index of the entities touched by the logical axioms added to or removed from an ontology. Every applied change gets
+ * a new generation number, so a detector that keeps results across evaluations can remember the generation of its
+ * last run and only recompute the results of the entities changed after it.
+ */
+public class ChangedEntitiesIndex extends IncrementalIndex {
+
+	private final Map<OWLEntity, Long> lastChangeByEntity = new HashMap<OWLEntity, Long>();
+
+	private long generation = 0;
+
+	/**
+	 * Starts listening to the changes of the given ontology. The entities of
+	 * the axioms already in it count as unchanged.
+	 *
+	 * @param ontology
+	 *            the ontology to index
+	 */
+	public ChangedEntitiesIndex(OWLOntology ontology) {
+		super(ontology);
+	}
+
+	@Override
+	protected boolean isIndexed(OWLAxiom axiom) {
+		return axiom.isLogicalAxiom();
+	}
+
+	@Override
+	protected void addAxiom(OWLAxiom axiom) {
+		markChanged(axiom);
+	}
+
+	@Override
+	protected void removeAxiom(OWLAxiom axiom) {
+		markChanged(axiom);
+	}
+
+	private void markChanged(OWLAxiom axiom) {
+		generation++;
+
+		for (OWLEntity entity : axiom.getSignature()) {
+			lastChangeByEntity.put(entity, generation);
+		}
+	}
+
+	/**
+	 * @return the generation of the last applied change, 0 if there are none
+	 */
+	public long getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * Returns true if an axiom of the given entity was added or removed after
+	 * the given generation
+	 *
+	 * @param entity
+	 *            the entity
+	 * @param sinceGeneration
+	 *            a generation returned by {@link #getGeneration()}
+	 * @return true if the entity changed after that generation
+	 */
+	public boolean hasChangedSince(OWLEntity entity, long sinceGeneration) {
+		return lastChangeByEntity.getOrDefault(entity, 0L) > sinceGeneration;
+	}
+}
@@ -0,0 +1,191 @@
+package oops.evaluation.local;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.semanticweb.owlapi.model.OWLClass;
+
+import oops.model.EvaluationResult;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Local detector of the pitfall P06 (cycles in a class hierarchy). The named classes are numbered and their
+ * SubClassOf and EquivalentClasses links stored as int adjacency arrays, over which an iterative version of Tarjan's
+ * strongly connected components algorithm runs in linear time without recursion. The classes of every component that
+ * contains a SubClassOf link are reported, so plain equivalences are not taken as cycles.
+ */
+public class ClassHierarchyCycleDetector implements PitfallDetector {
+
+	private static final String PITFALL_CLASS_CYCLES_ID = "P06";
+
+	@Override
+	public List<String> getPitfallIDs() {
+		return Collections.singletonList(PITFALL_CLASS_CYCLES_ID);
+	}
+
+	@Override
+	public EvaluationResult detect(OntologyIndexes indexes, List<String> pitfalls) {
+		PitfallReport report = new PitfallReport();
+
+		// number the classes
+		List<OWLClass> classes = new ArrayList<OWLClass>(indexes.getClasses());
+		Map<OWLClass, Integer> classIds = new HashMap<OWLClass, Integer>(classes.size() * 2);
+		for (int i = 0; i < classes.size(); i++) {
+			classIds.put(classes.get(i), i);
+		}
+
+		// collect the edges as two int arrays, the SubClassOf ones first
+		IntList edgeSources = new IntList();
+		IntList edgeTargets = new IntList();
+
+		for (int i = 0; i < classes.size(); i++) {
+			for (OWLClass superClass : indexes.getSuperClasses(classes.get(i))) {
+				addEdge(edgeSources, edgeTargets, i, getClassId(superClass, classIds, classes));
+			}
+		}
+		int numSubClassEdges = edgeSources.size();
+
+		for (int i = 0; i < classes.size(); i++) {
+			for (OWLClass equivalentClass : indexes.getEquivalentClasses(classes.get(i))) {
+				addEdge(edgeSources, edgeTargets, i, getClassId(equivalentClass, classIds, classes));
+			}
+		}
+
+		int numClasses = classes.size();
+		int component[] = findStronglyConnectedComponents(numClasses, edgeSources, edgeTargets);
+
+		// a component is a cycle if a SubClassOf link joins two of its classes
+		boolean cyclicComponent[] = new boolean[numClasses];
+		for (int e = 0; e < numSubClassEdges; e++) {
+			int source = edgeSources.get(e);
+			int target = edgeTargets.get(e);
+
+			if (source != target && component[source] == component[target]) {
+				cyclicComponent[component[source]] = true;
+			}
+		}
+
+		List<String> affectedClasses = new ArrayList<String>();
+		for (int i = 0; i < numClasses; i++) {
+			if (cyclicComponent[component[i]]) {
+				affectedClasses.add(classes.get(i).getIRI().toString());
+			}
+		}
+
+		report.addPitfall(PITFALL_CLASS_CYCLES_ID, affectedClasses);
+
+		return report.getResult();
+	}
+
+	static int getClassId(OWLClass owlClass, Map<OWLClass, Integer> classIds, List<OWLClass> classes) {
+		return classIds.computeIfAbsent(owlClass, k -> {
+			classes.add(k);
+			return classes.size() - 1;
+		});
+	}
+
+	static void addEdge(IntList edgeSources, IntList edgeTargets, int source, int target) {
+		edgeSources.add(source);
+		edgeTargets.add(target);
+	}
+
+	/**
+	 * Finds the strongly connected components of a graph with Tarjan's
+	 * algorithm, keeping the depth-first search in explicit arrays instead of
+	 * the call stack
+	 *
+	 * @param numNodes
+	 *            the number of nodes, numbered from 0
+	 * @param edgeSources
+	 *            the source node of each edge
+	 * @param edgeTargets
+	 *            the target node of each edge
+	 * @return the component number of each node
+	 */
+	static int[] findStronglyConnectedComponents(int numNodes, IntList edgeSources, IntList edgeTargets) {
+		// compressed sparse row adjacency
+		int adjacencyStart[] = new int[numNodes + 1];
+		for (int e = 0; e < edgeSources.size(); e++) {
+			adjacencyStart[edgeSources.get(e) + 1]++;
+		}
+		for (int n = 0; n < numNodes; n++) {
+			adjacencyStart[n + 1] += adjacencyStart[n];
+		}
+		int adjacency[] = new int[edgeSources.size()];
+		int fillPosition[] = Arrays.copyOf(adjacencyStart, numNodes);
+		for (int e = 0; e < edgeSources.size(); e++) {
+			adjacency[fillPosition[edgeSources.get(e)]++] = edgeTargets.get(e);
+		}
+
+		int index[] = new int[numNodes];
+		Arrays.fill(index, -1);
+		int lowLink[] = new int[numNodes];
+		boolean onStack[] = new boolean[numNodes];
+		int component[] = new int[numNodes];
+
+		int tarjanStack[] = new int[numNodes];
+		int tarjanStackSize = 0;
+
+		int callStack[] = new int[numNodes]; // nodes whose search is in progress
+		int nextEdge[] = new int[numNodes]; // next adjacency position to visit for each node in progress
+		int callStackSize = 0;
+
+		int nextIndex = 0;
+		int nextComponent = 0;
+
+		for (int root = 0; root < numNodes; root++) {
+			if (index[root] != -1) {
+				continue;
+			}
+
+			index[root] = lowLink[root] = nextIndex++;
+			tarjanStack[tarjanStackSize++] = root;
+			onStack[root] = true;
+			callStack[callStackSize] = root;
+			nextEdge[callStackSize++] = adjacencyStart[root];
+
+			while (callStackSize > 0) {
+				int node = callStack[callStackSize - 1];
+
+				if (nextEdge[callStackSize - 1] < adjacencyStart[node + 1]) {
+					int successor = adjacency[nextEdge[callStackSize - 1]++];
+
+					if (index[successor] == -1) {
+						index[successor] = lowLink[successor] = nextIndex++;
+						tarjanStack[tarjanStackSize++] = successor;
+						onStack[successor] = true;
+						callStack[callStackSize] = successor;
+						nextEdge[callStackSize++] = adjacencyStart[successor];
+					} else if (onStack[successor]) {
+						lowLink[node] = Math.min(lowLink[node], index[successor]);
+					}
+				} else {
+					callStackSize--;
+
+					if (lowLink[node] == index[node]) {
+						int member;
+						do {
+							member = tarjanStack[--tarjanStackSize];
+							onStack[member] = false;
+							component[member] = nextComponent;
+						} while (member != node);
+						nextComponent++;
+					}
+
+					if (callStackSize > 0) {
+						int parent = callStack[callStackSize - 1];
+						lowLink[parent] = Math.min(lowLink[parent], lowLink[node]);
+					}
+				}
+			}
+		}
+
+		return component;
+	}
+}
@@ -0,0 +1,57 @@
+package oops.evaluation.local;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import oops.model.EvaluationResult;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Local detector of the pitfalls P11 (missing domain or range in properties) and P19 (defining multiple domains or
+ * ranges in properties). Both only need the domain and range axioms of each property, which the property axiom index
+ * keeps up to date as the ontology is edited. The properties with multiple domains or ranges are read directly from
+ * the index; the ones missing a domain or range need a lookup per property of the signature, as they have no axioms
+ * to be indexed by.
+ */
+public class DomainRangeDetector implements PitfallDetector {
+
+	private static final String PITFALL_MISSING_DOMAIN_RANGE_ID = "P11";
+
+	private static final String PITFALL_MULTIPLE_DOMAIN_RANGE_ID = "P19";
+
+	@Override
+	public List<String> getPitfallIDs() {
+		return Arrays.asList(PITFALL_MISSING_DOMAIN_RANGE_ID, PITFALL_MULTIPLE_DOMAIN_RANGE_ID);
+	}
+
+	@Override
+	public EvaluationResult detect(OntologyIndexes indexes, List<String> pitfalls) {
+		PitfallReport report = new PitfallReport();
+		PropertyAxiomIndex propertyAxiomIndex = indexes.getPropertyAxiomIndex();
+
+		if (pitfalls.contains(PITFALL_MISSING_DOMAIN_RANGE_ID)) {
+			report.addPitfall(PITFALL_MISSING_DOMAIN_RANGE_ID, Stream.of(indexes.getObjectProperties(),
+					indexes.getDataProperties())
+					.flatMap(Set::stream)
+					.filter(property -> !property.isBuiltIn())
+					.filter(property -> propertyAxiomIndex.getDomainCount(property) == 0
+							|| propertyAxiomIndex.getRangeCount(property) == 0)
+					.map(property -> property.getIRI().toString())
+					.collect(Collectors.toList()));
+		}
+		if (pitfalls.contains(PITFALL_MULTIPLE_DOMAIN_RANGE_ID)) {
+			report.addPitfall(PITFALL_MULTIPLE_DOMAIN_RANGE_ID,
+					propertyAxiomIndex.getPropertiesWithMultipleDomainsOrRanges().stream()
+					.filter(property -> !property.isBuiltIn())
+					.map(property -> property.getIRI().toString())
+					.collect(Collectors.toList()));
+		}
+
+		return report.getResult();
+	}
+}
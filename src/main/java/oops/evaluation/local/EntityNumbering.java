@@ -0,0 +1,112 @@
+package oops.evaluation.local;
+
+import java.util.Collection;
+
+import org.semanticweb.owlapi.model.OWLEntity;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Int ids of the entities of an ontology, shared by the detectors that work on int graphs. The classes and
+ * properties get the first ids and the named individuals the rest. The ids are kept in an open addressing table of
+ * parallel arrays, which takes about 20 bytes per entity instead of the 50 bytes of a HashMap entry with a boxed id.
+ */
+public class EntityNumbering {
+
+	private final OWLEntity entities[];
+
+	private final OWLEntity slots[];
+
+	private final int slotIds[];
+
+	private final int mask;
+
+	private final int numClassesAndProperties;
+
+	private int size;
+
+	/**
+	 * Numbers the given entities, in iteration order
+	 *
+	 * @param classesAndProperties
+	 *            the classes and properties, which get the first ids
+	 * @param individuals
+	 *            the named individuals, which get the ids after them
+	 */
+	EntityNumbering(Collection<? extends OWLEntity> classesAndProperties,
+			Collection<? extends OWLEntity> individuals) {
+		int capacity = classesAndProperties.size() + individuals.size();
+		int numSlots = Integer.highestOneBit(Math.max(2 * capacity - 1, 1)) << 1; // at most half full
+
+		entities = new OWLEntity[capacity];
+		slots = new OWLEntity[numSlots];
+		slotIds = new int[numSlots];
+		mask = numSlots - 1;
+
+		classesAndProperties.forEach(this::add);
+		numClassesAndProperties = size;
+		individuals.forEach(this::add);
+	}
+
+	private void add(OWLEntity entity) {
+		int slot = getSlot(entity);
+
+		if (slots[slot] == null) {
+			slots[slot] = entity;
+			slotIds[slot] = size;
+			entities[size++] = entity;
+		}
+	}
+
+	// the slot of the entity, or the empty slot where it would go
+	private int getSlot(OWLEntity entity) {
+		int hash = entity.hashCode();
+		int slot = (hash ^ (hash >>> 16)) & mask;
+
+		while (slots[slot] != null && !slots[slot].equals(entity)) {
+			slot = (slot + 1) & mask;
+		}
+
+		return slot;
+	}
+
+	/**
+	 * Returns the id of the given entity
+	 *
+	 * @param entity
+	 *            an entity of the ontology
+	 * @return the id of the entity, or -1 if it is not numbered
+	 */
+	public int getId(OWLEntity entity) {
+		int slot = getSlot(entity);
+
+		return slots[slot] != null ? slotIds[slot] : -1;
+	}
+
+	/**
+	 * Returns the entity with the given id
+	 *
+	 * @param id
+	 *            an id from 0 to size - 1
+	 * @return the entity with that id
+	 */
+	public OWLEntity getEntity(int id) {
+		return entities[id];
+	}
+
+	/**
+	 * @return the number of classes and properties, whose ids go from 0 to
+	 *         this number - 1
+	 */
+	public int getNumClassesAndProperties() {
+		return numClassesAndProperties;
+	}
+
+	/**
+	 * @return the number of numbered entities, whose ids go from 0 to size - 1
+	 */
+	public int size() {
+		return size;
+	}
+}
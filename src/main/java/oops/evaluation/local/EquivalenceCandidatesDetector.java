@@ -0,0 +1,239 @@
+package oops.evaluation.local;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAnnotation;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLLiteral;
+
+import oops.evaluation.OOPSEvaluator;
+import oops.model.ElementPair;
+import oops.model.EvaluationResult;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Local detector of the pitfalls P12 (equivalent properties not explicitly declared) and P30 (equivalent classes not
+ * explicitly declared). The names of each element, taken from its IRI, labels and synonyms, are split in words and
+ * character trigrams, and the elements whose trigram sets are similar enough are suggested as equivalent. The
+ * candidate pairs come from a MinHash index, so the elements are not compared all against all.
+ */
+public class EquivalenceCandidatesDetector implements PitfallDetector {
+
+	public static final double DEFAULT_CLASS_SIMILARITY_THRESHOLD = 0.8;
+
+	public static final double DEFAULT_PROPERTY_SIMILARITY_THRESHOLD = 0.8;
+
+	private volatile double classSimilarityThreshold = DEFAULT_CLASS_SIMILARITY_THRESHOLD;
+
+	private volatile double propertySimilarityThreshold = DEFAULT_PROPERTY_SIMILARITY_THRESHOLD;
+
+	@Override
+	public List<String> getPitfallIDs() {
+		return Arrays.asList(OOPSEvaluator.PITFALL_MIGHT_BE_EQUIVALENT_ID, OOPSEvaluator.PITFALL_EQUIVALENT_CLASSES_ID);
+	}
+
+	@Override
+	public EvaluationResult detect(OntologyIndexes indexes, List<String> pitfalls) {
+		PitfallReport report = new PitfallReport();
+		EvaluationResult.Builder result = report.getBuilder();
+
+		if (pitfalls.contains(OOPSEvaluator.PITFALL_EQUIVALENT_CLASSES_ID)) {
+			Set<ElementPair> declaredPairs = new HashSet<ElementPair>();
+			for (OWLClass owlClass : indexes.getClasses()) {
+				for (OWLClass equivalentClass : indexes.getEquivalentClasses(owlClass)) {
+					declaredPairs.add(createPair(owlClass, equivalentClass));
+				}
+			}
+
+			result.setEquivalentClasses(report.addPairedPitfall(OOPSEvaluator.PITFALL_EQUIVALENT_CLASSES_ID,
+					findSimilarPairs(indexes, indexes.getClasses(), classSimilarityThreshold, declaredPairs)));
+		}
+
+		if (pitfalls.contains(OOPSEvaluator.PITFALL_MIGHT_BE_EQUIVALENT_ID)) {
+			Set<ElementPair> declaredPairs = new HashSet<ElementPair>();
+			addDeclaredPairs(indexes.getAxioms(AxiomType.EQUIVALENT_OBJECT_PROPERTIES), declaredPairs);
+			addDeclaredPairs(indexes.getAxioms(AxiomType.EQUIVALENT_DATA_PROPERTIES), declaredPairs);
+
+			List<ElementPair> relationPairs = findSimilarPairs(indexes, indexes.getObjectProperties(),
+					propertySimilarityThreshold, declaredPairs);
+			List<ElementPair> attributePairs = findSimilarPairs(indexes, indexes.getDataProperties(),
+					propertySimilarityThreshold, declaredPairs);
+
+			List<ElementPair> allPairs = new ArrayList<ElementPair>(relationPairs);
+			allPairs.addAll(attributePairs);
+			report.addPairedPitfall(OOPSEvaluator.PITFALL_MIGHT_BE_EQUIVALENT_ID, allPairs);
+
+			if (!relationPairs.isEmpty()) {
+				result.setEquivalentRelations(relationPairs);
+			}
+			if (!attributePairs.isEmpty()) {
+				result.setEquivalentAttributes(attributePairs);
+			}
+		}
+
+		return report.getResult();
+	}
+
+	private static void addDeclaredPairs(Collection<? extends OWLAxiom> equivalenceAxioms,
+			Set<ElementPair> declaredPairs) {
+		for (OWLAxiom axiom : equivalenceAxioms) {
+			List<OWLEntity> properties = new ArrayList<OWLEntity>(axiom.getSignature());
+
+			for (int i = 0; i < properties.size(); i++) {
+				for (int j = i + 1; j < properties.size(); j++) {
+					declaredPairs.add(createPair(properties.get(i), properties.get(j)));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds the pairs of elements with similar names that are not already
+	 * declared as equivalent
+	 *
+	 * @param indexes
+	 *            the ontology indexes
+	 * @param entities
+	 *            the elements to compare
+	 * @param threshold
+	 *            the minimum similarity of the names
+	 * @param declaredPairs
+	 *            the pairs declared as equivalent in the ontology
+	 * @return the pairs of similar elements
+	 */
+	private List<ElementPair> findSimilarPairs(OntologyIndexes indexes, Collection<? extends OWLEntity> entities,
+			double threshold, Set<ElementPair> declaredPairs) {
+		List<OWLEntity> elements = entities.stream()
+				.filter(entity -> !entity.isBuiltIn())
+				.collect(Collectors.toList());
+
+		MinHashIndex minHashIndex = new MinHashIndex(threshold);
+		for (OWLEntity element : elements) {
+			minHashIndex.add(getNameTokens(indexes.getAnnotationIndex(), element));
+		}
+
+		IntList firsts = new IntList();
+		IntList seconds = new IntList();
+		minHashIndex.findSimilarPairs(firsts, seconds);
+
+		List<ElementPair> pairs = new ArrayList<ElementPair>();
+		for (int i = 0; i < firsts.size(); i++) {
+			ElementPair pair = createPair(elements.get(firsts.get(i)), elements.get(seconds.get(i)));
+
+			if (!declaredPairs.contains(pair)) {
+				pairs.add(pair);
+			}
+		}
+
+		return pairs;
+	}
+
+	private static ElementPair createPair(OWLEntity first, OWLEntity second) {
+		String firstIRI = first.getIRI().toString();
+		String secondIRI = second.getIRI().toString();
+
+		return firstIRI.compareTo(secondIRI) < 0 ? new ElementPair(firstIRI, secondIRI)
+				: new ElementPair(secondIRI, firstIRI);
+	}
+
+	/**
+	 * Returns the hashes of the character trigrams of the words in the names
+	 * of an element: its IRI fragment, labels and synonyms
+	 *
+	 * @param annotationIndex
+	 *            the annotation index of the ontology
+	 * @param element
+	 *            the element
+	 * @return the sorted token hashes, without duplicates
+	 */
+	private static int[] getNameTokens(AnnotationIndex annotationIndex, OWLEntity element) {
+		Set<Integer> tokens = new HashSet<Integer>();
+
+		addNameTokens(annotationIndex.getFragment(element.getIRI()), tokens);
+
+		for (OWLAnnotation annotation : annotationIndex.getAnnotations(element.getIRI())) {
+			if (annotation.getValue() instanceof OWLLiteral && (annotation.getProperty().isLabel()
+					|| isSynonymProperty(annotationIndex.getFragment(annotation.getProperty().getIRI())))) {
+				addNameTokens(((OWLLiteral) annotation.getValue()).getLiteral(), tokens);
+			}
+		}
+
+		return tokens.stream().mapToInt(Integer::intValue).sorted().toArray();
+	}
+
+	private static boolean isSynonymProperty(String propertyName) {
+		String name = propertyName.toLowerCase(Locale.ROOT);
+
+		return name.contains("synonym") || name.equals("altlabel");
+	}
+
+	private static void addNameTokens(String name, Set<Integer> tokens) {
+		for (String word : NameTokenizer.tokenize(name)) {
+			if (word.length() <= 3) {
+				tokens.add(word.hashCode());
+			} else {
+				for (int i = 0; i + 3 <= word.length(); i++) {
+					tokens.add(word.substring(i, i + 3).hashCode());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sets the minimum similarity of the names of two classes to suggest them
+	 * as equivalent
+	 *
+	 * @param threshold
+	 *            a Jaccard similarity greater than 0 and at most 1
+	 */
+	public void setClassSimilarityThreshold(double threshold) {
+		this.classSimilarityThreshold = checkThreshold(threshold);
+	}
+
+	/**
+	 * @return the minimum similarity of the names of two classes to suggest
+	 *         them as equivalent
+	 */
+	public double getClassSimilarityThreshold() {
+		return classSimilarityThreshold;
+	}
+
+	/**
+	 * Sets the minimum similarity of the names of two properties to suggest
+	 * them as equivalent
+	 *
+	 * @param threshold
+	 *            a Jaccard similarity greater than 0 and at most 1
+	 */
+	public void setPropertySimilarityThreshold(double threshold) {
+		this.propertySimilarityThreshold = checkThreshold(threshold);
+	}
+
+	/**
+	 * @return the minimum similarity of the names of two properties to suggest
+	 *         them as equivalent
+	 */
+	public double getPropertySimilarityThreshold() {
+		return propertySimilarityThreshold;
+	}
+
+	private static double checkThreshold(double threshold) {
+		if (threshold <= 0 || threshold > 1) {
+			throw new IllegalArgumentException("The similarity threshold must be in (0, 1], got " + threshold);
+		}
+
+		return threshold;
+	}
+}
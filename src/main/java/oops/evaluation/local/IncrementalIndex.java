@@ -0,0 +1,106 @@
+package oops.evaluation.local;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.OWLOntologyChangeListener;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Base of the indexes kept across evaluations. An index listens to the changes of its ontology and queues the
+ * additions and removals of the axioms it covers. They are only applied at the start of the next evaluation, so the
+ * index does not change while the detectors read it and each update costs time in the number of changed axioms.
+ * <br><br>
+ * The index starts listening before its subclass scans the existing axioms, so no change is lost, but a change made
+ * during the scan can be both scanned and queued. The subclasses must therefore apply the changes idempotently: adding
+ * an axiom already indexed or removing one that is not indexed leaves the index as it was.
+ */
+public abstract class IncrementalIndex implements OWLOntologyChangeListener {
+
+	private final OWLOntology ontology;
+
+	private final Queue<OWLOntologyChange> pendingChanges = new ConcurrentLinkedQueue<OWLOntologyChange>();
+
+	/**
+	 * Starts listening to the changes of the given ontology. The subclasses
+	 * index its current axioms in their constructors, after this one.
+	 *
+	 * @param ontology
+	 *            the ontology to index
+	 */
+	protected IncrementalIndex(OWLOntology ontology) {
+		this.ontology = ontology;
+
+		ontology.getOWLOntologyManager().addOntologyChangeListener(this);
+	}
+
+	@Override
+	public void ontologiesChanged(List<? extends OWLOntologyChange> changes) {
+		for (OWLOntologyChange change : changes) {
+			if (change.getOntology() == ontology && change.isAxiomChange() && isIndexed(change.getAxiom())) {
+				pendingChanges.add(change);
+			}
+		}
+	}
+
+	/**
+	 * Applies the changes made to the ontology since the last call. It must
+	 * not be called while the index is being read.
+	 */
+	public void applyPendingChanges() {
+		OWLOntologyChange change;
+
+		while ((change = pendingChanges.poll()) != null) {
+			if (change.isAddAxiom()) {
+				addAxiom(change.getAxiom());
+			} else if (change.isRemoveAxiom()) {
+				removeAxiom(change.getAxiom());
+			}
+		}
+	}
+
+	/**
+	 * Returns true if the index covers the given axiom
+	 *
+	 * @param axiom
+	 *            an added or removed axiom
+	 * @return true if the index must be updated with the axiom
+	 */
+	protected abstract boolean isIndexed(OWLAxiom axiom);
+
+	/**
+	 * Adds an axiom covered by the index, if it is not indexed yet
+	 *
+	 * @param axiom
+	 *            the axiom added to the ontology
+	 */
+	protected abstract void addAxiom(OWLAxiom axiom);
+
+	/**
+	 * Removes an axiom covered by the index, if it is indexed
+	 *
+	 * @param axiom
+	 *            the axiom removed from the ontology
+	 */
+	protected abstract void removeAxiom(OWLAxiom axiom);
+
+	/**
+	 * @return the indexed ontology
+	 */
+	public OWLOntology getOntology() {
+		return ontology;
+	}
+
+	/**
+	 * Stops listening to the changes of the indexed ontology
+	 */
+	public void dispose() {
+		ontology.getOWLOntologyManager().removeOntologyChangeListener(this);
+	}
+}
@@ -0,0 +1,44 @@
+package oops.evaluation.local;
+
+import java.util.Arrays;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * A growable list of primitive ints, used by the graph-based detectors and the partitioner to avoid boxing every node
+ * and edge.
+ */
+public class IntList {
+
+	private int values[];
+
+	private int size;
+
+	public IntList() {
+		this(16);
+	}
+
+	public IntList(int initialCapacity) {
+		values = new int[Math.max(initialCapacity, 1)];
+	}
+
+	public void add(int value) {
+		if (size == values.length) {
+			values = Arrays.copyOf(values, size * 2);
+		}
+		values[size++] = value;
+	}
+
+	public int get(int position) {
+		return values[position];
+	}
+
+	public void set(int position, int value) {
+		values[position] = value;
+	}
+
+	public int size() {
+		return size;
+	}
+}
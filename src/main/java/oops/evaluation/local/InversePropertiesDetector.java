@@ -0,0 +1,246 @@
+package oops.evaluation.local;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLInverseObjectPropertiesAxiom;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
+import org.semanticweb.owlapi.model.OWLSymmetricObjectPropertyAxiom;
+
+import oops.evaluation.OOPSEvaluator;
+import oops.model.ElementPair;
+import oops.model.EvaluationResult;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Local detector of the pitfalls about inverse relationships: P05 (wrong inverse relationships), P13 (inverse
+ * relationships not explicitly declared), P25 (a relationship inverse to itself) and P26 (inverse relationships for a
+ * symmetric one). The declared inverses and symmetric properties are indexed first, and then all four pitfalls are
+ * checked in one pass over the object properties. The inverses that might be missing are suggested by matching the
+ * property names, so that "hasPart" and "isPartOf" are paired.
+ */
+public class InversePropertiesDetector implements PitfallDetector {
+
+	private static final String PITFALL_INVERSE_TO_ITSELF_ID = "P25";
+
+	private static final String PITFALL_INVERSE_OF_SYMMETRIC_ID = "P26";
+
+	private static final Set<String> FORWARD_PREFIXES = new HashSet<String>(Arrays.asList("has", "have"));
+
+	private static final Set<String> BACKWARD_PREFIXES = new HashSet<String>(Arrays.asList("is", "was", "are"));
+
+	private static final Set<String> BACKWARD_SUFFIXES = new HashSet<String>(Arrays.asList("of", "by", "in", "for"));
+
+	/**
+	 * The name of a property reduced to the words shared by a relationship and
+	 * its inverse, and the direction those words are read in
+	 */
+	private static class RelationName {
+		private final String core;
+		private final boolean backward;
+
+		private RelationName(String core, boolean backward) {
+			this.core = core;
+			this.backward = backward;
+		}
+	}
+
+	@Override
+	public List<String> getPitfallIDs() {
+		return Arrays.asList(OOPSEvaluator.PITFALL_WRONG_INVERSE_ID, OOPSEvaluator.PITFALL_MIGHT_BE_INVERSE_ID,
+				PITFALL_INVERSE_TO_ITSELF_ID, PITFALL_INVERSE_OF_SYMMETRIC_ID);
+	}
+
+	@Override
+	public EvaluationResult detect(OntologyIndexes indexes, List<String> pitfalls) {
+		PitfallReport report = new PitfallReport();
+		EvaluationResult.Builder result = report.getBuilder();
+
+		// index the declared inverses and the symmetric properties
+		Map<OWLObjectProperty, Set<OWLObjectProperty>> inversesByProperty =
+				new HashMap<OWLObjectProperty, Set<OWLObjectProperty>>();
+		for (OWLInverseObjectPropertiesAxiom inverseAxiom : indexes.getAxioms(AxiomType.INVERSE_OBJECT_PROPERTIES)) {
+			OWLObjectPropertyExpression first = inverseAxiom.getFirstProperty();
+			OWLObjectPropertyExpression second = inverseAxiom.getSecondProperty();
+
+			if (!first.isAnonymous() && !second.isAnonymous()) {
+				inversesByProperty.computeIfAbsent(first.asOWLObjectProperty(), k -> new HashSet<OWLObjectProperty>())
+						.add(second.asOWLObjectProperty());
+				inversesByProperty.computeIfAbsent(second.asOWLObjectProperty(), k -> new HashSet<OWLObjectProperty>())
+						.add(first.asOWLObjectProperty());
+			}
+		}
+
+		Set<OWLObjectProperty> symmetricProperties = new HashSet<OWLObjectProperty>();
+		for (OWLSymmetricObjectPropertyAxiom symmetricAxiom : indexes.getAxioms(AxiomType.SYMMETRIC_OBJECT_PROPERTY)) {
+			if (!symmetricAxiom.getProperty().isAnonymous()) {
+				symmetricProperties.add(symmetricAxiom.getProperty().asOWLObjectProperty());
+			}
+		}
+
+		List<ElementPair> wrongInverses = new ArrayList<ElementPair>();
+		List<String> inverseToItself = new ArrayList<String>();
+		List<String> inverseOfSymmetric = new ArrayList<String>();
+		List<OWLObjectProperty> withoutInverse = new ArrayList<OWLObjectProperty>();
+
+		for (OWLObjectProperty property : indexes.getObjectProperties()) {
+			if (property.isBuiltIn()) {
+				continue;
+			}
+
+			Set<OWLObjectProperty> inverses = inversesByProperty.getOrDefault(property, Collections.emptySet());
+			boolean symmetric = symmetricProperties.contains(property);
+
+			for (OWLObjectProperty inverse : inverses) {
+				if (inverse.equals(property)) {
+					inverseToItself.add(property.getIRI().toString());
+				} else {
+					if (symmetric) {
+						inverseOfSymmetric.add(property.getIRI().toString());
+					}
+
+					// each pair is checked once, from its lowest IRI
+					if (property.getIRI().toString().compareTo(inverse.getIRI().toString()) < 0
+							&& !haveInverseDomainsAndRanges(indexes, property, inverse)) {
+						wrongInverses.add(new ElementPair(property.getIRI().toString(),
+								inverse.getIRI().toString()));
+					}
+				}
+			}
+
+			if (inverses.isEmpty() && !symmetric) {
+				withoutInverse.add(property);
+			}
+		}
+
+		if (pitfalls.contains(OOPSEvaluator.PITFALL_WRONG_INVERSE_ID)) {
+			result.setWrongInverseRelations(
+					report.addPairedPitfall(OOPSEvaluator.PITFALL_WRONG_INVERSE_ID, wrongInverses));
+		}
+		if (pitfalls.contains(PITFALL_INVERSE_TO_ITSELF_ID)) {
+			report.addPitfall(PITFALL_INVERSE_TO_ITSELF_ID, inverseToItself);
+		}
+		if (pitfalls.contains(PITFALL_INVERSE_OF_SYMMETRIC_ID)) {
+			report.addPitfall(PITFALL_INVERSE_OF_SYMMETRIC_ID, inverseOfSymmetric);
+		}
+		if (pitfalls.contains(OOPSEvaluator.PITFALL_MIGHT_BE_INVERSE_ID)) {
+			reportMissingInverses(indexes, withoutInverse, report);
+		}
+
+		return report.getResult();
+	}
+
+	/**
+	 * Returns true unless the domain of one property and the range of the
+	 * other are both declared and differ
+	 */
+	private static boolean haveInverseDomainsAndRanges(OntologyIndexes indexes, OWLObjectProperty property,
+			OWLObjectProperty inverse) {
+		return matchOrUndeclared(indexes.getDomains(property), indexes.getRanges(inverse))
+				&& matchOrUndeclared(indexes.getRanges(property), indexes.getDomains(inverse));
+	}
+
+	private static boolean matchOrUndeclared(List<?> first, List<?> second) {
+		return first.isEmpty() || second.isEmpty() || new HashSet<Object>(first).equals(new HashSet<Object>(second));
+	}
+
+	/**
+	 * Reports the properties without a declared inverse, pairing those whose
+	 * names suggest they are the inverse of each other
+	 *
+	 * @param indexes
+	 *            the ontology indexes
+	 * @param withoutInverse
+	 *            the non-symmetric properties without a declared inverse
+	 * @param report
+	 *            the report to fill
+	 */
+	private static void reportMissingInverses(OntologyIndexes indexes, List<OWLObjectProperty> withoutInverse,
+			PitfallReport report) {
+		Map<String, List<OWLObjectProperty>> forwardByCore = new HashMap<String, List<OWLObjectProperty>>();
+		Map<String, List<OWLObjectProperty>> backwardByCore = new HashMap<String, List<OWLObjectProperty>>();
+
+		for (OWLObjectProperty property : withoutInverse) {
+			RelationName name = getRelationName(indexes.getAnnotationIndex().getFragment(property.getIRI()));
+
+			if (name != null) {
+				(name.backward ? backwardByCore : forwardByCore)
+						.computeIfAbsent(name.core, k -> new ArrayList<OWLObjectProperty>()).add(property);
+			}
+		}
+
+		Set<OWLObjectProperty> paired = new HashSet<OWLObjectProperty>();
+		List<ElementPair> mightBeInverse = new ArrayList<ElementPair>();
+
+		for (Map.Entry<String, List<OWLObjectProperty>> forwardEntry : forwardByCore.entrySet()) {
+			for (OWLObjectProperty forward : forwardEntry.getValue()) {
+				for (OWLObjectProperty backward : backwardByCore.getOrDefault(forwardEntry.getKey(),
+						Collections.emptyList())) {
+					mightBeInverse.add(new ElementPair(forward.getIRI().toString(), backward.getIRI().toString()));
+					paired.add(forward);
+					paired.add(backward);
+				}
+			}
+		}
+
+		List<String> affectedElements = new ArrayList<String>();
+		List<String> noInverseSuggestions = new ArrayList<String>();
+
+		for (OWLObjectProperty property : withoutInverse) {
+			affectedElements.add(property.getIRI().toString());
+
+			if (!paired.contains(property)) {
+				noInverseSuggestions.add(property.getIRI().toString());
+			}
+		}
+
+		report.addPitfall(OOPSEvaluator.PITFALL_MIGHT_BE_INVERSE_ID, affectedElements);
+
+		if (!mightBeInverse.isEmpty()) {
+			report.getBuilder().setMightBeInverseRelations(mightBeInverse);
+		}
+		if (!noInverseSuggestions.isEmpty()) {
+			report.getBuilder().setRelationsWithoutInverse(noInverseSuggestions);
+		}
+	}
+
+	/**
+	 * Reduces a property name to its core words, so that a relationship and
+	 * its inverse share them. A leading "has" reads forward, while a leading
+	 * "is" or a trailing preposition such as "of" reads backward.
+	 *
+	 * @param propertyName
+	 *            the name of the property
+	 * @return the core words and direction, or null if the name has no
+	 *         words besides the prefixes and suffixes
+	 */
+	private static RelationName getRelationName(String propertyName) {
+		List<String> words = NameTokenizer.tokenize(propertyName);
+
+		boolean backward = false;
+
+		if (!words.isEmpty() && FORWARD_PREFIXES.contains(words.get(0))) {
+			words.remove(0);
+		} else if (!words.isEmpty() && BACKWARD_PREFIXES.contains(words.get(0))) {
+			words.remove(0);
+			backward = true;
+		}
+
+		if (!words.isEmpty() && BACKWARD_SUFFIXES.contains(words.get(words.size() - 1))) {
+			words.remove(words.size() - 1);
+			backward = true;
+		}
+
+		return words.isEmpty() ? null : new RelationName(String.join(" ", words), backward);
+	}
+}
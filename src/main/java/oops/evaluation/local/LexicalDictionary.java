@@ -0,0 +1,199 @@
+package oops.evaluation.local;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Dictionary of the words the lexical detectors look for: the miscellaneous and conjunction words, the lemmas of the
+ * irregular inflected forms and the groups of synonyms. All the words are numbered by a shared trie. The dictionary is
+ * shipped as a resource and only loaded the first time it is needed, streaming it line by line from the plugin
+ * bundle. A malformed line is logged and skipped, so it does not disable the rest of the dictionary.
+ */
+class LexicalDictionary {
+
+	private static final Logger logger = LoggerFactory.getLogger(LexicalDictionary.class);
+
+	static final int MISC = 1;
+
+	static final int CONJUNCTION = 2;
+
+	private static final String LEXICON_RESOURCE = "/dictionaries/lexicon.txt";
+
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+	private final TokenTrie trie = new TokenTrie();
+
+	private final List<String> words = new ArrayList<String>();
+
+	private final IntList flags = new IntList();
+
+	private final IntList lemmas = new IntList(); // the id of the lemma of each word
+
+	private final IntList synonymGroups = new IntList(); // the id of the word representing the synonyms of each word
+
+	/**
+	 * Holder of the shared dictionary, loaded by the first call to
+	 * {@link LexicalDictionary#getInstance()}
+	 */
+	private static class Holder {
+		private static final LexicalDictionary INSTANCE = load();
+	}
+
+	private LexicalDictionary() {
+	}
+
+	/**
+	 * @return the shared dictionary, loaded on the first call
+	 */
+	static LexicalDictionary getInstance() {
+		return Holder.INSTANCE;
+	}
+
+	private static LexicalDictionary load() {
+		LexicalDictionary dictionary = new LexicalDictionary();
+
+		try (InputStream in = LexicalDictionary.class.getResourceAsStream(LEXICON_RESOURCE)) {
+			if (in == null) {
+				throw new IOException("The resource " + LEXICON_RESOURCE + " was not found");
+			}
+
+			BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+			String line;
+
+			while ((line = reader.readLine()) != null) {
+				dictionary.parseLine(line.trim());
+			}
+
+			logger.debug("load[LexicalDictionary] loaded " + dictionary.words.size() + " words");
+		} catch (IOException e) {
+			logger.warn("load[LexicalDictionary] could not load the lexicon, the lexical pitfalls will not be found",
+					e);
+		}
+
+		return dictionary;
+	}
+
+	private void parseLine(String line) {
+		if (line.isEmpty() || line.startsWith("#")) {
+			return;
+		}
+
+		String fields[] = WHITESPACE.split(line);
+
+		if (fields.length < 2) {
+			logger.warn("parseLine[LexicalDictionary] lexicon line without words: " + line);
+			return;
+		}
+
+		int flag;
+		switch (fields[0]) {
+		case "misc":
+			flag = MISC;
+			break;
+		case "conjunction":
+			flag = CONJUNCTION;
+			break;
+		case "lemma":
+		case "synonyms":
+			flag = 0;
+			break;
+		default:
+			logger.warn("parseLine[LexicalDictionary] unknown lexicon line: " + line);
+			return;
+		}
+
+		int firstWordId = getWordId(fields[1]);
+
+		for (int i = 1; i < fields.length; i++) {
+			int wordId = getWordId(fields[i]);
+
+			if (flag != 0) {
+				flags.set(wordId, flags.get(wordId) | flag);
+			} else if (fields[0].equals("lemma")) {
+				lemmas.set(wordId, firstWordId);
+			} else {
+				synonymGroups.set(wordId, firstWordId);
+			}
+		}
+	}
+
+	private int getWordId(String word) {
+		int wordId = trie.add(word);
+
+		if (wordId == words.size()) {
+			words.add(word);
+			flags.add(0);
+			lemmas.add(wordId);
+			synonymGroups.add(wordId);
+		}
+
+		return wordId;
+	}
+
+	/**
+	 * Returns true if the given word has the given flag
+	 *
+	 * @param word
+	 *            a lower case word
+	 * @param flag
+	 *            {@link #MISC} or {@link #CONJUNCTION}
+	 * @return true if the word has the flag
+	 */
+	boolean hasFlag(String word, int flag) {
+		int wordId = trie.find(word);
+
+		return wordId >= 0 && (flags.get(wordId) & flag) != 0;
+	}
+
+	/**
+	 * Returns the lemma of a word, from the dictionary for the irregular forms
+	 * or by removing the regular plural endings
+	 *
+	 * @param word
+	 *            a lower case word
+	 * @return the lemma of the word
+	 */
+	String getLemma(String word) {
+		int wordId = trie.find(word);
+
+		if (wordId >= 0) {
+			return words.get(lemmas.get(wordId));
+		} else if (word.length() > 4 && word.endsWith("ies")) {
+			return word.substring(0, word.length() - 3) + "y";
+		} else if (word.length() > 4 && (word.endsWith("ches") || word.endsWith("shes") || word.endsWith("sses")
+				|| word.endsWith("xes"))) {
+			return word.substring(0, word.length() - 2);
+		} else if (word.length() > 3 && word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us")
+				&& !word.endsWith("is")) {
+			return word.substring(0, word.length() - 1);
+		}
+
+		return word;
+	}
+
+	/**
+	 * Returns the word that represents the synonyms of the given lemma
+	 *
+	 * @param lemma
+	 *            a lemma
+	 * @return the representative of its synonyms, or the lemma itself if it
+	 *         has no synonyms in the dictionary
+	 */
+	String getConcept(String lemma) {
+		int wordId = trie.find(lemma);
+
+		return wordId >= 0 ? words.get(synonymGroups.get(wordId)) : lemma;
+	}
+}
@@ -0,0 +1,145 @@
+package oops.evaluation.local;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.semanticweb.owlapi.model.OWLAnnotation;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLLiteral;
+
+import oops.model.EvaluationResult;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Local detector of the lexical pitfalls of the class names: P02 (synonyms as classes), P07 (merging different
+ * concepts in the same class, as in "StudentOrTeacher") and P21 (miscellaneous classes, as in "OtherVehicles"). The
+ * IRI fragment and labels of every class are split in words and looked up in the lexical dictionary in a single pass.
+ * P02 is reported for the classes declared equivalent whose names only differ by synonyms.
+ */
+public class LexicalPitfallsDetector implements PitfallDetector {
+
+	private static final String PITFALL_SYNONYM_CLASSES_ID = "P02";
+
+	private static final String PITFALL_MERGED_CONCEPTS_ID = "P07";
+
+	private static final String PITFALL_MISCELLANEOUS_CLASS_ID = "P21";
+
+	/**
+	 * The forms of the names of a class: with the words reduced to their
+	 * lemmas, and further to the representatives of their synonyms
+	 */
+	private static class ClassNames {
+		private final Set<String> lemmaNames = new HashSet<String>();
+		private final Set<String> conceptNames = new HashSet<String>();
+	}
+
+	@Override
+	public List<String> getPitfallIDs() {
+		return Arrays.asList(PITFALL_SYNONYM_CLASSES_ID, PITFALL_MERGED_CONCEPTS_ID, PITFALL_MISCELLANEOUS_CLASS_ID);
+	}
+
+	@Override
+	public EvaluationResult detect(OntologyIndexes indexes, List<String> pitfalls) {
+		PitfallReport report = new PitfallReport();
+		LexicalDictionary dictionary = LexicalDictionary.getInstance();
+		AnnotationIndex annotationIndex = indexes.getAnnotationIndex();
+
+		List<String> mergedConceptClasses = new ArrayList<String>();
+		List<String> miscellaneousClasses = new ArrayList<String>();
+		Map<OWLClass, ClassNames> namesByClass = new HashMap<OWLClass, ClassNames>();
+
+		for (OWLClass owlClass : indexes.getClasses()) {
+			if (owlClass.isBuiltIn()) {
+				continue;
+			}
+
+			boolean mergesConcepts = false;
+			boolean isMiscellaneous = false;
+			ClassNames classNames = new ClassNames();
+
+			for (String name : getNames(annotationIndex, owlClass)) {
+				List<String> words = NameTokenizer.tokenize(name);
+
+				for (int i = 0; i < words.size(); i++) {
+					// a conjunction only merges concepts between two other words
+					mergesConcepts |= i > 0 && i < words.size() - 1
+							&& dictionary.hasFlag(words.get(i), LexicalDictionary.CONJUNCTION);
+					isMiscellaneous |= dictionary.hasFlag(words.get(i), LexicalDictionary.MISC);
+				}
+
+				List<String> lemmas = words.stream().map(dictionary::getLemma).collect(Collectors.toList());
+				classNames.lemmaNames.add(String.join(" ", lemmas));
+				classNames.conceptNames.add(
+						lemmas.stream().map(dictionary::getConcept).collect(Collectors.joining(" ")));
+			}
+
+			if (mergesConcepts) {
+				mergedConceptClasses.add(owlClass.getIRI().toString());
+			}
+			if (isMiscellaneous) {
+				miscellaneousClasses.add(owlClass.getIRI().toString());
+			}
+			namesByClass.put(owlClass, classNames);
+		}
+
+		if (pitfalls.contains(PITFALL_MERGED_CONCEPTS_ID)) {
+			report.addPitfall(PITFALL_MERGED_CONCEPTS_ID, mergedConceptClasses);
+		}
+		if (pitfalls.contains(PITFALL_MISCELLANEOUS_CLASS_ID)) {
+			report.addPitfall(PITFALL_MISCELLANEOUS_CLASS_ID, miscellaneousClasses);
+		}
+
+		if (pitfalls.contains(PITFALL_SYNONYM_CLASSES_ID)) {
+			List<String> synonymClasses = new ArrayList<String>();
+
+			for (Map.Entry<OWLClass, ClassNames> entry : namesByClass.entrySet()) {
+				for (OWLClass equivalentClass : indexes.getEquivalentClasses(entry.getKey())) {
+					ClassNames equivalentNames = namesByClass.get(equivalentClass);
+
+					if (equivalentNames != null && areSynonyms(entry.getValue(), equivalentNames)) {
+						synonymClasses.add(entry.getKey().getIRI().toString());
+						break;
+					}
+				}
+			}
+
+			report.addPitfall(PITFALL_SYNONYM_CLASSES_ID, synonymClasses);
+		}
+
+		return report.getResult();
+	}
+
+	/**
+	 * Returns the IRI fragment and labels of a class
+	 */
+	private static List<String> getNames(AnnotationIndex annotationIndex, OWLClass owlClass) {
+		List<String> names = new ArrayList<String>(Collections.singletonList(
+				annotationIndex.getFragment(owlClass.getIRI())));
+
+		for (OWLAnnotation annotation : annotationIndex.getAnnotations(owlClass.getIRI())) {
+			if (annotation.getProperty().isLabel() && annotation.getValue() instanceof OWLLiteral) {
+				names.add(((OWLLiteral) annotation.getValue()).getLiteral());
+			}
+		}
+
+		return names;
+	}
+
+	/**
+	 * Two classes are synonyms if some of their names mean the same but none
+	 * of them are just inflections of each other
+	 */
+	private static boolean areSynonyms(ClassNames first, ClassNames second) {
+		return !Collections.disjoint(first.conceptNames, second.conceptNames)
+				&& Collections.disjoint(first.lemmaNames, second.lemmaNames);
+	}
+}
@@ -0,0 +1,243 @@
+package oops.evaluation.local;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import oops.evaluation.EvaluationBackend;
+import oops.evaluation.EvaluationResultMerger;
+import oops.model.EvaluationResult;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Evaluation backend that runs the local pitfall detectors in-process, so the ontology never leaves the machine.
+ * The ontology is indexed once and each selected detector runs as an independent fork/join task over the shared
+ * indexes. The pitfalls without a local detector are not checked.
+ */
+public class LocalEvaluationBackend implements EvaluationBackend {
+
+	private static final Logger logger = LoggerFactory.getLogger(LocalEvaluationBackend.class);
+
+	private static final String NAME = "Local engine (offline)";
+
+	private final List<PitfallDetector> detectors;
+
+	private final EquivalenceCandidatesDetector equivalenceCandidatesDetector = new EquivalenceCandidatesDetector();
+
+	private final UntypedEntitiesDetector untypedEntitiesDetector = new UntypedEntitiesDetector();
+
+	private final OntologyMetadataDetector metadataDetector = new OntologyMetadataDetector();
+
+	private final ForkJoinPool detectorsPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+	// kept across the evaluations of the same ontology
+	private AnnotationIndex annotationIndex;
+
+	private PropertyAxiomIndex propertyAxiomIndex;
+
+	private ChangedEntitiesIndex changedEntitiesIndex;
+
+	private volatile ReasonerAccess reasonerAccess = queries -> false;
+
+	public LocalEvaluationBackend() {
+		this.detectors = Arrays.asList(
+				new MissingDisjointnessDetector(),
+				new ClassHierarchyCycleDetector(),
+				new AnnotationPitfallsDetector(),
+				new UnconnectedElementsDetector(),
+				new DomainRangeDetector(),
+				equivalenceCandidatesDetector,
+				new InversePropertiesDetector(),
+				new ReasonerPitfallsDetector(queries -> reasonerAccess.runQueries(queries)),
+				new RecursiveDefinitionDetector(),
+				untypedEntitiesDetector,
+				metadataDetector,
+				new LexicalPitfallsDetector(),
+				new StructuralPitfallsDetector());
+	}
+
+	/**
+	 * Sets the minimum similarity of the names of two elements to suggest them
+	 * as equivalent (pitfalls P12 and P30)
+	 *
+	 * @param classThreshold
+	 *            the Jaccard similarity for classes, greater than 0 and at
+	 *            most 1
+	 * @param propertyThreshold
+	 *            the Jaccard similarity for properties, greater than 0 and at
+	 *            most 1
+	 */
+	public void setSimilarityThresholds(double classThreshold, double propertyThreshold) {
+		equivalenceCandidatesDetector.setClassSimilarityThreshold(classThreshold);
+		equivalenceCandidatesDetector.setPropertySimilarityThreshold(propertyThreshold);
+	}
+
+	/**
+	 * @return the minimum similarity of the names of two classes to suggest
+	 *         them as equivalent
+	 */
+	public double getClassSimilarityThreshold() {
+		return equivalenceCandidatesDetector.getClassSimilarityThreshold();
+	}
+
+	/**
+	 * @return the minimum similarity of the names of two properties to suggest
+	 *         them as equivalent
+	 */
+	public double getPropertySimilarityThreshold() {
+		return equivalenceCandidatesDetector.getPropertySimilarityThreshold();
+	}
+
+	/**
+	 * Sets whether the entities declared in the imported ontologies count as
+	 * typed (pitfalls P34 and P35)
+	 *
+	 * @param includeImports
+	 *            true to also look for the declarations in the imports closure
+	 */
+	public void setTypedByImports(boolean includeImports) {
+		untypedEntitiesDetector.setIncludeImports(includeImports);
+	}
+
+	/**
+	 * @return true if the entities declared in the imported ontologies count
+	 *         as typed
+	 */
+	public boolean isTypedByImports() {
+		return untypedEntitiesDetector.isIncludeImports();
+	}
+
+	/**
+	 * Sets how the reasoner-assisted detectors run their queries with the
+	 * reasoner of the editor
+	 *
+	 * @param reasonerAccess
+	 *            the access to the reasoner of the editor, or null if there is
+	 *            never a reasoner
+	 */
+	public void setReasonerAccess(ReasonerAccess reasonerAccess) {
+		this.reasonerAccess = (reasonerAccess != null) ? reasonerAccess : queries -> false;
+	}
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public boolean isRemote() {
+		return false;
+	}
+
+	@Override
+	public EvaluationResult evaluate(OWLOntology ontology, List<String> pitfalls) throws Exception {
+		Instant startInstant = Instant.now();
+
+		if (OntologyMetadataDetector.coversAll(pitfalls)) {
+			return metadataDetector.detect(new OntologyMetadata(ontology), pitfalls); // no need to index the axioms
+		}
+
+		OntologyIndexes indexes = buildIndexes(ontology);
+
+		List<DetectorTask> detectorTasks = new ArrayList<DetectorTask>();
+
+		for (PitfallDetector detector : detectors) {
+			List<String> selectedPitfalls = detector.getPitfallIDs().stream()
+					.filter(p -> pitfalls.isEmpty() || pitfalls.contains(p))
+					.collect(Collectors.toList());
+
+			if (!selectedPitfalls.isEmpty()) {
+				detectorTasks.add(new DetectorTask(detector, indexes, selectedPitfalls));
+			}
+		}
+
+		Future<EvaluationResult> evaluation = detectorsPool.submit(() -> {
+			ForkJoinTask.invokeAll(detectorTasks);
+
+			return EvaluationResultMerger.union(
+					detectorTasks.stream().map(DetectorTask::join).collect(Collectors.toList()), null);
+		});
+
+		try {
+			EvaluationResult results = evaluation.get();
+
+			logger.debug(String.format("evaluate[LocalEvaluationBackend] ran %d local detectors in %d ms",
+					detectorTasks.size(), Duration.between(startInstant, Instant.now()).toMillis()));
+
+			return results;
+		} catch (InterruptedException e) {
+			detectorTasks.forEach(task -> task.cancel(true));
+			throw new CancellationException("The evaluation has been cancelled");
+		} catch (ExecutionException e) {
+			throw (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+		}
+	}
+
+	/**
+	 * Builds the indexes of the given ontology. The incremental indexes are
+	 * reused with the changes made since the last evaluation applied, or
+	 * rebuilt when a different ontology is evaluated.
+	 *
+	 * @param ontology
+	 *            the ontology to evaluate
+	 * @return the indexes for the detectors
+	 */
+	private synchronized OntologyIndexes buildIndexes(OWLOntology ontology) {
+		if (annotationIndex == null || annotationIndex.getOntology() != ontology) {
+			if (annotationIndex != null) {
+				annotationIndex.dispose();
+				propertyAxiomIndex.dispose();
+				changedEntitiesIndex.dispose();
+			}
+			annotationIndex = new AnnotationIndex(ontology);
+			propertyAxiomIndex = new PropertyAxiomIndex(ontology);
+			changedEntitiesIndex = new ChangedEntitiesIndex(ontology);
+		} else {
+			annotationIndex.applyPendingChanges();
+			propertyAxiomIndex.applyPendingChanges();
+			changedEntitiesIndex.applyPendingChanges();
+		}
+
+		return new OntologyIndexes(ontology, annotationIndex, propertyAxiomIndex, changedEntitiesIndex);
+	}
+
+	/**
+	 * Fork/join task that runs a single detector
+	 */
+	private static class DetectorTask extends RecursiveTask<EvaluationResult> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final PitfallDetector detector;
+
+		private final OntologyIndexes indexes;
+
+		private final List<String> pitfalls;
+
+		DetectorTask(PitfallDetector detector, OntologyIndexes indexes, List<String> pitfalls) {
+			this.detector = detector;
+			this.indexes = indexes;
+			this.pitfalls = pitfalls;
+		}
+
+		@Override
+		protected EvaluationResult compute() {
+			return detector.detect(indexes, pitfalls);
+		}
+	}
+}
@@ -0,0 +1,243 @@
+package oops.evaluation.local;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * MinHash signatures with locality-sensitive hashing over sets of int tokens. The signature rows are grouped in bands
+ * and only the sets that fall in the same bucket of some band are compared, so the pairs above a Jaccard similarity
+ * threshold are found without comparing every pair of sets. The number of bands is chosen from the threshold so that
+ * pairs just above it are missed with low probability, and every candidate is checked against the exact similarity.
+ * Only the hash of each band is kept, a few longs per set.
+ * <br><br>
+ * The sets of a bucket are compared in order of size, and each one only with the next ones whose size still allows
+ * the threshold. In the buckets of very common tokens, each set is compared with at most a fixed number of the next
+ * ones, which bounds the work of a bucket to linear in its size; the truncated comparisons are logged.
+ */
+class MinHashIndex {
+
+	private static final int NUM_HASHES = 60; // many divisors, so the bands fit most thresholds
+
+	private static final Logger logger = LoggerFactory.getLogger(MinHashIndex.class);
+
+	private static final int MAX_COMPARED_NEIGHBOURS = 1000; // per set in the buckets of too common tokens
+
+	private static final long HASH_SEED = 0x5DEECE66DL;
+
+	private static final int hashMultipliers[] = new int[NUM_HASHES];
+
+	private static final int hashOffsets[] = new int[NUM_HASHES];
+
+	static {
+		Random random = new Random(HASH_SEED);
+
+		for (int i = 0; i < NUM_HASHES; i++) {
+			hashMultipliers[i] = random.nextInt() | 1;
+			hashOffsets[i] = random.nextInt();
+		}
+	}
+
+	private final double threshold;
+
+	private final int rowsPerBand;
+
+	private final int numBands;
+
+	private final List<int[]> tokenSets = new ArrayList<int[]>();
+
+	private long bandKeys[];
+
+	/**
+	 * Creates an empty index
+	 *
+	 * @param threshold
+	 *            the minimum Jaccard similarity of the pairs to find
+	 */
+	MinHashIndex(double threshold) {
+		this.threshold = threshold;
+
+		// the bands are the most selective whose detection threshold (1/b)^(1/r) stays below the wanted one
+		int bestRows = 1;
+		for (int rows = 1; rows <= NUM_HASHES; rows++) {
+			if (NUM_HASHES % rows == 0 && Math.pow(1.0 / (NUM_HASHES / rows), 1.0 / rows) <= threshold) {
+				bestRows = rows;
+			}
+		}
+		this.rowsPerBand = bestRows;
+		this.numBands = NUM_HASHES / bestRows;
+		this.bandKeys = new long[numBands * 64];
+	}
+
+	/**
+	 * Adds a set of tokens to the index
+	 *
+	 * @param tokens
+	 *            the token hashes, sorted and without duplicates
+	 * @return the number of the set, from 0
+	 */
+	int add(int tokens[]) {
+		int id = tokenSets.size();
+		tokenSets.add(tokens);
+
+		int signature[] = new int[NUM_HASHES];
+		Arrays.fill(signature, Integer.MAX_VALUE);
+
+		for (int token : tokens) {
+			for (int i = 0; i < NUM_HASHES; i++) {
+				int hash = mix(token * hashMultipliers[i] + hashOffsets[i]);
+
+				if (hash < signature[i]) {
+					signature[i] = hash;
+				}
+			}
+		}
+
+		if ((id + 1) * numBands > bandKeys.length) {
+			bandKeys = Arrays.copyOf(bandKeys, bandKeys.length * 2);
+		}
+
+		for (int band = 0; band < numBands; band++) {
+			long key = 1;
+
+			for (int row = band * rowsPerBand; row < (band + 1) * rowsPerBand; row++) {
+				key = key * 0x9E3779B97F4A7C15L + signature[row];
+			}
+			bandKeys[id * numBands + band] = key;
+		}
+
+		return id;
+	}
+
+	/**
+	 * Finds the pairs of sets whose Jaccard similarity reaches the threshold
+	 *
+	 * @param firsts
+	 *            filled with the first set of each pair
+	 * @param seconds
+	 *            filled with the second set of each pair, greater than the
+	 *            first
+	 */
+	void findSimilarPairs(IntList firsts, IntList seconds) {
+		int numSets = tokenSets.size();
+		Set<Long> comparedPairs = new HashSet<Long>();
+		int truncatedSets = 0;
+
+		for (int band = 0; band < numBands; band++) {
+			Map<Long, IntList> buckets = new HashMap<Long, IntList>(numSets * 2);
+
+			for (int id = 0; id < numSets; id++) {
+				if (tokenSets.get(id).length > 0) {
+					buckets.computeIfAbsent(bandKeys[id * numBands + band], k -> new IntList(2)).add(id);
+				}
+			}
+
+			for (IntList bucket : buckets.values()) {
+				if (bucket.size() >= 2) {
+					truncatedSets += compareBucket(bucket, comparedPairs, firsts, seconds);
+				}
+			}
+		}
+
+		if (truncatedSets > 0) {
+			logger.warn(String.format("findSimilarPairs[MinHashIndex] the comparisons of %d sets in the buckets of "
+					+ "too common tokens were truncated to the %d next in size", truncatedSets,
+					MAX_COMPARED_NEIGHBOURS));
+		}
+	}
+
+	/**
+	 * Compares the sets of a bucket, sorted by size so the comparisons of each
+	 * set stop at the first one too large to reach the threshold
+	 *
+	 * @return the number of sets whose comparisons were truncated
+	 */
+	private int compareBucket(IntList bucket, Set<Long> comparedPairs, IntList firsts, IntList seconds) {
+		long sizesAndIds[] = new long[bucket.size()];
+		int truncatedSets = 0;
+
+		for (int i = 0; i < bucket.size(); i++) {
+			sizesAndIds[i] = ((long) tokenSets.get(bucket.get(i)).length << 32) | bucket.get(i);
+		}
+		Arrays.sort(sizesAndIds);
+
+		for (int i = 0; i < sizesAndIds.length; i++) {
+			int id = (int) sizesAndIds[i];
+			int size = (int) (sizesAndIds[i] >>> 32);
+
+			for (int j = i + 1; j < sizesAndIds.length; j++) {
+				if (size < threshold * (int) (sizesAndIds[j] >>> 32)) {
+					break; // the similarity is at most the ratio of the sizes
+				}
+				if (j - i > MAX_COMPARED_NEIGHBOURS) {
+					truncatedSets++;
+					break;
+				}
+
+				int first = Math.min(id, (int) sizesAndIds[j]);
+				int second = Math.max(id, (int) sizesAndIds[j]);
+
+				if (comparedPairs.add(((long) first << 32) | second)
+						&& jaccard(tokenSets.get(first), tokenSets.get(second)) >= threshold) {
+					firsts.add(first);
+					seconds.add(second);
+				}
+			}
+		}
+
+		return truncatedSets;
+	}
+
+	private static int mix(int hash) {
+		hash ^= hash >>> 16;
+		hash *= 0x85EBCA6B;
+		hash ^= hash >>> 13;
+		hash *= 0xC2B2AE35;
+		hash ^= hash >>> 16;
+
+		return hash;
+	}
+
+	/**
+	 * Computes the Jaccard similarity of two sorted sets of tokens
+	 *
+	 * @param first
+	 *            a sorted set of tokens
+	 * @param second
+	 *            another sorted set of tokens
+	 * @return the size of their intersection divided by the size of their
+	 *         union
+	 */
+	static double jaccard(int first[], int second[]) {
+		int intersection = 0;
+		int i = 0;
+		int j = 0;
+
+		while (i < first.length && j < second.length) {
+			if (first[i] == second[j]) {
+				intersection++;
+				i++;
+				j++;
+			} else if (first[i] < second[j]) {
+				i++;
+			} else {
+				j++;
+			}
+		}
+
+		int union = first.length + second.length - intersection;
+
+		return union == 0 ? 0 : (double) intersection / union;
+	}
+}
@@ -0,0 +1,39 @@
+package oops.evaluation.local;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.semanticweb.owlapi.model.AxiomType;
+
+import oops.model.EvaluationResult;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Local detector of the pitfall P10 (missing disjointness), reported when an ontology with several classes does not
+ * declare any of them as disjoint.
+ */
+public class MissingDisjointnessDetector implements PitfallDetector {
+
+	private static final String PITFALL_MISSING_DISJOINTNESS_ID = "P10";
+
+	@Override
+	public List<String> getPitfallIDs() {
+		return Collections.singletonList(PITFALL_MISSING_DISJOINTNESS_ID);
+	}
+
+	@Override
+	public EvaluationResult detect(OntologyIndexes indexes, List<String> pitfalls) {
+		PitfallReport report = new PitfallReport();
+
+		boolean hasDisjointness = !indexes.getAxioms(AxiomType.DISJOINT_CLASSES).isEmpty()
+				|| !indexes.getAxioms(AxiomType.DISJOINT_UNION).isEmpty();
+
+		if (!hasDisjointness && indexes.getClasses().size() > 1) {
+			report.addGeneralPitfall(PITFALL_MISSING_DISJOINTNESS_ID);
+		}
+
+		return report.getResult();
+	}
+}
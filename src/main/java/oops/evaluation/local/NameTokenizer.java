@@ -0,0 +1,42 @@
+package oops.evaluation.local;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Splits the names and labels of the ontology elements in lower case words, at any separator (spaces, underscores,
+ * hyphens...) and at the case changes of camel case names, so "hasPart", "has_part" and "has part" all give the
+ * same words. Acronyms are kept whole, so "XMLFile" gives "xml" and "file".
+ */
+final class NameTokenizer {
+
+	private static final Pattern WORD_SEPARATORS = Pattern.compile(
+			"[^\\p{L}\\p{N}]+|(?<=\\p{Ll})(?=\\p{Lu})|(?<=\\p{Lu})(?=\\p{Lu}\\p{Ll})");
+
+	private NameTokenizer() {
+	}
+
+	/**
+	 * Splits a name in words
+	 *
+	 * @param name
+	 *            an element name or label
+	 * @return the lower case words of the name, in order
+	 */
+	static List<String> tokenize(String name) {
+		List<String> words = new ArrayList<String>();
+
+		for (String word : WORD_SEPARATORS.split(name)) {
+			if (!word.isEmpty()) {
+				words.add(word.toLowerCase(Locale.ROOT));
+			}
+		}
+
+		return words;
+	}
+}
@@ -0,0 +1,301 @@
+package oops.evaluation.local;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataProperty;
+import org.semanticweb.owlapi.model.OWLDeclarationAxiom;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLEquivalentClassesAxiom;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Read-only indexes over an ontology shared by the local pitfall detectors. The axioms are never walked in full: each
+ * detector asks for the axiom types it needs, which are read from the type index of the OWL API model the first time
+ * and then kept for the rest of the evaluation. Those reads are serialized, as the model is not safe for concurrent
+ * reads. The annotations, the property domains and ranges and the changed entities are kept by incremental indexes
+ * that live across evaluations.
+ */
+public class OntologyIndexes {
+
+	private final OWLOntology ontology;
+
+	private final Set<OWLClass> classes;
+
+	private final Set<OWLObjectProperty> objectProperties;
+
+	private final Set<OWLDataProperty> dataProperties;
+
+	// the parts of the model read so far by the detectors
+	private final Map<AxiomType<?>, List<? extends OWLAxiom>> axiomsByType =
+			new HashMap<AxiomType<?>, List<? extends OWLAxiom>>();
+
+	private List<OWLAxiom> logicalAxioms;
+
+	private Set<OWLEntity> declaredEntities;
+
+	private Set<OWLEntity> importedDeclaredEntities;
+
+	private EntityNumbering entityNumbering;
+
+	private final AnnotationIndex annotationIndex;
+
+	private final PropertyAxiomIndex propertyAxiomIndex;
+
+	private final ChangedEntitiesIndex changedEntitiesIndex;
+
+	private final OntologyMetadata metadata;
+
+	private final Map<OWLClass, Set<OWLClass>> superClassesByClass = new HashMap<OWLClass, Set<OWLClass>>();
+
+	private final Map<OWLClass, Set<OWLClass>> equivalentClassesByClass = new HashMap<OWLClass, Set<OWLClass>>();
+
+	/**
+	 * Builds the indexes of the given ontology
+	 *
+	 * @param ontology
+	 *            the ontology to index
+	 * @param annotationIndex
+	 *            the up to date annotation index of the ontology, which is
+	 *            kept across evaluations
+	 * @param propertyAxiomIndex
+	 *            the up to date domain and range axioms of the ontology, which
+	 *            are kept across evaluations
+	 * @param changedEntitiesIndex
+	 *            the entities changed since each earlier evaluation
+	 */
+	public OntologyIndexes(OWLOntology ontology, AnnotationIndex annotationIndex,
+			PropertyAxiomIndex propertyAxiomIndex, ChangedEntitiesIndex changedEntitiesIndex) {
+		this.ontology = ontology;
+		this.annotationIndex = annotationIndex;
+		this.propertyAxiomIndex = propertyAxiomIndex;
+		this.changedEntitiesIndex = changedEntitiesIndex;
+		this.metadata = new OntologyMetadata(ontology);
+		this.classes = Collections.unmodifiableSet(ontology.getClassesInSignature());
+		this.objectProperties = Collections.unmodifiableSet(ontology.getObjectPropertiesInSignature());
+		this.dataProperties = Collections.unmodifiableSet(ontology.getDataPropertiesInSignature());
+
+		for (OWLSubClassOfAxiom subClassAxiom : getAxioms(AxiomType.SUBCLASS_OF)) {
+			if (!subClassAxiom.getSubClass().isAnonymous() && !subClassAxiom.getSuperClass().isAnonymous()) {
+				superClassesByClass.computeIfAbsent(subClassAxiom.getSubClass().asOWLClass(),
+						k -> new HashSet<OWLClass>()).add(subClassAxiom.getSuperClass().asOWLClass());
+			}
+		}
+
+		for (OWLEquivalentClassesAxiom equivalentAxiom : getAxioms(AxiomType.EQUIVALENT_CLASSES)) {
+			Set<OWLClass> namedClasses = equivalentAxiom.getNamedClasses();
+
+			for (OWLClass namedClass : namedClasses) {
+				for (OWLClass equivalentClass : namedClasses) {
+					if (!namedClass.equals(equivalentClass)) {
+						equivalentClassesByClass.computeIfAbsent(namedClass, k -> new HashSet<OWLClass>())
+								.add(equivalentClass);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the indexed ontology
+	 */
+	public OWLOntology getOntology() {
+		return ontology;
+	}
+
+	/**
+	 * @return the ontology-wide metadata
+	 */
+	public OntologyMetadata getMetadata() {
+		return metadata;
+	}
+
+	/**
+	 * @return the classes of the ontology
+	 */
+	public Set<OWLClass> getClasses() {
+		return classes;
+	}
+
+	/**
+	 * @return the object properties of the ontology
+	 */
+	public Set<OWLObjectProperty> getObjectProperties() {
+		return objectProperties;
+	}
+
+	/**
+	 * @return the data properties of the ontology
+	 */
+	public Set<OWLDataProperty> getDataProperties() {
+		return dataProperties;
+	}
+
+	/**
+	 * Returns the axioms of the given type
+	 *
+	 * @param axiomType
+	 *            the type of the axioms
+	 * @return the axioms of the given type
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized <T extends OWLAxiom> List<T> getAxioms(AxiomType<T> axiomType) {
+		return (List<T>) axiomsByType.computeIfAbsent(axiomType,
+				type -> Collections.unmodifiableList(new ArrayList<T>(ontology.getAxioms(axiomType))));
+	}
+
+	/**
+	 * @return the logical axioms of the ontology, of any type
+	 */
+	public synchronized List<OWLAxiom> getLogicalAxioms() {
+		if (logicalAxioms == null) {
+			logicalAxioms = Collections.unmodifiableList(new ArrayList<OWLAxiom>(ontology.getLogicalAxioms()));
+		}
+
+		return logicalAxioms;
+	}
+
+	/**
+	 * @return the entities declared in the ontology itself
+	 */
+	public synchronized Set<OWLEntity> getDeclaredEntities() {
+		if (declaredEntities == null) {
+			declaredEntities = Collections.unmodifiableSet(getDeclaredEntities(ontology));
+		}
+
+		return declaredEntities;
+	}
+
+	/**
+	 * Returns the entities declared in the imported ontologies. The imports
+	 * closure is only read the first time they are asked for.
+	 *
+	 * @return the entities declared in the ontologies imported, directly or
+	 *         not, by the ontology
+	 */
+	public synchronized Set<OWLEntity> getImportedDeclaredEntities() {
+		if (importedDeclaredEntities == null) {
+			Set<OWLEntity> entities = new HashSet<OWLEntity>();
+
+			for (OWLOntology importedOntology : ontology.getImportsClosure()) {
+				if (importedOntology != ontology) {
+					entities.addAll(getDeclaredEntities(importedOntology));
+				}
+			}
+			importedDeclaredEntities = Collections.unmodifiableSet(entities);
+		}
+
+		return importedDeclaredEntities;
+	}
+
+	/**
+	 * Returns the int ids of the entities, numbered the first time they are
+	 * asked for. Built-in entities such as owl:Thing are not numbered.
+	 *
+	 * @return the ids of the classes, properties and named individuals of the
+	 *         ontology
+	 */
+	public synchronized EntityNumbering getEntityNumbering() {
+		if (entityNumbering == null) {
+			List<OWLEntity> classesAndProperties = Stream.of(classes, objectProperties, dataProperties)
+					.flatMap(Set::stream)
+					.filter(entity -> !entity.isBuiltIn())
+					.collect(Collectors.toList());
+
+			entityNumbering = new EntityNumbering(classesAndProperties, ontology.getIndividualsInSignature());
+		}
+
+		return entityNumbering;
+	}
+
+	private static Set<OWLEntity> getDeclaredEntities(OWLOntology ontology) {
+		Set<OWLEntity> entities = new HashSet<OWLEntity>();
+
+		for (OWLDeclarationAxiom declarationAxiom : ontology.getAxioms(AxiomType.DECLARATION)) {
+			entities.add(declarationAxiom.getEntity());
+		}
+
+		return entities;
+	}
+
+	/**
+	 * @return the annotations and labels of the ontology
+	 */
+	public AnnotationIndex getAnnotationIndex() {
+		return annotationIndex;
+	}
+
+	/**
+	 * @return the domain and range axioms of each property
+	 */
+	public PropertyAxiomIndex getPropertyAxiomIndex() {
+		return propertyAxiomIndex;
+	}
+
+	/**
+	 * @return the entities changed since each earlier evaluation
+	 */
+	public ChangedEntitiesIndex getChangedEntitiesIndex() {
+		return changedEntitiesIndex;
+	}
+
+	/**
+	 * Returns the domains declared for the given property
+	 *
+	 * @param property
+	 *            an object or data property
+	 * @return the class expressions of its domain axioms
+	 */
+	public List<OWLObject> getDomains(OWLEntity property) {
+		return propertyAxiomIndex.getDomains(property);
+	}
+
+	/**
+	 * Returns the ranges declared for the given property
+	 *
+	 * @param property
+	 *            an object or data property
+	 * @return the class expressions or data ranges of its range axioms
+	 */
+	public List<OWLObject> getRanges(OWLEntity property) {
+		return propertyAxiomIndex.getRanges(property);
+	}
+
+	/**
+	 * Returns the named superclasses asserted for the given class
+	 *
+	 * @param owlClass
+	 *            the subclass
+	 * @return the direct named superclasses
+	 */
+	public Set<OWLClass> getSuperClasses(OWLClass owlClass) {
+		return superClassesByClass.getOrDefault(owlClass, Collections.emptySet());
+	}
+
+	/**
+	 * Returns the named classes asserted as equivalent to the given class
+	 *
+	 * @param owlClass
+	 *            the class
+	 * @return the named equivalent classes
+	 */
+	public Set<OWLClass> getEquivalentClasses(OWLClass owlClass) {
+		return equivalentClassesByClass.getOrDefault(owlClass, Collections.emptySet());
+	}
+}
@@ -0,0 +1,120 @@
+package oops.evaluation.local;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.semanticweb.owlapi.formats.PrefixDocumentFormat;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotation;
+import org.semanticweb.owlapi.model.OWLDocumentFormat;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.vocab.OWL2Datatype;
+import org.semanticweb.owlapi.vocab.OWLFacet;
+import org.semanticweb.owlapi.vocab.OWLRDFVocabulary;
+import org.semanticweb.owlapi.vocab.XSDVocabulary;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Snapshot of the ontology-wide metadata: its ID, the default namespace of its document, the properties of its
+ * annotations and the terms it uses from the reserved W3C namespaces that their vocabularies do not define. It is
+ * taken from the ontology header and signature without reading any axiom.
+ */
+public class OntologyMetadata {
+
+	private static final List<String> RESERVED_NAMESPACES = Arrays.asList(
+			"http://www.w3.org/2002/07/owl#",
+			"http://www.w3.org/1999/02/22-rdf-syntax-ns#",
+			"http://www.w3.org/2000/01/rdf-schema#",
+			"http://www.w3.org/2001/XMLSchema#");
+
+	// the terms defined by the OWL, RDF, RDFS and XSD vocabularies, including the datatypes and facets
+	private static final Set<String> RESERVED_VOCABULARY = Stream.of(
+			Stream.of(OWLRDFVocabulary.values()).map(OWLRDFVocabulary::getIRI),
+			Stream.of(XSDVocabulary.values()).map(XSDVocabulary::getIRI),
+			Stream.of(OWL2Datatype.values()).map(OWL2Datatype::getIRI),
+			Stream.of(OWLFacet.values()).map(OWLFacet::getIRI))
+			.flatMap(iris -> iris)
+			.map(IRI::toString)
+			.collect(Collectors.toSet());
+
+	// the container membership properties rdf:_1, rdf:_2...
+	private static final Pattern RDF_MEMBERSHIP_PROPERTY =
+			Pattern.compile("http://www\\.w3\\.org/1999/02/22-rdf-syntax-ns#_[1-9][0-9]*");
+
+	private final boolean hasOntologyIRI;
+
+	private final boolean hasDefaultNamespace;
+
+	private final Set<IRI> annotationProperties = new HashSet<IRI>();
+
+	private final List<String> reservedNamespaceTerms = new ArrayList<String>();
+
+	/**
+	 * Takes the metadata of the given ontology
+	 *
+	 * @param ontology
+	 *            the ontology
+	 */
+	public OntologyMetadata(OWLOntology ontology) {
+		this.hasOntologyIRI = !ontology.getOntologyID().isAnonymous();
+
+		OWLDocumentFormat format = ontology.getOWLOntologyManager().getOntologyFormat(ontology);
+		this.hasDefaultNamespace = format instanceof PrefixDocumentFormat
+				&& ((PrefixDocumentFormat) format).getDefaultPrefix() != null;
+
+		for (OWLAnnotation annotation : ontology.getAnnotations()) {
+			annotationProperties.add(annotation.getProperty().getIRI());
+		}
+
+		for (OWLEntity entity : ontology.getSignature(false)) {
+			if (!entity.isBuiltIn() && isUndefinedReservedTerm(entity.getIRI().toString())) {
+				reservedNamespaceTerms.add(entity.getIRI().toString());
+			}
+		}
+	}
+
+	private static boolean isUndefinedReservedTerm(String iri) {
+		return RESERVED_NAMESPACES.stream().anyMatch(iri::startsWith) && !RESERVED_VOCABULARY.contains(iri)
+				&& !RDF_MEMBERSHIP_PROPERTY.matcher(iri).matches();
+	}
+
+	/**
+	 * @return true if the ontology has an ontology IRI
+	 */
+	public boolean hasOntologyIRI() {
+		return hasOntologyIRI;
+	}
+
+	/**
+	 * @return true if the document of the ontology declares a default
+	 *         namespace
+	 */
+	public boolean hasDefaultNamespace() {
+		return hasDefaultNamespace;
+	}
+
+	/**
+	 * @return the IRIs of the properties of the ontology annotations
+	 */
+	public Set<IRI> getAnnotationProperties() {
+		return Collections.unmodifiableSet(annotationProperties);
+	}
+
+	/**
+	 * @return the terms used from the OWL, RDF, RDFS and XSD namespaces that
+	 *         those vocabularies do not define
+	 */
+	public List<String> getReservedNamespaceTerms() {
+		return Collections.unmodifiableList(reservedNamespaceTerms);
+	}
+}
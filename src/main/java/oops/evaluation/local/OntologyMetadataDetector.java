@@ -0,0 +1,96 @@
+package oops.evaluation.local;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.semanticweb.owlapi.model.IRI;
+
+import oops.model.EvaluationResult;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Local detector of the pitfalls answered from the ontology metadata: P38 (no OWL ontology declaration), P39
+ * (ambiguous namespace), P40 (namespace hijacking) and P41 (no license declared). P38, P39 and P41 affect the
+ * ontology as a whole and are attached to its root element, while P40 marks the hijacked terms.
+ */
+public class OntologyMetadataDetector implements PitfallDetector {
+
+	private static final String PITFALL_NO_ONTOLOGY_DECLARATION_ID = "P38";
+
+	private static final String PITFALL_AMBIGUOUS_NAMESPACE_ID = "P39";
+
+	private static final String PITFALL_NAMESPACE_HIJACKING_ID = "P40";
+
+	private static final String PITFALL_NO_LICENSE_ID = "P41";
+
+	private static final List<String> PITFALL_IDS = Collections.unmodifiableList(Arrays.asList(
+			PITFALL_NO_ONTOLOGY_DECLARATION_ID, PITFALL_AMBIGUOUS_NAMESPACE_ID, PITFALL_NAMESPACE_HIJACKING_ID,
+			PITFALL_NO_LICENSE_ID));
+
+	private static final List<IRI> LICENSE_PROPERTIES = Arrays.asList(
+			IRI.create("http://purl.org/dc/terms/license"),
+			IRI.create("http://purl.org/dc/terms/rights"),
+			IRI.create("http://purl.org/dc/elements/1.1/rights"),
+			IRI.create("http://creativecommons.org/ns#license"),
+			IRI.create("http://www.w3.org/1999/xhtml/vocab#license"),
+			IRI.create("http://schema.org/license"));
+
+	/**
+	 * Returns true if the given pitfalls subset only selects pitfalls this
+	 * detector checks, so the evaluation needs nothing but the ontology
+	 * metadata
+	 *
+	 * @param pitfallsSubset
+	 *            the selected pitfalls, empty for all of them
+	 * @return true if all the selected pitfalls are metadata pitfalls
+	 */
+	public static boolean coversAll(List<String> pitfallsSubset) {
+		return !pitfallsSubset.isEmpty() && PITFALL_IDS.containsAll(pitfallsSubset);
+	}
+
+	@Override
+	public List<String> getPitfallIDs() {
+		return PITFALL_IDS;
+	}
+
+	@Override
+	public EvaluationResult detect(OntologyIndexes indexes, List<String> pitfalls) {
+		return detect(indexes.getMetadata(), pitfalls);
+	}
+
+	/**
+	 * Checks the selected pitfalls against the metadata of an ontology
+	 *
+	 * @param metadata
+	 *            the ontology metadata
+	 * @param pitfalls
+	 *            the pitfalls to check
+	 * @return the detected pitfalls
+	 */
+	public EvaluationResult detect(OntologyMetadata metadata, List<String> pitfalls) {
+		PitfallReport report = new PitfallReport();
+
+		if (pitfalls.contains(PITFALL_NO_ONTOLOGY_DECLARATION_ID) && !metadata.hasOntologyIRI()) {
+			report.addGeneralPitfall(PITFALL_NO_ONTOLOGY_DECLARATION_ID);
+		}
+
+		if (pitfalls.contains(PITFALL_AMBIGUOUS_NAMESPACE_ID) && !metadata.hasOntologyIRI()
+				&& !metadata.hasDefaultNamespace()) {
+			report.addGeneralPitfall(PITFALL_AMBIGUOUS_NAMESPACE_ID);
+		}
+
+		if (pitfalls.contains(PITFALL_NAMESPACE_HIJACKING_ID)) {
+			report.addPitfall(PITFALL_NAMESPACE_HIJACKING_ID, metadata.getReservedNamespaceTerms());
+		}
+
+		if (pitfalls.contains(PITFALL_NO_LICENSE_ID)
+				&& LICENSE_PROPERTIES.stream().noneMatch(metadata.getAnnotationProperties()::contains)) {
+			report.addGeneralPitfall(PITFALL_NO_LICENSE_ID);
+		}
+
+		return report.getResult();
+	}
+}
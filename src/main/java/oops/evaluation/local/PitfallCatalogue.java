@@ -0,0 +1,137 @@
+package oops.evaluation.local;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import oops.model.Pitfall;
+import oops.model.PitfallImportanceLevel;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * The catalogue of pitfalls detected by the OOPS! web service, with the names, descriptions and importance levels
+ * the local detectors give to the pitfalls they report.
+ */
+public class PitfallCatalogue {
+
+	private static final Object catalogue[][] = {
+			{"P02", PitfallImportanceLevel.MINOR, "Creating synonyms as classes",
+				"Several classes whose identifiers are synonyms are created and defined as equivalent."},
+			{"P03", PitfallImportanceLevel.CRITICAL, "Creating the relationship \"is\" instead of using "
+					+ "\"rdfs:subClassOf\", \"rdf:type\" or \"owl:sameAs\"",
+				"The \"is\" relationship is created in the ontology instead of using OWL primitives for representing "
+					+ "the subclass relationship, the membership to a class, or the equality between instances."},
+			{"P04", PitfallImportanceLevel.MINOR, "Creating unconnected ontology elements",
+				"Ontology elements (classes, object properties and datatype properties) are created isolated, with no "
+					+ "relation to the rest of the ontology."},
+			{"P05", PitfallImportanceLevel.CRITICAL, "Defining wrong inverse relationships",
+				"Two relationships are defined as inverse relations when they are not necessarily inverse."},
+			{"P06", PitfallImportanceLevel.CRITICAL, "Including cycles in a class hierarchy",
+				"A cycle between two classes in the hierarchy is included in the ontology."},
+			{"P07", PitfallImportanceLevel.MINOR, "Merging different concepts in the same class",
+				"A class whose name refers to two or more different concepts is created."},
+			{"P08", PitfallImportanceLevel.MINOR, "Missing annotations",
+				"Ontology terms lack annotations properties that would improve the ontology understanding and "
+					+ "usability from a user point of view."},
+			{"P10", PitfallImportanceLevel.IMPORTANT, "Missing disjointness",
+				"The ontology lacks disjoint axioms between classes or between properties that should be defined as "
+					+ "disjoint."},
+			{"P11", PitfallImportanceLevel.IMPORTANT, "Missing domain or range in properties",
+				"Object and/or datatype properties without domain or range (or none of them) are included in the "
+					+ "ontology."},
+			{"P12", PitfallImportanceLevel.IMPORTANT, "Equivalent properties not explicitly declared",
+				"The ontology lacks information about equivalent properties in the cases of duplicated relationships "
+					+ "and/or attributes."},
+			{"P13", PitfallImportanceLevel.MINOR, "Inverse relationships not explicitly declared",
+				"Any relationship (except for those that are defined as symmetric properties) does not have an "
+					+ "inverse relationship defined within the ontology."},
+			{"P19", PitfallImportanceLevel.CRITICAL, "Defining multiple domains or ranges in properties",
+				"The domain or range (or both) of a property is defined by stating more than one rdfs:domain or "
+					+ "rdfs:range statements, which are interpreted as a conjunction."},
+			{"P20", PitfallImportanceLevel.MINOR, "Misusing ontology annotations",
+				"The contents of some annotation properties are swapped or misused."},
+			{"P21", PitfallImportanceLevel.MINOR, "Using a miscellaneous class",
+				"A class is created to classify the instances that do not belong to any of its sibling classes."},
+			{"P22", PitfallImportanceLevel.MINOR, "Using different naming conventions in the ontology",
+				"The ontology elements are not named following the same convention."},
+			{"P24", PitfallImportanceLevel.IMPORTANT, "Using recursive definitions",
+				"An ontology element is used in its own definition."},
+			{"P25", PitfallImportanceLevel.IMPORTANT, "Defining a relationship as inverse to itself",
+				"A relationship is defined as inverse of itself, when it should have been defined as symmetric."},
+			{"P26", PitfallImportanceLevel.IMPORTANT, "Defining inverse relationships for a symmetric one",
+				"A relationship is defined as symmetric and an inverse relationship is defined for it."},
+			{"P27", PitfallImportanceLevel.CRITICAL, "Defining wrong equivalent properties",
+				"Two properties are defined as equivalent when their semantics is different."},
+			{"P28", PitfallImportanceLevel.CRITICAL, "Defining wrong symmetric relationships",
+				"A relationship is defined as symmetric when it is not necessarily symmetric."},
+			{"P29", PitfallImportanceLevel.CRITICAL, "Defining wrong transitive relationships",
+				"A relationship is defined as transitive when it is not necessarily transitive."},
+			{"P30", PitfallImportanceLevel.IMPORTANT, "Equivalent classes not explicitly declared",
+				"The ontology lacks the statement that two classes with the same meaning are equivalent."},
+			{"P31", PitfallImportanceLevel.CRITICAL, "Defining wrong equivalent classes",
+				"Two classes are defined as equivalent when their meaning is different."},
+			{"P32", PitfallImportanceLevel.MINOR, "Several classes with the same label",
+				"Two or more classes have the same content for natural language annotations for naming them."},
+			{"P33", PitfallImportanceLevel.MINOR, "Creating a property chain with just one property",
+				"A property chain that includes only one property in the antecedent part is created."},
+			{"P34", PitfallImportanceLevel.IMPORTANT, "Untyped class",
+				"An ontology element is used as a class without having been explicitly declared as such."},
+			{"P35", PitfallImportanceLevel.IMPORTANT, "Untyped property",
+				"An ontology element is used as a property without having been explicitly declared as such."},
+			{"P38", PitfallImportanceLevel.IMPORTANT, "No OWL ontology declaration",
+				"The ontology lacks the owl:Ontology tag, which would provide its metadata."},
+			{"P39", PitfallImportanceLevel.CRITICAL, "Ambiguous namespace",
+				"The ontology lacks both its URI and the xml:base namespace."},
+			{"P40", PitfallImportanceLevel.CRITICAL, "Namespace hijacking",
+				"Terms are reused from another namespace where they are not defined."},
+			{"P41", PitfallImportanceLevel.IMPORTANT, "No license declared",
+				"The ontology metadata omits the license that applies to the ontology."}
+	};
+
+	private static final Map<String, Object[]> entriesByID = new HashMap<String, Object[]>();
+
+	private static final List<String> pitfallIDs = new ArrayList<String>();
+
+	static {
+		for (Object entry[] : catalogue) {
+			entriesByID.put((String) entry[0], entry);
+			pitfallIDs.add((String) entry[0]);
+		}
+	}
+
+	private PitfallCatalogue() {}
+
+	/**
+	 * @return the codes of the pitfalls of the catalogue, in order
+	 */
+	public static List<String> getPitfallIDs() {
+		return Collections.unmodifiableList(pitfallIDs);
+	}
+
+	/**
+	 * Creates a pitfall of the catalogue
+	 *
+	 * @param pitfallID
+	 *            the pitfall code
+	 * @param numAffectedElements
+	 *            the number of elements affected by the pitfall
+	 * @return the pitfall with the catalogue's name, description and
+	 *         importance level
+	 * @throws IllegalArgumentException
+	 *             if the pitfall is not in the catalogue
+	 */
+	public static Pitfall createPitfall(String pitfallID, int numAffectedElements) {
+		Object entry[] = entriesByID.get(pitfallID);
+
+		if (entry == null) {
+			throw new IllegalArgumentException("Unknown pitfall " + pitfallID);
+		}
+
+		return new Pitfall((PitfallImportanceLevel) entry[1], pitfallID, (String) entry[2], (String) entry[3],
+				numAffectedElements);
+	}
+}
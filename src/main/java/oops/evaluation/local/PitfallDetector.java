@@ -0,0 +1,32 @@
+package oops.evaluation.local;
+
+import java.util.List;
+
+import oops.model.EvaluationResult;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * A local check of one or more related pitfalls that runs on the shared indexes of the ontology. The detectors are
+ * run concurrently, so they must not modify the indexes.
+ */
+public interface PitfallDetector {
+
+	/**
+	 * @return the codes of the pitfalls this detector can find
+	 */
+	public List<String> getPitfallIDs();
+
+	/**
+	 * Looks for the given pitfalls in the ontology
+	 *
+	 * @param indexes
+	 *            the indexes of the ontology to evaluate
+	 * @param pitfalls
+	 *            the pitfalls to look for, all of them among the detector's
+	 *            pitfalls
+	 * @return the detected pitfalls and their related information
+	 */
+	public EvaluationResult detect(OntologyIndexes indexes, List<String> pitfalls);
+}
@@ -0,0 +1,107 @@
+package oops.evaluation.local;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import oops.evaluation.OOPSEvaluator;
+import oops.model.ElementPair;
+import oops.model.EvaluationResult;
+import oops.model.Pitfall;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Collects the pitfalls found by a local detector into an EvaluationResult, in the same shape as the results parsed
+ * from the OOPS! web service responses.
+ */
+public class PitfallReport {
+
+	private final EvaluationResult.Builder builder = new EvaluationResult.Builder();
+
+	/**
+	 * Reports a pitfall affecting the given elements. Nothing is reported if
+	 * there are no affected elements.
+	 *
+	 * @param pitfallID
+	 *            the pitfall code
+	 * @param affectedElements
+	 *            the IRIs of the affected elements
+	 */
+	public void addPitfall(String pitfallID, Collection<String> affectedElements) {
+		Set<String> distinctElements = new LinkedHashSet<String>(affectedElements);
+
+		if (distinctElements.isEmpty()) {
+			return;
+		}
+
+		Pitfall pitfall = PitfallCatalogue.createPitfall(pitfallID, distinctElements.size());
+
+		for (String element : distinctElements) {
+			builder.addPitfall(element, pitfall);
+		}
+	}
+
+	/**
+	 * Reports a pitfall affecting the pairs of elements, marking both
+	 * elements of each pair with the pitfall. The returned pairs hold the IRI
+	 * strings kept for the detected pitfalls, so each IRI is stored once.
+	 *
+	 * @param pitfallID
+	 *            the pitfall code
+	 * @param pairs
+	 *            the pairs of affected elements
+	 * @return the pairs, to be set in the matching list of the results, or
+	 *         null if there are none
+	 */
+	public List<ElementPair> addPairedPitfall(String pitfallID, Collection<ElementPair> pairs) {
+		if (pairs.isEmpty()) {
+			return null;
+		}
+
+		List<String> affectedElements = new ArrayList<String>();
+		for (ElementPair pair : pairs) {
+			affectedElements.add(pair.getElementA());
+			affectedElements.add(pair.getElementB());
+		}
+
+		addPitfall(pitfallID, affectedElements);
+
+		List<ElementPair> canonicalPairs = new ArrayList<ElementPair>(pairs.size());
+		for (ElementPair pair : pairs) {
+			canonicalPairs.add(new ElementPair(builder.getCanonicalIRI(pair.getElementA()),
+					builder.getCanonicalIRI(pair.getElementB())));
+		}
+
+		return canonicalPairs;
+	}
+
+	/**
+	 * Reports a pitfall that affects the ontology as a whole, attaching it to
+	 * the root element of the ontology
+	 *
+	 * @param pitfallID
+	 *            the pitfall code
+	 */
+	public void addGeneralPitfall(String pitfallID) {
+		builder.addPitfall(OOPSEvaluator.OWL_THING_IRI, PitfallCatalogue.createPitfall(pitfallID, 1));
+	}
+
+	/**
+	 * @return the builder of the results, where the detectors also set the
+	 *         lists of related elements
+	 */
+	public EvaluationResult.Builder getBuilder() {
+		return builder;
+	}
+
+	/**
+	 * @return a snapshot of the results collected so far
+	 */
+	public EvaluationResult getResult() {
+		return builder.build();
+	}
+}
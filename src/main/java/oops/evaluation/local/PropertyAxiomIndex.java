@@ -0,0 +1,184 @@
+package oops.evaluation.local;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLDataPropertyDomainAxiom;
+import org.semanticweb.owlapi.model.OWLDataPropertyRangeAxiom;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLObjectPropertyDomainAxiom;
+import org.semanticweb.owlapi.model.OWLObjectPropertyRangeAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Index of the domain and range axioms of each named object and data property, kept across evaluations. The axioms
+ * are kept in a set per property, so adding or removing one is idempotent, and the properties with more than one
+ * domain or range are kept up to date as the axioms change, so they can be listed without looking at every property.
+ */
+public class PropertyAxiomIndex extends IncrementalIndex {
+
+	private final Map<OWLEntity, Set<OWLAxiom>> domainAxioms = new HashMap<OWLEntity, Set<OWLAxiom>>();
+
+	private final Map<OWLEntity, Set<OWLAxiom>> rangeAxioms = new HashMap<OWLEntity, Set<OWLAxiom>>();
+
+	private final Set<OWLEntity> propertiesWithMultipleDomainsOrRanges = new HashSet<OWLEntity>();
+
+	/**
+	 * Builds the index of the given ontology and starts listening to its
+	 * changes
+	 *
+	 * @param ontology
+	 *            the ontology to index
+	 */
+	public PropertyAxiomIndex(OWLOntology ontology) {
+		super(ontology);
+
+		ontology.getAxioms(AxiomType.OBJECT_PROPERTY_DOMAIN).forEach(this::addAxiom);
+		ontology.getAxioms(AxiomType.OBJECT_PROPERTY_RANGE).forEach(this::addAxiom);
+		ontology.getAxioms(AxiomType.DATA_PROPERTY_DOMAIN).forEach(this::addAxiom);
+		ontology.getAxioms(AxiomType.DATA_PROPERTY_RANGE).forEach(this::addAxiom);
+	}
+
+	@Override
+	protected boolean isIndexed(OWLAxiom axiom) {
+		return axiom instanceof OWLObjectPropertyDomainAxiom || axiom instanceof OWLObjectPropertyRangeAxiom
+				|| axiom instanceof OWLDataPropertyDomainAxiom || axiom instanceof OWLDataPropertyRangeAxiom;
+	}
+
+	@Override
+	protected void addAxiom(OWLAxiom axiom) {
+		OWLEntity property = getProperty(axiom);
+
+		if (property != null) {
+			getAxiomsIndex(axiom).computeIfAbsent(property, k -> new HashSet<OWLAxiom>(2)).add(axiom);
+			updateMultipleDomainsOrRanges(property);
+		}
+	}
+
+	@Override
+	protected void removeAxiom(OWLAxiom axiom) {
+		OWLEntity property = getProperty(axiom);
+
+		if (property != null) {
+			Map<OWLEntity, Set<OWLAxiom>> axiomsIndex = getAxiomsIndex(axiom);
+			Set<OWLAxiom> propertyAxioms = axiomsIndex.get(property);
+
+			if (propertyAxioms != null && propertyAxioms.remove(axiom) && propertyAxioms.isEmpty()) {
+				axiomsIndex.remove(property);
+			}
+			updateMultipleDomainsOrRanges(property);
+		}
+	}
+
+	private Map<OWLEntity, Set<OWLAxiom>> getAxiomsIndex(OWLAxiom axiom) {
+		return (axiom instanceof OWLObjectPropertyDomainAxiom || axiom instanceof OWLDataPropertyDomainAxiom)
+				? domainAxioms : rangeAxioms;
+	}
+
+	private void updateMultipleDomainsOrRanges(OWLEntity property) {
+		if (getDomainCount(property) > 1 || getRangeCount(property) > 1) {
+			propertiesWithMultipleDomainsOrRanges.add(property);
+		} else {
+			propertiesWithMultipleDomainsOrRanges.remove(property);
+		}
+	}
+
+	/**
+	 * Returns the named property of a domain or range axiom
+	 *
+	 * @return the property, or null if it is an anonymous inverse property
+	 */
+	private static OWLEntity getProperty(OWLAxiom axiom) {
+		if (axiom instanceof OWLObjectPropertyDomainAxiom) {
+			OWLObjectPropertyDomainAxiom domainAxiom = (OWLObjectPropertyDomainAxiom) axiom;
+
+			return domainAxiom.getProperty().isAnonymous() ? null : domainAxiom.getProperty().asOWLObjectProperty();
+		} else if (axiom instanceof OWLObjectPropertyRangeAxiom) {
+			OWLObjectPropertyRangeAxiom rangeAxiom = (OWLObjectPropertyRangeAxiom) axiom;
+
+			return rangeAxiom.getProperty().isAnonymous() ? null : rangeAxiom.getProperty().asOWLObjectProperty();
+		} else if (axiom instanceof OWLDataPropertyDomainAxiom) {
+			return ((OWLDataPropertyDomainAxiom) axiom).getProperty().asOWLDataProperty();
+		} else {
+			return ((OWLDataPropertyRangeAxiom) axiom).getProperty().asOWLDataProperty();
+		}
+	}
+
+	/**
+	 * Returns the number of domain axioms of the given property
+	 *
+	 * @param property
+	 *            an object or data property
+	 * @return the number of its domain axioms
+	 */
+	public int getDomainCount(OWLEntity property) {
+		return domainAxioms.getOrDefault(property, Collections.emptySet()).size();
+	}
+
+	/**
+	 * Returns the number of range axioms of the given property
+	 *
+	 * @param property
+	 *            an object or data property
+	 * @return the number of its range axioms
+	 */
+	public int getRangeCount(OWLEntity property) {
+		return rangeAxioms.getOrDefault(property, Collections.emptySet()).size();
+	}
+
+	/**
+	 * Returns the domains declared for the given property
+	 *
+	 * @param property
+	 *            an object or data property
+	 * @return the class expressions of its domain axioms
+	 */
+	public List<OWLObject> getDomains(OWLEntity property) {
+		List<OWLObject> domains = new ArrayList<OWLObject>();
+
+		for (OWLAxiom axiom : domainAxioms.getOrDefault(property, Collections.emptySet())) {
+			domains.add(axiom instanceof OWLObjectPropertyDomainAxiom
+					? ((OWLObjectPropertyDomainAxiom) axiom).getDomain()
+					: ((OWLDataPropertyDomainAxiom) axiom).getDomain());
+		}
+
+		return domains;
+	}
+
+	/**
+	 * Returns the ranges declared for the given property
+	 *
+	 * @param property
+	 *            an object or data property
+	 * @return the class expressions or data ranges of its range axioms
+	 */
+	public List<OWLObject> getRanges(OWLEntity property) {
+		List<OWLObject> ranges = new ArrayList<OWLObject>();
+
+		for (OWLAxiom axiom : rangeAxioms.getOrDefault(property, Collections.emptySet())) {
+			ranges.add(axiom instanceof OWLObjectPropertyRangeAxiom
+					? ((OWLObjectPropertyRangeAxiom) axiom).getRange()
+					: ((OWLDataPropertyRangeAxiom) axiom).getRange());
+		}
+
+		return ranges;
+	}
+
+	/**
+	 * @return the properties with more than one domain or range axiom
+	 */
+	public Set<OWLEntity> getPropertiesWithMultipleDomainsOrRanges() {
+		return Collections.unmodifiableSet(propertiesWithMultipleDomainsOrRanges);
+	}
+}
@@ -0,0 +1,27 @@
+package oops.evaluation.local;
+
+import java.util.function.Consumer;
+
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Access to the reasoner of the editor for the reasoner-assisted detectors. The reasoner is not thread safe and is
+ * owned by the editor, so the detectors never keep it: they hand their queries over to be run where and when the
+ * editor allows it.
+ */
+public interface ReasonerAccess {
+
+	/**
+	 * Runs the given queries with the reasoner of the editor, if it is ready
+	 * and in sync with the ontology
+	 *
+	 * @param queries
+	 *            the queries to run with the reasoner
+	 * @return true if the queries were run, false if there was no ready
+	 *         reasoner
+	 */
+	public boolean runQueries(Consumer<OWLReasoner> queries);
+}
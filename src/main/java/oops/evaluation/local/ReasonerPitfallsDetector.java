@@ -0,0 +1,310 @@
+package oops.evaluation.local;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLEquivalentClassesAxiom;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
+import org.semanticweb.owlapi.model.OWLSymmetricObjectPropertyAxiom;
+import org.semanticweb.owlapi.model.OWLTransitiveObjectPropertyAxiom;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import oops.model.EvaluationResult;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Local detector of the pitfalls that need reasoning: P27 (wrong equivalent properties), P28 (wrong symmetric
+ * relationships), P29 (wrong transitive relationships) and P31 (wrong equivalent classes). It asks the reasoner
+ * already running in the editor instead of classifying the ontology again, and does nothing when there is none or
+ * it is out of sync with the ontology.
+ * <br><br>
+ * The queries of an evaluation are deduplicated and handed over together to the {@link ReasonerAccess}, which runs
+ * them where the editor allows it. The verdict of every checked axiom is kept for the next evaluations, but as
+ * reasoning is not local, any change can affect any verdict: they are all dropped when the ontology changes or the
+ * reasoner is replaced.
+ */
+public class ReasonerPitfallsDetector implements PitfallDetector {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReasonerPitfallsDetector.class);
+
+	private static final String PITFALL_WRONG_EQUIVALENT_PROPERTIES_ID = "P27";
+
+	private static final String PITFALL_WRONG_SYMMETRIC_ID = "P28";
+
+	private static final String PITFALL_WRONG_TRANSITIVE_ID = "P29";
+
+	private static final String PITFALL_WRONG_EQUIVALENT_CLASSES_ID = "P31";
+
+	private final ReasonerAccess reasonerAccess;
+
+	// the verdicts of the previous evaluations and the state they were computed from
+	private final Map<OWLAxiom, Boolean> verdicts = new HashMap<OWLAxiom, Boolean>();
+
+	private OWLReasoner checkedReasoner;
+
+	private ChangedEntitiesIndex checkedChanges;
+
+	private long checkedGeneration;
+
+	/**
+	 * An axiom that might cause a pitfall, with the test of the reasoner
+	 * answers that confirms it
+	 */
+	private static class Candidate {
+		private final String pitfallID;
+		private final OWLAxiom axiom;
+		private final Collection<? extends OWLEntity> affectedElements;
+		private final Predicate<ReasonerQueries> isPitfall;
+
+		private Candidate(String pitfallID, OWLAxiom axiom, Collection<? extends OWLEntity> affectedElements,
+				Predicate<ReasonerQueries> isPitfall) {
+			this.pitfallID = pitfallID;
+			this.axiom = axiom;
+			this.affectedElements = affectedElements;
+			this.isPitfall = isPitfall;
+		}
+	}
+
+	/**
+	 * The reasoner queries of an evaluation, each one answered once
+	 */
+	private static class ReasonerQueries {
+		private final OWLReasoner reasoner;
+		private final OWLDataFactory dataFactory;
+		private final Map<OWLClassExpression, Boolean> satisfiable = new HashMap<OWLClassExpression, Boolean>();
+		private final Map<OWLClassExpression, Set<OWLClass>> equivalentClasses =
+				new HashMap<OWLClassExpression, Set<OWLClass>>();
+
+		private ReasonerQueries(OWLReasoner reasoner, OWLDataFactory dataFactory) {
+			this.reasoner = reasoner;
+			this.dataFactory = dataFactory;
+		}
+
+		private boolean isUnsatisfiable(OWLClassExpression classExpression) {
+			return !satisfiable.computeIfAbsent(classExpression, reasoner::isSatisfiable);
+		}
+
+		private boolean areDisjoint(OWLClassExpression first, OWLClassExpression second) {
+			return !isUnsatisfiable(first) && !isUnsatisfiable(second)
+					&& isUnsatisfiable(dataFactory.getOWLObjectIntersectionOf(first, second));
+		}
+
+		private boolean areEquivalent(OWLClassExpression first, OWLClassExpression second) {
+			return first.equals(second) || !second.isAnonymous() && equivalentClasses
+					.computeIfAbsent(first, k -> reasoner.getEquivalentClasses(k).getEntities())
+					.contains(second.asOWLClass());
+		}
+	}
+
+	/**
+	 * Creates the detector
+	 *
+	 * @param reasonerAccess
+	 *            runs the queries with the reasoner of the editor
+	 */
+	public ReasonerPitfallsDetector(ReasonerAccess reasonerAccess) {
+		this.reasonerAccess = reasonerAccess;
+	}
+
+	@Override
+	public List<String> getPitfallIDs() {
+		return Arrays.asList(PITFALL_WRONG_EQUIVALENT_PROPERTIES_ID, PITFALL_WRONG_SYMMETRIC_ID,
+				PITFALL_WRONG_TRANSITIVE_ID, PITFALL_WRONG_EQUIVALENT_CLASSES_ID);
+	}
+
+	@Override
+	public synchronized EvaluationResult detect(OntologyIndexes indexes, List<String> pitfalls) {
+		PitfallReport report = new PitfallReport();
+		List<Candidate> candidates = getCandidates(indexes, pitfalls);
+
+		ChangedEntitiesIndex changes = indexes.getChangedEntitiesIndex();
+		long generation = changes.getGeneration();
+		if (changes != checkedChanges || generation != checkedGeneration) {
+			verdicts.clear();
+			checkedChanges = changes;
+			checkedGeneration = generation;
+		}
+
+		boolean[] ontologyReasoner = new boolean[1];
+		int[] checkedCandidates = new int[1];
+
+		// the whole check runs inside the access, so the reasoner cannot be replaced halfway
+		boolean queried = reasonerAccess.runQueries(reasoner -> {
+			if (reasoner.getRootOntology() != indexes.getOntology()) {
+				return;
+			}
+			ontologyReasoner[0] = true;
+
+			if (reasoner != checkedReasoner) {
+				verdicts.clear();
+				checkedReasoner = reasoner;
+			}
+
+			ReasonerQueries queries = new ReasonerQueries(reasoner,
+					indexes.getOntology().getOWLOntologyManager().getOWLDataFactory());
+
+			for (Candidate candidate : candidates) {
+				if (!verdicts.containsKey(candidate.axiom)) {
+					verdicts.put(candidate.axiom, candidate.isPitfall.test(queries));
+					checkedCandidates[0]++;
+				}
+			}
+		});
+
+		if (!queried || !ontologyReasoner[0]) {
+			logger.debug("detect[ReasonerPitfallsDetector] no ready reasoner for the ontology, skipping " + pitfalls);
+			return report.getResult();
+		}
+
+		logger.debug(String.format("detect[ReasonerPitfallsDetector] checked %d of %d candidate axioms",
+				checkedCandidates[0], candidates.size()));
+
+		verdicts.keySet().retainAll(candidates.stream().map(c -> c.axiom).collect(Collectors.toSet()));
+
+		for (String pitfallID : getPitfallIDs()) {
+			report.addPitfall(pitfallID, candidates.stream()
+					.filter(c -> c.pitfallID.equals(pitfallID) && verdicts.get(c.axiom))
+					.flatMap(c -> c.affectedElements.stream())
+					.map(entity -> entity.getIRI().toString())
+					.collect(Collectors.toList()));
+		}
+
+		return report.getResult();
+	}
+
+	/**
+	 * Collects the axioms of the selected pitfalls to check with the reasoner
+	 *
+	 * @param indexes
+	 *            the ontology indexes
+	 * @param pitfalls
+	 *            the selected pitfalls
+	 * @return the candidate axioms
+	 */
+	private static List<Candidate> getCandidates(OntologyIndexes indexes, List<String> pitfalls) {
+		List<Candidate> candidates = new ArrayList<Candidate>();
+
+		// a symmetric relationship joins instances of its domain in both directions, so its range must match it
+		if (pitfalls.contains(PITFALL_WRONG_SYMMETRIC_ID)) {
+			for (OWLSymmetricObjectPropertyAxiom axiom : indexes.getAxioms(AxiomType.SYMMETRIC_OBJECT_PROPERTY)) {
+				addPropertyCandidate(indexes, candidates, PITFALL_WRONG_SYMMETRIC_ID, axiom, axiom.getProperty(),
+						(domain, range, queries) -> !queries.areEquivalent(domain, range)
+								&& !queries.areEquivalent(range, domain));
+			}
+		}
+
+		// a transitive relationship chains through instances of both its domain and range
+		if (pitfalls.contains(PITFALL_WRONG_TRANSITIVE_ID)) {
+			for (OWLTransitiveObjectPropertyAxiom axiom : indexes.getAxioms(AxiomType.TRANSITIVE_OBJECT_PROPERTY)) {
+				addPropertyCandidate(indexes, candidates, PITFALL_WRONG_TRANSITIVE_ID, axiom, axiom.getProperty(),
+						(domain, range, queries) -> queries.areDisjoint(domain, range));
+			}
+		}
+
+		// equivalent properties must have compatible domains and ranges
+		if (pitfalls.contains(PITFALL_WRONG_EQUIVALENT_PROPERTIES_ID)) {
+			List<OWLAxiom> equivalenceAxioms = new ArrayList<OWLAxiom>(
+					indexes.getAxioms(AxiomType.EQUIVALENT_OBJECT_PROPERTIES));
+			equivalenceAxioms.addAll(indexes.getAxioms(AxiomType.EQUIVALENT_DATA_PROPERTIES));
+
+			for (OWLAxiom axiom : equivalenceAxioms) {
+				List<OWLEntity> properties = new ArrayList<OWLEntity>(axiom.getSignature());
+				List<List<OWLClassExpression>> domains = new ArrayList<List<OWLClassExpression>>();
+				List<List<OWLClassExpression>> ranges = new ArrayList<List<OWLClassExpression>>();
+
+				for (OWLEntity property : properties) {
+					domains.add(getClassExpressions(indexes.getDomains(property)));
+					ranges.add(getClassExpressions(indexes.getRanges(property)));
+				}
+
+				candidates.add(new Candidate(PITFALL_WRONG_EQUIVALENT_PROPERTIES_ID, axiom, properties,
+						queries -> anyDisjoint(domains, queries) || anyDisjoint(ranges, queries)));
+			}
+		}
+
+		// equivalent classes must not make any of them unsatisfiable
+		if (pitfalls.contains(PITFALL_WRONG_EQUIVALENT_CLASSES_ID)) {
+			for (OWLEquivalentClassesAxiom axiom : indexes.getAxioms(AxiomType.EQUIVALENT_CLASSES)) {
+				if (axiom.getNamedClasses().size() < 2) {
+					continue; // class definitions, not equivalences between classes
+				}
+
+				candidates.add(new Candidate(PITFALL_WRONG_EQUIVALENT_CLASSES_ID, axiom, axiom.getNamedClasses(),
+						queries -> axiom.getClassExpressions().stream().anyMatch(queries::isUnsatisfiable)));
+			}
+		}
+
+		return candidates;
+	}
+
+	/**
+	 * A test over a domain and a range of a property
+	 */
+	private interface DomainRangeTest {
+		boolean isPitfall(OWLClassExpression domain, OWLClassExpression range, ReasonerQueries queries);
+	}
+
+	private static void addPropertyCandidate(OntologyIndexes indexes, List<Candidate> candidates, String pitfallID,
+			OWLAxiom axiom, OWLObjectPropertyExpression property, DomainRangeTest test) {
+		if (property.isAnonymous()) {
+			return;
+		}
+
+		OWLEntity namedProperty = property.asOWLObjectProperty();
+		List<OWLClassExpression> domains = getClassExpressions(indexes.getDomains(namedProperty));
+		List<OWLClassExpression> ranges = getClassExpressions(indexes.getRanges(namedProperty));
+
+		if (domains.isEmpty() || ranges.isEmpty()) {
+			return;
+		}
+
+		candidates.add(new Candidate(pitfallID, axiom, Arrays.asList(namedProperty),
+				queries -> domains.stream().anyMatch(d -> ranges.stream().anyMatch(r -> test.isPitfall(d, r, queries)))));
+	}
+
+	private static List<OWLClassExpression> getClassExpressions(List<OWLObject> domainsOrRanges) {
+		List<OWLClassExpression> classExpressions = new ArrayList<OWLClassExpression>();
+
+		for (OWLObject domainOrRange : domainsOrRanges) {
+			if (domainOrRange instanceof OWLClassExpression) {
+				classExpressions.add((OWLClassExpression) domainOrRange);
+			}
+		}
+
+		return classExpressions;
+	}
+
+	private static boolean anyDisjoint(List<List<OWLClassExpression>> expressionsByProperty, ReasonerQueries queries) {
+		for (int i = 0; i < expressionsByProperty.size(); i++) {
+			for (int j = i + 1; j < expressionsByProperty.size(); j++) {
+				for (OWLClassExpression first : expressionsByProperty.get(i)) {
+					for (OWLClassExpression second : expressionsByProperty.get(j)) {
+						if (queries.areDisjoint(first, second)) {
+							return true;
+						}
+					}
+				}
+			}
+		}
+
+		return false;
+	}
+}
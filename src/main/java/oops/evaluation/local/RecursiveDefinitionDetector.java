@@ -0,0 +1,114 @@
+package oops.evaluation.local;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLEquivalentClassesAxiom;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+
+import oops.model.EvaluationResult;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Local detector of the pitfall P24 (recursive definitions). Each named class is linked to the classes used in the
+ * class expressions that define it, the anonymous superclasses and equivalent expressions, however deeply nested.
+ * A class whose definition reaches itself belongs to a cycle of that dependency graph, so the strongly connected
+ * components are computed once with the iterative Tarjan search and every class in a cyclic component is reported.
+ * The links between named classes are left out, as cycles among them are class hierarchy cycles (P06).
+ */
+public class RecursiveDefinitionDetector implements PitfallDetector {
+
+	private static final String PITFALL_RECURSIVE_DEFINITION_ID = "P24";
+
+	@Override
+	public List<String> getPitfallIDs() {
+		return Collections.singletonList(PITFALL_RECURSIVE_DEFINITION_ID);
+	}
+
+	@Override
+	public EvaluationResult detect(OntologyIndexes indexes, List<String> pitfalls) {
+		PitfallReport report = new PitfallReport();
+
+		List<OWLClass> classes = new ArrayList<OWLClass>(indexes.getClasses());
+		Map<OWLClass, Integer> classIds = new HashMap<OWLClass, Integer>(classes.size() * 2);
+		for (int i = 0; i < classes.size(); i++) {
+			classIds.put(classes.get(i), i);
+		}
+
+		IntList edgeSources = new IntList();
+		IntList edgeTargets = new IntList();
+
+		for (OWLSubClassOfAxiom subClassAxiom : indexes.getAxioms(AxiomType.SUBCLASS_OF)) {
+			if (!subClassAxiom.getSubClass().isAnonymous()) {
+				addDefinitionEdges(subClassAxiom.getSubClass().asOWLClass(), subClassAxiom.getSuperClass(),
+						classIds, classes, edgeSources, edgeTargets);
+			}
+		}
+
+		for (OWLEquivalentClassesAxiom equivalentAxiom : indexes.getAxioms(AxiomType.EQUIVALENT_CLASSES)) {
+			for (OWLClass definedClass : equivalentAxiom.getNamedClasses()) {
+				for (OWLClassExpression definition : equivalentAxiom.getClassExpressions()) {
+					addDefinitionEdges(definedClass, definition, classIds, classes, edgeSources, edgeTargets);
+				}
+			}
+		}
+
+		int numClasses = classes.size();
+		int component[] = ClassHierarchyCycleDetector.findStronglyConnectedComponents(numClasses, edgeSources,
+				edgeTargets);
+
+		// a component is recursive if it has more than one class or a class used in its own definition
+		int componentSizes[] = new int[numClasses];
+		for (int i = 0; i < numClasses; i++) {
+			componentSizes[component[i]]++;
+		}
+
+		boolean recursiveComponent[] = new boolean[numClasses];
+		for (int e = 0; e < edgeSources.size(); e++) {
+			int source = edgeSources.get(e);
+
+			if (source == edgeTargets.get(e) || componentSizes[component[source]] > 1) {
+				recursiveComponent[component[source]] = true;
+			}
+		}
+
+		List<String> recursiveClasses = new ArrayList<String>();
+		for (int i = 0; i < numClasses; i++) {
+			if (recursiveComponent[component[i]]) {
+				recursiveClasses.add(classes.get(i).getIRI().toString());
+			}
+		}
+
+		report.addPitfall(PITFALL_RECURSIVE_DEFINITION_ID, recursiveClasses);
+
+		return report.getResult();
+	}
+
+	/**
+	 * Links a class to the classes used in one of its anonymous defining
+	 * expressions
+	 */
+	private static void addDefinitionEdges(OWLClass definedClass, OWLClassExpression definition,
+			Map<OWLClass, Integer> classIds, List<OWLClass> classes, IntList edgeSources, IntList edgeTargets) {
+		if (!definition.isAnonymous() || definedClass.isBuiltIn()) {
+			return;
+		}
+
+		int definedClassId = ClassHierarchyCycleDetector.getClassId(definedClass, classIds, classes);
+
+		for (OWLClass usedClass : definition.getClassesInSignature()) {
+			if (!usedClass.isBuiltIn()) {
+				ClassHierarchyCycleDetector.addEdge(edgeSources, edgeTargets, definedClassId,
+						ClassHierarchyCycleDetector.getClassId(usedClass, classIds, classes));
+			}
+		}
+	}
+}
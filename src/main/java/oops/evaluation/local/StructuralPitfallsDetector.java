@@ -0,0 +1,174 @@
+package oops.evaluation.local;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLDeclarationAxiom;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLLiteral;
+import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
+import org.semanticweb.owlapi.model.OWLSubPropertyChainOfAxiom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import oops.model.EvaluationResult;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Local detector of the pitfalls P03 (the relationship "is" instead of subClassOf or instanceOf), P20 (misused
+ * annotations) and P33 (property chains with just one property). Each check only needs one axiom type: the
+ * declarations, the annotation assertions and the property chains. They are read from the type index of the ontology,
+ * so every relevant axiom is visited once and the rest of the axioms are never walked, which is cheaper than a single
+ * sweep over all the axioms shared by the three checks (see StructuralPitfallsBenchmark in the test sources).
+ */
+public class StructuralPitfallsDetector implements PitfallDetector {
+
+	private static final Logger logger = LoggerFactory.getLogger(StructuralPitfallsDetector.class);
+
+	private static final String PITFALL_IS_RELATIONSHIP_ID = "P03";
+
+	private static final String PITFALL_MISUSED_ANNOTATIONS_ID = "P20";
+
+	private static final String PITFALL_SINGLE_PROPERTY_CHAIN_ID = "P33";
+
+	// the words of the property names that stand for subClassOf or instanceOf
+	private static final Set<String> IS_RELATIONSHIP_WORDS = new HashSet<String>(
+			Arrays.asList("is", "a", "an", "instance", "of", "kind", "type", "sub", "class", "subclass"));
+
+	private static final int MAX_LABEL_WORDS = 8; // longer labels are most likely descriptions
+
+	private static final int MIN_COMMENT_WORDS = 2; // shorter comments are most likely labels
+
+	@Override
+	public List<String> getPitfallIDs() {
+		return Arrays.asList(PITFALL_IS_RELATIONSHIP_ID, PITFALL_MISUSED_ANNOTATIONS_ID,
+				PITFALL_SINGLE_PROPERTY_CHAIN_ID);
+	}
+
+	@Override
+	public EvaluationResult detect(OntologyIndexes indexes, List<String> pitfalls) {
+		Instant startInstant = Instant.now();
+		PitfallReport report = new PitfallReport();
+		int numVisitedAxioms = 0;
+
+		if (pitfalls.contains(PITFALL_IS_RELATIONSHIP_ID)) {
+			List<OWLDeclarationAxiom> axioms = indexes.getAxioms(AxiomType.DECLARATION);
+			List<String> isRelationships = new ArrayList<String>();
+
+			axioms.forEach(axiom -> checkIsRelationship(axiom, isRelationships));
+			report.addPitfall(PITFALL_IS_RELATIONSHIP_ID, isRelationships);
+			numVisitedAxioms += axioms.size();
+		}
+		if (pitfalls.contains(PITFALL_MISUSED_ANNOTATIONS_ID)) {
+			List<OWLAnnotationAssertionAxiom> axioms = indexes.getAxioms(AxiomType.ANNOTATION_ASSERTION);
+			List<String> misusedAnnotationSubjects = new ArrayList<String>();
+
+			axioms.forEach(axiom -> checkMisusedAnnotation(axiom, misusedAnnotationSubjects));
+			report.addPitfall(PITFALL_MISUSED_ANNOTATIONS_ID, misusedAnnotationSubjects);
+			numVisitedAxioms += axioms.size();
+		}
+		if (pitfalls.contains(PITFALL_SINGLE_PROPERTY_CHAIN_ID)) {
+			List<OWLSubPropertyChainOfAxiom> axioms = indexes.getAxioms(AxiomType.SUB_PROPERTY_CHAIN_OF);
+			List<String> singlePropertyChains = new ArrayList<String>();
+
+			axioms.forEach(axiom -> checkSinglePropertyChain(axiom, singlePropertyChains));
+			report.addPitfall(PITFALL_SINGLE_PROPERTY_CHAIN_ID, singlePropertyChains);
+			numVisitedAxioms += axioms.size();
+		}
+
+		logger.debug(String.format("detect[StructuralPitfallsDetector] visited %d axioms in %d ms", numVisitedAxioms,
+				Duration.between(startInstant, Instant.now()).toMillis()));
+
+		return report.getResult();
+	}
+
+	/**
+	 * Adds the declared object property to the affected elements of P03 if its
+	 * name is an "is" relationship
+	 *
+	 * @param axiom
+	 *            a declaration axiom
+	 * @param isRelationships
+	 *            the affected elements of P03
+	 */
+	static void checkIsRelationship(OWLDeclarationAxiom axiom, List<String> isRelationships) {
+		OWLEntity entity = axiom.getEntity();
+
+		if (entity.isOWLObjectProperty() && isIsRelationshipName(entity.getIRI())) {
+			isRelationships.add(entity.getIRI().toString());
+		}
+	}
+
+	/**
+	 * Adds the annotated element to the affected elements of P20 if its label
+	 * looks like a description or its comment looks like a label
+	 *
+	 * @param axiom
+	 *            an annotation assertion axiom
+	 * @param misusedAnnotationSubjects
+	 *            the affected elements of P20
+	 */
+	static void checkMisusedAnnotation(OWLAnnotationAssertionAxiom axiom, List<String> misusedAnnotationSubjects) {
+		if (!(axiom.getSubject() instanceof IRI) || !(axiom.getValue() instanceof OWLLiteral)) {
+			return;
+		}
+
+		String text = ((OWLLiteral) axiom.getValue()).getLiteral().trim();
+		int numWords = text.isEmpty() ? 0 : text.split("\\s+").length;
+
+		boolean misused = (axiom.getProperty().isLabel() && (numWords > MAX_LABEL_WORDS || text.endsWith(".")))
+				|| (axiom.getProperty().isComment() && numWords < MIN_COMMENT_WORDS);
+
+		if (misused) {
+			misusedAnnotationSubjects.add(axiom.getSubject().toString());
+		}
+	}
+
+	/**
+	 * Adds the properties of a property chain to the affected elements of P33
+	 * if the chain has a single property
+	 *
+	 * @param axiom
+	 *            a property chain axiom
+	 * @param singlePropertyChains
+	 *            the affected elements of P33
+	 */
+	static void checkSinglePropertyChain(OWLSubPropertyChainOfAxiom axiom, List<String> singlePropertyChains) {
+		List<OWLObjectPropertyExpression> chain = axiom.getPropertyChain();
+
+		if (chain.size() == 1) {
+			addNamedProperty(axiom.getSuperProperty(), singlePropertyChains);
+			addNamedProperty(chain.get(0), singlePropertyChains);
+		}
+	}
+
+	private static void addNamedProperty(OWLObjectPropertyExpression property, List<String> singlePropertyChains) {
+		if (!property.isAnonymous()) {
+			singlePropertyChains.add(property.asOWLObjectProperty().getIRI().toString());
+		}
+	}
+
+	/**
+	 * Returns true if the name of a property only says "is", "is a",
+	 * "instance of", "kind of" or the like
+	 */
+	private static boolean isIsRelationshipName(IRI propertyIRI) {
+		String iri = propertyIRI.toString();
+		List<String> words = NameTokenizer.tokenize(
+				iri.substring(Math.max(iri.lastIndexOf('#'), iri.lastIndexOf('/')) + 1));
+
+		return !words.isEmpty() && (words.contains("is") || words.contains("instance") || words.contains("kind")
+				|| words.contains("type") || words.contains("subclass") || words.contains("sub"))
+				&& IS_RELATIONSHIP_WORDS.containsAll(words);
+	}
+}
@@ -0,0 +1,88 @@
+package oops.evaluation.local;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Character trie that numbers the dictionary words. The nodes are plain ints and all the edges are kept in a single
+ * map keyed by the parent node and the character, so a lookup only walks the characters of the word.
+ */
+class TokenTrie {
+
+	private static final int ROOT = 0;
+
+	private final Map<Long, Integer> edges = new HashMap<Long, Integer>();
+
+	private final IntList wordIds = new IntList(); // the id of the word ending at each node, or -1
+
+	private int numWords = 0;
+
+	TokenTrie() {
+		wordIds.add(-1); // the root
+	}
+
+	/**
+	 * Adds a word to the trie
+	 *
+	 * @param word
+	 *            the word
+	 * @return the id of the word, numbered from 0 in order of addition
+	 */
+	int add(CharSequence word) {
+		int node = ROOT;
+
+		for (int i = 0; i < word.length(); i++) {
+			long edgeKey = getEdgeKey(node, word.charAt(i));
+			Integer child = edges.get(edgeKey);
+
+			if (child == null) {
+				child = wordIds.size();
+				wordIds.add(-1);
+				edges.put(edgeKey, child);
+			}
+			node = child;
+		}
+
+		if (wordIds.get(node) == -1) {
+			wordIds.set(node, numWords++);
+		}
+
+		return wordIds.get(node);
+	}
+
+	/**
+	 * Returns the id of a word
+	 *
+	 * @param word
+	 *            the word
+	 * @return the id of the word, or -1 if it is not in the trie
+	 */
+	int find(CharSequence word) {
+		int node = ROOT;
+
+		for (int i = 0; i < word.length(); i++) {
+			Integer child = edges.get(getEdgeKey(node, word.charAt(i)));
+
+			if (child == null) {
+				return -1;
+			}
+			node = child;
+		}
+
+		return wordIds.get(node);
+	}
+
+	/**
+	 * @return the number of words in the trie
+	 */
+	int size() {
+		return numWords;
+	}
+
+	private static long getEdgeKey(int node, char character) {
+		return ((long) node << 16) | character;
+	}
+}
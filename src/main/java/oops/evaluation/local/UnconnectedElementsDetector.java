@@ -0,0 +1,82 @@
+package oops.evaluation.local;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLEntity;
+
+import oops.model.EvaluationResult;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Local detector of the pitfall P04 (creating unconnected ontology elements). The entities used together in a logical
+ * axiom are joined by their ids from the shared entity numbering of the indexes in a disjoint-set structure, so the
+ * connected components of the usage graph are found in a single near-linear pass over the axioms. The classes and
+ * properties outside the largest component are reported. Built-in entities such as owl:Thing are left out, as they
+ * would connect everything.
+ */
+public class UnconnectedElementsDetector implements PitfallDetector {
+
+	private static final String PITFALL_UNCONNECTED_ELEMENTS_ID = "P04";
+
+	@Override
+	public List<String> getPitfallIDs() {
+		return Collections.singletonList(PITFALL_UNCONNECTED_ELEMENTS_ID);
+	}
+
+	@Override
+	public EvaluationResult detect(OntologyIndexes indexes, List<String> pitfalls) {
+		PitfallReport report = new PitfallReport();
+
+		EntityNumbering entityIds = indexes.getEntityNumbering();
+		int numElements = entityIds.getNumClassesAndProperties();
+
+		if (numElements < 2) {
+			return report.getResult();
+		}
+
+		DisjointSets components = new DisjointSets(entityIds.size());
+
+		for (OWLAxiom axiom : indexes.getLogicalAxioms()) {
+			int firstId = -1;
+
+			for (OWLEntity entity : axiom.getSignature()) {
+				int id = entityIds.getId(entity);
+
+				if (id == -1) {
+					continue; // built-in entities, datatypes and annotation properties
+				} else if (firstId == -1) {
+					firstId = id;
+				} else {
+					components.union(firstId, id);
+				}
+			}
+		}
+
+		// find the largest component among the classes and properties
+		int componentSizes[] = new int[components.size()];
+		int largestComponent = 0;
+		for (int i = 0; i < numElements; i++) {
+			int component = components.find(i);
+
+			if (++componentSizes[component] > componentSizes[largestComponent]) {
+				largestComponent = component;
+			}
+		}
+
+		List<String> unconnectedElements = new ArrayList<String>();
+		for (int i = 0; i < numElements; i++) {
+			if (components.find(i) != largestComponent) {
+				unconnectedElements.add(entityIds.getEntity(i).getIRI().toString());
+			}
+		}
+
+		report.addPitfall(PITFALL_UNCONNECTED_ELEMENTS_ID, unconnectedElements);
+
+		return report.getResult();
+	}
+}
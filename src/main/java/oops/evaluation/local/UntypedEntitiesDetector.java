@@ -0,0 +1,88 @@
+package oops.evaluation.local;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.semanticweb.owlapi.model.OWLEntity;
+
+import oops.model.EvaluationResult;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Local detector of the pitfalls P34 (untyped class) and P35 (untyped property): the classes and properties used in
+ * the ontology without a declaration of their type. The signature is checked once against the hash set of declared
+ * entities, optionally including the declarations of the imported ontologies, which are only read when that option
+ * is enabled.
+ */
+public class UntypedEntitiesDetector implements PitfallDetector {
+
+	private static final String PITFALL_UNTYPED_CLASS_ID = "P34";
+
+	private static final String PITFALL_UNTYPED_PROPERTY_ID = "P35";
+
+	private volatile boolean includeImports = false;
+
+	@Override
+	public List<String> getPitfallIDs() {
+		return Arrays.asList(PITFALL_UNTYPED_CLASS_ID, PITFALL_UNTYPED_PROPERTY_ID);
+	}
+
+	@Override
+	public EvaluationResult detect(OntologyIndexes indexes, List<String> pitfalls) {
+		PitfallReport report = new PitfallReport();
+
+		boolean withImports = includeImports;
+		Set<OWLEntity> declaredEntities = indexes.getDeclaredEntities();
+		Set<OWLEntity> importedDeclaredEntities = withImports ? indexes.getImportedDeclaredEntities()
+				: Collections.emptySet();
+
+		if (pitfalls.contains(PITFALL_UNTYPED_CLASS_ID)) {
+			report.addPitfall(PITFALL_UNTYPED_CLASS_ID, indexes.getClasses().stream()
+					.filter(owlClass -> isUntyped(owlClass, declaredEntities, importedDeclaredEntities, withImports))
+					.map(owlClass -> owlClass.getIRI().toString())
+					.collect(Collectors.toList()));
+		}
+
+		if (pitfalls.contains(PITFALL_UNTYPED_PROPERTY_ID)) {
+			report.addPitfall(PITFALL_UNTYPED_PROPERTY_ID, Stream.of(indexes.getObjectProperties(),
+					indexes.getDataProperties())
+					.flatMap(Set::stream)
+					.filter(property -> isUntyped(property, declaredEntities, importedDeclaredEntities, withImports))
+					.map(property -> property.getIRI().toString())
+					.collect(Collectors.toList()));
+		}
+
+		return report.getResult();
+	}
+
+	private static boolean isUntyped(OWLEntity entity, Set<OWLEntity> declaredEntities,
+			Set<OWLEntity> importedDeclaredEntities, boolean withImports) {
+		return !entity.isBuiltIn() && !declaredEntities.contains(entity)
+				&& !(withImports && importedDeclaredEntities.contains(entity));
+	}
+
+	/**
+	 * Sets whether the declarations of the imported ontologies type the
+	 * entities used in the evaluated one
+	 *
+	 * @param includeImports
+	 *            true to also look for the declarations in the imports closure
+	 */
+	public void setIncludeImports(boolean includeImports) {
+		this.includeImports = includeImports;
+	}
+
+	/**
+	 * @return true if the declarations of the imported ontologies type the
+	 *         entities used in the evaluated one
+	 */
+	public boolean isIncludeImports() {
+		return includeImports;
+	}
+}
@@ -4,11 +4,12 @@ package oops.model;
  * Author: Lukas Gedvilas<br>
  * Universidad Politécnica de Madrid<br><br>
  *
- * Data Model to represent pairs of OWL Elements.
+ * Data Model to represent pairs of OWL Elements. Pairs are immutable, as they are used as keys of the pair indexes
+ * of the evaluation results.
  */
 public class ElementPair {
-	private String elementA;
-	private String elementB;
+	private final String elementA;
+	private final String elementB;
 	
 	public ElementPair(String elementA, String elementB) {
 		this.elementA = elementA;
@@ -22,14 +23,6 @@ public class ElementPair {
 		return elementA;
 	}
 
-	/**
-	 * @param elementA
-	 *            the elementA to set
-	 */
-	public void setElementA(String elementA) {
-		this.elementA = elementA;
-	}
-
 	/**
 	 * @return the elementB
 	 */
@@ -37,11 +30,17 @@ public class ElementPair {
 		return elementB;
 	}
 
-	/**
-	 * @param elementB
-	 *            the elementB to set
-	 */
-	public void setElementB(String elementB) {
-		this.elementB = elementB;
+	@Override
+	public boolean equals(Object other) {
+		if (other == null) return false;
+		if (other == this) return true;
+		if (!(other instanceof ElementPair)) return false;
+		ElementPair otherPair = (ElementPair) other;
+		return this.elementA.equals(otherPair.elementA) && this.elementB.equals(otherPair.elementB);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * elementA.hashCode() + elementB.hashCode();
 	}
 }
@@ -1,11 +1,21 @@
 package oops.model;
 
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Comparator;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
 import java.util.TreeMap;
 
 /**
@@ -13,92 +23,162 @@ import java.util.TreeMap;
  * Universidad Politécnica de Madrid<br><br>
  *
  * Data Model to represent ontology evaluation results with the detected pitfalls.
+ *
+ * The results are immutable snapshots made by an {@link EvaluationResult.Builder}, so they can be handed to other
+ * threads and read by several of them without locking. The pitfalls are kept once per pitfall code, and the elements
+ * are numbered by an {@link IRITable}, so each element only holds a small array with the positions of its pitfalls.
+ * The pitfall lists and maps returned are read-only views over those arrays. The affected elements of each pitfall,
+ * the number of pitfalls of each importance level and the highest importance level of each element are indexed when
+ * the snapshot is made, so the lookups made while painting the views do not go through the pitfalls again. Likewise,
+ * each list of element pairs is indexed by the IRIs of its elements, so the partners of an element are found without
+ * going through all the pairs.
  */
-public class EvaluationResult {
-    private HashMap<String, ArrayList<Pitfall>> detectedPitfalls;
-    private List<ElementPair> elementsWithSameLabel;
-    private List<ElementPair> equivalentClasses;
-    private List<ElementPair> equivalentRelations;
-    private List<ElementPair> equivalentAttributes;
-    private List<ElementPair> wrongInverseRelations;
-    private List<ElementPair> mightBeInverseRelations;
-    private List<String> relationsWithoutInverse;
-    private List<InfoElementWithAffectedElems> suggestions;
-    private List<InfoElementWithAffectedElems> warnings;
-    
-    public EvaluationResult() {}
-    
-    public EvaluationResult(HashMap<String, ArrayList<Pitfall>> detectedPitfalls) {
-        this.detectedPitfalls = detectedPitfalls;
+public final class EvaluationResult {
+    private static final PitfallImportanceLevel IMPORTANCE_LEVELS[] = PitfallImportanceLevel.values();
+
+    private final IRITable elements;
+    private final List<Pitfall> pitfalls; // the shared instance of each pitfall code
+    private final int pitfallsByElement[][]; // the positions of the pitfalls of each element id, in the order they were added
+    private final byte maxImportanceByElement[]; // the ordinal + 1 of the highest importance level of each element id
+    private final EnumMap<PitfallImportanceLevel, Integer> pitfallCounts;
+    private final SortedMap<Pitfall, List<String>> pitfallsWithAffectedElements;
+    private final List<ElementPair> elementsWithSameLabel;
+    private final List<ElementPair> equivalentClasses;
+    private final List<ElementPair> equivalentRelations;
+    private final List<ElementPair> equivalentAttributes;
+    private final List<ElementPair> wrongInverseRelations;
+    private final List<ElementPair> mightBeInverseRelations;
+    private final List<String> relationsWithoutInverse;
+    private final Map<String, List<String>> sameLabelPartners;
+    private final Map<String, List<String>> equivalentClassPartners;
+    private final Map<String, List<String>> equivalentRelationPartners;
+    private final Map<String, List<String>> equivalentAttributePartners;
+    private final Map<String, List<String>> wrongInversePartners;
+    private final Map<String, List<String>> mightBeInversePartners;
+    private final Set<String> relationsWithoutInverseSet;
+    private final List<InfoElementWithAffectedElems> suggestions;
+    private final List<InfoElementWithAffectedElems> warnings;
+
+	/**
+	 * Makes a snapshot of the current state of the given builder, which can
+	 * keep being filled without changing the snapshot
+	 *
+	 * @param builder
+	 *            the builder with the results
+	 */
+    private EvaluationResult(Builder builder) {
+    	elements = new IRITable(builder.elements);
+    	pitfalls = Collections.unmodifiableList(new ArrayList<Pitfall>(builder.pitfalls));
+    	// the builder replaces the arrays of the elements instead of changing them, so they can be shared
+    	pitfallsByElement = Arrays.copyOf(builder.pitfallsByElement, elements.size());
+    	maxImportanceByElement = new byte[elements.size()];
+
+    	pitfallCounts = new EnumMap<PitfallImportanceLevel, Integer>(PitfallImportanceLevel.class);
+    	for (PitfallImportanceLevel importance : IMPORTANCE_LEVELS) {
+    		pitfallCounts.put(importance, 0);
+    	}
+
+    	List<List<String>> elementsByPitfall = new ArrayList<List<String>>(pitfalls.size());
+    	for (int position = 0; position < pitfalls.size(); position++) {
+    		elementsByPitfall.add(new ArrayList<String>());
+    	}
+
+    	for (int element = 0; element < elements.size(); element++) {
+    		for (int position : pitfallsByElement[element]) {
+    			PitfallImportanceLevel importance = pitfalls.get(position).getImportanceLevel();
+
+    			// stored as ordinal + 1, so 0 stands for an element without pitfalls
+    			maxImportanceByElement[element] = (byte) Math.max(maxImportanceByElement[element],
+    					importance.ordinal() + 1);
+    			pitfallCounts.merge(importance, 1, Integer::sum);
+    			elementsByPitfall.get(position).add(elements.getIRI(element));
+    		}
+    	}
+
+    	TreeMap<Pitfall, List<String>> sortedPitfalls = new TreeMap<Pitfall, List<String>>();
+    	for (int position = 0; position < pitfalls.size(); position++) {
+    		sortedPitfalls.put(pitfalls.get(position), Collections.unmodifiableList(elementsByPitfall.get(position)));
+    	}
+    	pitfallsWithAffectedElements = Collections.unmodifiableSortedMap(sortedPitfalls);
+
+    	elementsWithSameLabel = copyOf(builder.elementsWithSameLabel);
+    	equivalentClasses = copyOf(builder.equivalentClasses);
+    	equivalentRelations = copyOf(builder.equivalentRelations);
+    	equivalentAttributes = copyOf(builder.equivalentAttributes);
+    	wrongInverseRelations = copyOf(builder.wrongInverseRelations);
+    	mightBeInverseRelations = copyOf(builder.mightBeInverseRelations);
+    	relationsWithoutInverse = copyOf(builder.relationsWithoutInverse);
+    	suggestions = copyOf(builder.suggestions);
+    	warnings = copyOf(builder.warnings);
+
+    	sameLabelPartners = indexPairs(elementsWithSameLabel);
+    	equivalentClassPartners = indexPairs(equivalentClasses);
+    	equivalentRelationPartners = indexPairs(equivalentRelations);
+    	equivalentAttributePartners = indexPairs(equivalentAttributes);
+    	wrongInversePartners = indexPairs(wrongInverseRelations);
+    	mightBeInversePartners = indexPairs(mightBeInverseRelations);
+    	relationsWithoutInverseSet = relationsWithoutInverse != null ?
+    			new HashSet<String>(relationsWithoutInverse) : Collections.emptySet();
     }
-    
+
+    private static <T> List<T> copyOf(List<T> list) {
+    	return list != null ? Collections.unmodifiableList(new ArrayList<T>(list)) : null;
+    }
+
 	/**
 	 * Checks the pitfalls for the specified OWL entity and returns the highest
 	 * importance level encountered
-	 * 
+	 *
 	 * @param entityURI
 	 *            the OWL entity to check
 	 * @return the pitfalls for the specified OWL entity and returns the highest
 	 *         importance level encountered
 	 */
     public Optional<PitfallImportanceLevel> getHighestImportanceLevelForEntity(String entityURI) {
-        List<Pitfall> pitfalls = detectedPitfalls.get(entityURI);
-        
-        Optional<PitfallImportanceLevel> result = Optional.empty();
-        
-        if (pitfalls != null) {
-        	result = pitfalls.stream()
-        			.map(p -> p.getImportanceLevel())
-        			.max(Comparator.naturalOrder());
-        }
-        
-        return result;
+    	int element = elements.getId(entityURI);
+
+    	if (element == -1) {
+    		return Optional.empty();
+    	}
+
+    	return Optional.of(IMPORTANCE_LEVELS[maxImportanceByElement[element] - 1]);
     }
-    
+
 	/**
 	 * Gets the detected pitfalls for the specified OWL entity
-	 * 
+	 *
 	 * @param entityURI
 	 *            the entity whose pitfalls are to be checked
-	 * @return the detected pitfalls for the specified OWL entity
+	 * @return a read-only view of the detected pitfalls for the specified OWL
+	 *         entity, or null if it has none
 	 */
     public List<Pitfall> getPitfallsForOWLEntity(String entityURI) {
-        return detectedPitfalls.get(entityURI);
+    	int element = elements.getId(entityURI);
+
+        return element != -1 ? new ElementPitfallsView(element) : null;
     }
-    
+
 	/**
 	 * Gets the number of pitfalls from the results that are of the specified
 	 * importance level
-	 * 
+	 *
 	 * @param importance
 	 *            the importance level filter
 	 * @return the number of pitfalls from the results that are of the specified
 	 *         importance level
 	 */
 	public int getNumberOfPitfalls(PitfallImportanceLevel importance) {
-		long pitfallsCount = detectedPitfalls.values().stream()
-				.flatMap(x -> x.stream())
-				.filter(p -> p.getImportanceLevel() == importance)
-				.count();
-
-		return (int) pitfallsCount;
+		return pitfallCounts.get(importance);
 	}
-    
+
 	/**
 	 * Returns the detected pitfalls map
-	 * 
-	 * @return the detected pitfalls map
+	 *
+	 * @return a read-only view of the detected pitfalls of each element IRI
 	 */
-    public HashMap<String, ArrayList<Pitfall>> getDetectedPitfalls() {
-    	return detectedPitfalls;
+    public Map<String, List<Pitfall>> getDetectedPitfalls() {
+    	return new DetectedPitfallsView();
     }
-    
-	/**
-	 * @param detectedPitfalls the detectedPitfalls to set
-	 */
-	public void setDetectedPitfalls(HashMap<String, ArrayList<Pitfall>> detectedPitfalls) {
-		this.detectedPitfalls = detectedPitfalls;
-	}
 
 	/**
 	 * @return the elementsWithSameLabel
@@ -108,124 +188,175 @@ public class EvaluationResult {
 	}
 
 	/**
-	 * @param elementsWithSameLabel the elementsWithSameLabel to set
+	 * @return the equivalentClasses
 	 */
-	public void setElementsWithSameLabel(List<ElementPair> elementsWithSameLabel) {
-		this.elementsWithSameLabel = elementsWithSameLabel;
+	public List<ElementPair> getEquivalentClasses() {
+		return equivalentClasses;
 	}
 
 	/**
-	 * @return the equivalentClasses
+	 * @return the equivalentRelations
 	 */
-	public List<ElementPair> getEquivalentClasses() {
-		return equivalentClasses;
+	public List<ElementPair> getEquivalentRelations() {
+		return equivalentRelations;
 	}
 
 	/**
-	 * @param equivalentClasses the equivalentClasses to set
+	 * @return the equivalentAttributes
 	 */
-	public void setEquivalentClasses(List<ElementPair> equivalentClasses) {
-		this.equivalentClasses = equivalentClasses;
+	public List<ElementPair> getEquivalentAttributes() {
+		return equivalentAttributes;
 	}
 
 	/**
-	 * @return the equivalentRelations
+	 * @return the wrongInverseRelations
 	 */
-	public List<ElementPair> getEquivalentRelations() {
-		return equivalentRelations;
+	public List<ElementPair> getWrongInverseRelations() {
+		return wrongInverseRelations;
 	}
 
 	/**
-	 * @param equivalentRelations the equivalentRelations to set
+	 * @return the mightBeInverseRelations
 	 */
-	public void setEquivalentRelations(List<ElementPair> equivalentRelations) {
-		this.equivalentRelations = equivalentRelations;
+	public List<ElementPair> getMightBeInverseRelations() {
+		return mightBeInverseRelations;
 	}
 
 	/**
-	 * @return the equivalentAttributes
+	 * Returns the detected pitfalls sorted by their code, each with the
+	 * elements it affects
+	 *
+	 * @return a read-only map from each pitfall to the IRIs of its affected
+	 *         elements
 	 */
-	public List<ElementPair> getEquivalentAttributes() {
-		return equivalentAttributes;
+    public SortedMap<Pitfall, List<String>> pitfallsWithAffectedElements() {
+    	return pitfallsWithAffectedElements;
+    }
+
+	/**
+	 * @return the relationsWithoutInverse
+	 */
+	public List<String> getRelationsWithoutInverse() {
+		return relationsWithoutInverse;
 	}
 
 	/**
-	 * @param equivalentAttributes the equivalentAttributes to set
+	 * Returns the elements paired with the given element in the elements with
+	 * the same label
+	 *
+	 * @param elementIRI
+	 *            the IRI of the element
+	 * @return the IRIs of the elements with the same label as the element
 	 */
-	public void setEquivalentAttributes(List<ElementPair> equivalentAttributes) {
-		this.equivalentAttributes = equivalentAttributes;
+	public List<String> getElementsWithSameLabelAs(String elementIRI) {
+		return getPartners(sameLabelPartners, elementIRI);
 	}
 
 	/**
-	 * @return the wrongInverseRelations
+	 * Returns the classes that might be equivalent to the given class
+	 *
+	 * @param elementIRI
+	 *            the IRI of the class
+	 * @return the IRIs of the classes paired with the class
 	 */
-	public List<ElementPair> getWrongInverseRelations() {
-		return wrongInverseRelations;
+	public List<String> getEquivalentClassesOf(String elementIRI) {
+		return getPartners(equivalentClassPartners, elementIRI);
 	}
 
 	/**
-	 * @param wrongInverseRelations the wrongInverseRelations to set
+	 * Returns the relations that might be equivalent to the given relation
+	 *
+	 * @param elementIRI
+	 *            the IRI of the relation
+	 * @return the IRIs of the relations paired with the relation
 	 */
-	public void setWrongInverseRelations(List<ElementPair> wrongInverseRelations) {
-		this.wrongInverseRelations = wrongInverseRelations;
+	public List<String> getEquivalentRelationsOf(String elementIRI) {
+		return getPartners(equivalentRelationPartners, elementIRI);
 	}
 
 	/**
-	 * @return the mightBeInverseRelations
+	 * Returns the attributes that might be equivalent to the given attribute
+	 *
+	 * @param elementIRI
+	 *            the IRI of the attribute
+	 * @return the IRIs of the attributes paired with the attribute
 	 */
-	public List<ElementPair> getMightBeInverseRelations() {
-		return mightBeInverseRelations;
+	public List<String> getEquivalentAttributesOf(String elementIRI) {
+		return getPartners(equivalentAttributePartners, elementIRI);
 	}
 
 	/**
-	 * @param mightBeInverseRelations the mightBeInverseRelations to set
+	 * Returns the relations that may not be inverse of the given relation
+	 *
+	 * @param elementIRI
+	 *            the IRI of the relation
+	 * @return the IRIs of the relations paired with the relation
 	 */
-	public void setMightBeInverseRelations(List<ElementPair> mightBeInverseRelations) {
-		this.mightBeInverseRelations = mightBeInverseRelations;
+	public List<String> getWrongInverseRelationsOf(String elementIRI) {
+		return getPartners(wrongInversePartners, elementIRI);
 	}
-    
-    public TreeMap<Pitfall, ArrayList<String>> pitfallsWithAffectedElements() {
-    	TreeMap<Pitfall, ArrayList<String>> pitfallsWithAffectedElements = new TreeMap<Pitfall, ArrayList<String>>();
-    	
-    	detectedPitfalls.forEach((element,pitfalls) -> {
-    		pitfalls.forEach(p -> {
-    			if (pitfallsWithAffectedElements.containsKey(p)) {
-    				pitfallsWithAffectedElements.get(p).add(element); // merge with the elements list
-    			} else {
-    				pitfallsWithAffectedElements.put(p, new ArrayList<>(Arrays.asList(element))); // add first element
-    			}
-    		});
-    	});
-    	
-    	return pitfallsWithAffectedElements;
-    }
 
 	/**
-	 * @return the relationsWithoutInverse
+	 * Returns the relations that could be inverse of the given relation
+	 *
+	 * @param elementIRI
+	 *            the IRI of the relation
+	 * @return the IRIs of the relations paired with the relation
 	 */
-	public List<String> getRelationsWithoutInverse() {
-		return relationsWithoutInverse;
+	public List<String> getMightBeInverseRelationsOf(String elementIRI) {
+		return getPartners(mightBeInversePartners, elementIRI);
 	}
 
 	/**
-	 * @param relationsWithoutInverse the relationsWithoutInverse to set
+	 * Checks if the given relation is one of the relations without inverse
+	 * that OOPS! has no suggestion for
+	 *
+	 * @param elementIRI
+	 *            the IRI of the relation
+	 * @return true if the relation is in the relations without inverse
 	 */
-	public void setRelationsWithoutInverse(List<String> relationsWithoutInverse) {
-		this.relationsWithoutInverse = relationsWithoutInverse;
+	public boolean isRelationWithoutInverse(String elementIRI) {
+		return relationsWithoutInverseSet.contains(elementIRI);
 	}
 
 	/**
-	 * @return the suggestions
+	 * Builds the multimap from each element of the given pairs to the elements
+	 * it is paired with
 	 */
-	public List<InfoElementWithAffectedElems> getSuggestions() {
-		return suggestions;
+	private static Map<String, List<String>> indexPairs(List<ElementPair> pairs) {
+		if (pairs == null || pairs.isEmpty()) {
+			return Collections.emptyMap();
+		}
+
+		Map<String, List<String>> partners = new HashMap<String, List<String>>();
+
+		for (ElementPair pair : pairs) {
+			addPartner(partners, pair.getElementA(), pair.getElementB());
+			addPartner(partners, pair.getElementB(), pair.getElementA());
+		}
+
+		return partners;
+	}
+
+	private static void addPartner(Map<String, List<String>> partners, String element, String partner) {
+		List<String> elementPartners = partners.computeIfAbsent(element, k -> new ArrayList<String>(2));
+
+		if (!elementPartners.contains(partner)) {
+			elementPartners.add(partner);
+		}
+	}
+
+	private static List<String> getPartners(Map<String, List<String>> partners, String elementIRI) {
+		List<String> elementPartners = partners.get(elementIRI);
+
+		return elementPartners != null ? Collections.unmodifiableList(elementPartners) : Collections.emptyList();
 	}
 
 	/**
-	 * @param suggestions the suggestions to set
+	 * @return the suggestions
 	 */
-	public void setSuggestions(List<InfoElementWithAffectedElems> suggestions) {
-		this.suggestions = suggestions;
+	public List<InfoElementWithAffectedElems> getSuggestions() {
+		return suggestions;
 	}
 
 	/**
@@ -236,9 +367,240 @@ public class EvaluationResult {
 	}
 
 	/**
-	 * @param warnings the warnings to set
+	 * Read-only list of the pitfalls of an element
+	 */
+	private class ElementPitfallsView extends AbstractList<Pitfall> {
+		private final int element;
+
+		private ElementPitfallsView(int element) {
+			this.element = element;
+		}
+
+		@Override
+		public Pitfall get(int index) {
+			return pitfalls.get(pitfallsByElement[element][index]);
+		}
+
+		@Override
+		public int size() {
+			return pitfallsByElement[element].length;
+		}
+	}
+
+	/**
+	 * Read-only map from the IRI of each element with pitfalls to its pitfalls
 	 */
-	public void setWarnings(List<InfoElementWithAffectedElems> warnings) {
-		this.warnings = warnings;
+	private class DetectedPitfallsView extends AbstractMap<String, List<Pitfall>> {
+
+		@Override
+		public List<Pitfall> get(Object key) {
+			return key instanceof String ? getPitfallsForOWLEntity((String) key) : null;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return key instanceof String && elements.getId((String) key) != -1;
+		}
+
+		@Override
+		public int size() {
+			return elements.size();
+		}
+
+		@Override
+		public Set<Map.Entry<String, List<Pitfall>>> entrySet() {
+			return new AbstractSet<Map.Entry<String, List<Pitfall>>>() {
+				@Override
+				public Iterator<Map.Entry<String, List<Pitfall>>> iterator() {
+					return new Iterator<Map.Entry<String, List<Pitfall>>>() {
+						private int element = 0;
+
+						@Override
+						public boolean hasNext() {
+							return element < elements.size();
+						}
+
+						@Override
+						public Map.Entry<String, List<Pitfall>> next() {
+							if (!hasNext()) {
+								throw new NoSuchElementException();
+							}
+							Map.Entry<String, List<Pitfall>> entry = new SimpleImmutableEntry<String, List<Pitfall>>(
+									elements.getIRI(element), new ElementPitfallsView(element));
+							element++;
+							return entry;
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return elements.size();
+				}
+			};
+		}
+	}
+
+	/**
+	 * Collects the results of an evaluation while they are parsed or detected,
+	 * and makes the immutable EvaluationResult snapshots of them
+	 */
+	public static class Builder {
+		private final IRITable elements = new IRITable();
+		private final List<Pitfall> pitfalls = new ArrayList<Pitfall>();
+		private final Map<String, Integer> pitfallPositions = new HashMap<String, Integer>();
+		private int pitfallsByElement[][] = new int[16][];
+		private List<ElementPair> elementsWithSameLabel;
+		private List<ElementPair> equivalentClasses;
+		private List<ElementPair> equivalentRelations;
+		private List<ElementPair> equivalentAttributes;
+		private List<ElementPair> wrongInverseRelations;
+		private List<ElementPair> mightBeInverseRelations;
+		private List<String> relationsWithoutInverse;
+		private List<InfoElementWithAffectedElems> suggestions;
+		private List<InfoElementWithAffectedElems> warnings;
+
+		/**
+		 * Marks an element with a pitfall. The first pitfall added with each
+		 * code is shared by all the elements that have that code, and an
+		 * element keeps each code once.
+		 *
+		 * @param elementIRI
+		 *            the IRI of the affected element
+		 * @param pitfall
+		 *            the detected pitfall
+		 * @return this builder
+		 */
+		public Builder addPitfall(String elementIRI, Pitfall pitfall) {
+			int position = pitfallPositions.computeIfAbsent(pitfall.getPitfallID(), code -> {
+				pitfalls.add(pitfall);
+				return pitfalls.size() - 1;
+			});
+
+			int element = elements.intern(elementIRI);
+			if (element == pitfallsByElement.length) {
+				pitfallsByElement = Arrays.copyOf(pitfallsByElement, element * 2);
+			}
+
+			int elementPitfalls[] = pitfallsByElement[element];
+			if (elementPitfalls == null) {
+				elementPitfalls = new int[] { position };
+			} else {
+				for (int p : elementPitfalls) {
+					if (p == position) {
+						return this;
+					}
+				}
+
+				elementPitfalls = Arrays.copyOf(elementPitfalls, elementPitfalls.length + 1);
+				elementPitfalls[elementPitfalls.length - 1] = position;
+			}
+			pitfallsByElement[element] = elementPitfalls;
+
+			return this;
+		}
+
+		/**
+		 * Returns the copy of the given IRI kept by the builder for the
+		 * detected pitfalls, so the pair lists can share it
+		 *
+		 * @param elementIRI
+		 *            the IRI of an element
+		 * @return the IRI kept by the builder, or the given one if the element
+		 *         has no pitfalls yet
+		 */
+		public String getCanonicalIRI(String elementIRI) {
+			return elements.getCanonical(elementIRI);
+		}
+
+		/**
+		 * @param elementsWithSameLabel the elementsWithSameLabel to set
+		 * @return this builder
+		 */
+		public Builder setElementsWithSameLabel(List<ElementPair> elementsWithSameLabel) {
+			this.elementsWithSameLabel = elementsWithSameLabel;
+			return this;
+		}
+
+		/**
+		 * @param equivalentClasses the equivalentClasses to set
+		 * @return this builder
+		 */
+		public Builder setEquivalentClasses(List<ElementPair> equivalentClasses) {
+			this.equivalentClasses = equivalentClasses;
+			return this;
+		}
+
+		/**
+		 * @param equivalentRelations the equivalentRelations to set
+		 * @return this builder
+		 */
+		public Builder setEquivalentRelations(List<ElementPair> equivalentRelations) {
+			this.equivalentRelations = equivalentRelations;
+			return this;
+		}
+
+		/**
+		 * @param equivalentAttributes the equivalentAttributes to set
+		 * @return this builder
+		 */
+		public Builder setEquivalentAttributes(List<ElementPair> equivalentAttributes) {
+			this.equivalentAttributes = equivalentAttributes;
+			return this;
+		}
+
+		/**
+		 * @param wrongInverseRelations the wrongInverseRelations to set
+		 * @return this builder
+		 */
+		public Builder setWrongInverseRelations(List<ElementPair> wrongInverseRelations) {
+			this.wrongInverseRelations = wrongInverseRelations;
+			return this;
+		}
+
+		/**
+		 * @param mightBeInverseRelations the mightBeInverseRelations to set
+		 * @return this builder
+		 */
+		public Builder setMightBeInverseRelations(List<ElementPair> mightBeInverseRelations) {
+			this.mightBeInverseRelations = mightBeInverseRelations;
+			return this;
+		}
+
+		/**
+		 * @param relationsWithoutInverse the relationsWithoutInverse to set
+		 * @return this builder
+		 */
+		public Builder setRelationsWithoutInverse(List<String> relationsWithoutInverse) {
+			this.relationsWithoutInverse = relationsWithoutInverse;
+			return this;
+		}
+
+		/**
+		 * @param suggestions the suggestions to set
+		 * @return this builder
+		 */
+		public Builder setSuggestions(List<InfoElementWithAffectedElems> suggestions) {
+			this.suggestions = suggestions;
+			return this;
+		}
+
+		/**
+		 * @param warnings the warnings to set
+		 * @return this builder
+		 */
+		public Builder setWarnings(List<InfoElementWithAffectedElems> warnings) {
+			this.warnings = warnings;
+			return this;
+		}
+
+		/**
+		 * Makes an immutable snapshot of the results collected so far
+		 *
+		 * @return the evaluation results
+		 */
+		public EvaluationResult build() {
+			return new EvaluationResult(this);
+		}
 	}
 }
@@ -0,0 +1,103 @@
+package oops.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Symbol table that numbers the IRIs of the evaluated elements, so the results can refer to each element by a compact
+ * int id and keep a single copy of its IRI string.
+ */
+public class IRITable {
+
+	private final Map<String, Integer> idsByIRI = new HashMap<String, Integer>();
+
+	private String iris[] = new String[16];
+
+	private int size;
+
+	public IRITable() {}
+
+	/**
+	 * Creates a copy of the given table, with the same ids
+	 *
+	 * @param other
+	 *            the table to copy
+	 */
+	public IRITable(IRITable other) {
+		idsByIRI.putAll(other.idsByIRI);
+		iris = Arrays.copyOf(other.iris, Math.max(other.size, 1));
+		size = other.size;
+	}
+
+	/**
+	 * Returns the id of the given IRI, numbering it if it was not in the table
+	 *
+	 * @param iri
+	 *            the IRI of an element
+	 * @return the id of the IRI
+	 */
+	public int intern(String iri) {
+		Integer id = idsByIRI.get(iri);
+
+		if (id == null) {
+			if (size == iris.length) {
+				iris = Arrays.copyOf(iris, size * 2);
+			}
+			iris[size] = iri;
+			id = size++;
+			idsByIRI.put(iri, id);
+		}
+
+		return id;
+	}
+
+	/**
+	 * Returns the id of the given IRI
+	 *
+	 * @param iri
+	 *            the IRI of an element
+	 * @return the id of the IRI, or -1 if it is not in the table
+	 */
+	public int getId(String iri) {
+		Integer id = idsByIRI.get(iri);
+
+		return id != null ? id : -1;
+	}
+
+	/**
+	 * Returns the copy of the given IRI kept by the table, so the lists that
+	 * repeat the IRI can share a single String instance
+	 *
+	 * @param iri
+	 *            the IRI of an element
+	 * @return the IRI kept by the table, or the given one if it is not in the
+	 *         table
+	 */
+	public String getCanonical(String iri) {
+		int id = getId(iri);
+
+		return id != -1 ? iris[id] : iri;
+	}
+
+	/**
+	 * Returns the IRI with the given id
+	 *
+	 * @param id
+	 *            an id returned by {@link #intern(String)}
+	 * @return the IRI with that id
+	 */
+	public String getIRI(int id) {
+		return iris[id];
+	}
+
+	/**
+	 * @return the number of IRIs in the table, whose ids go from 0 to size - 1
+	 */
+	public int size() {
+		return size;
+	}
+}
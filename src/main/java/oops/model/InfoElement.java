@@ -6,12 +6,12 @@ package oops.model;
  * <br>
  *
  * Data Model for elements that hold OOPS! information like pitfalls, warnings
- * and suggestions.
+ * and suggestions. Info elements are immutable.
  */
 public class InfoElement {
-	private String name;
-	private String description;
-	private int numAffectedElements;
+	private final String name;
+	private final String description;
+	private final int numAffectedElements;
 
 	public InfoElement(String name, String description, int numAffectedElements) {
 		this.name = name;
@@ -26,14 +26,6 @@ public class InfoElement {
 		return description;
 	}
 
-	/**
-	 * @param description
-	 *            the description to set
-	 */
-	public void setDescription(String description) {
-		this.description = description;
-	}
-
 	@Override
 	public String toString() {
 		return String.format("%s - %s", name, description);
@@ -46,25 +38,10 @@ public class InfoElement {
 		return name;
 	}
 
-	/**
-	 * @param name
-	 *            the name to set
-	 */
-	public void setName(String name) {
-		this.name = name;
-	}
-	
 	/**
 	 * @return the numAffectedElements
 	 */
 	public int getNumAffectedElements() {
 		return numAffectedElements;
 	}
-
-	/**
-	 * @param numAffectedElements the numAffectedElements to set
-	 */
-	public void setNumAffectedElements(int numAffectedElements) {
-		this.numAffectedElements = numAffectedElements;
-	}
 }
@@ -1,5 +1,7 @@
 package oops.model;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -11,12 +13,12 @@ import java.util.List;
  * elements.
  */
 public class InfoElementWithAffectedElems extends InfoElement {
-	private List<String> affectedElements;
+	private final List<String> affectedElements;
 
 	public InfoElementWithAffectedElems(String name, String description, int numAffectedElements, List<String> affectedElements) {
 		super(name, description, numAffectedElements);
 		
-		this.affectedElements = affectedElements;
+		this.affectedElements = Collections.unmodifiableList(new ArrayList<String>(affectedElements));
 	}
 
 	/**
@@ -25,11 +27,4 @@ public class InfoElementWithAffectedElems extends InfoElement {
 	public List<String> getAffectedElements() {
 		return affectedElements;
 	}
-
-	/**
-	 * @param affectedElements the affectedElements to set
-	 */
-	public void setAffectedElements(List<String> affectedElements) {
-		this.affectedElements = affectedElements;
-	}
 }
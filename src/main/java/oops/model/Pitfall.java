@@ -4,11 +4,12 @@ package oops.model;
  * Author: Lukas Gedvilas<br>
  * Universidad Politécnica de Madrid<br><br>
  *
- * Data Model for ontological pitfalls.
+ * Data Model for ontological pitfalls. Pitfalls are immutable, so they can be shared by the evaluation result
+ * snapshots.
  */
 public class Pitfall extends InfoElement implements Comparable<Pitfall> {
-	private PitfallImportanceLevel importanceLevel;
-	private String pitfallID;
+	private final PitfallImportanceLevel importanceLevel;
+	private final String pitfallID;
 
 	public Pitfall(PitfallImportanceLevel importanceLevel, String pitfallID, String name, String description,
 			int numAffectedElements) {
@@ -25,14 +26,6 @@ public class Pitfall extends InfoElement implements Comparable<Pitfall> {
 		return importanceLevel;
 	}
 
-	/**
-	 * @param importanceLevel
-	 *            the importanceLevel to set
-	 */
-	public void setImportanceLevel(PitfallImportanceLevel importanceLevel) {
-		this.importanceLevel = importanceLevel;
-	}
-
 	/**
 	 * @return the pitfallID
 	 */
@@ -40,14 +33,6 @@ public class Pitfall extends InfoElement implements Comparable<Pitfall> {
 		return pitfallID;
 	}
 
-	/**
-	 * @param pitfallID
-	 *            the pitfallID to set
-	 */
-	public void setPitfallID(String pitfallID) {
-		this.pitfallID = pitfallID;
-	}
-
 	@Override
 	public String toString() {
 		return String.format("%s[%s] - %s", pitfallID, importanceLevel, super.getDescription());
@@ -1,6 +1,7 @@
 package oops.ui;
 
 import java.awt.*;
+import java.awt.event.ActionListener;
 import java.net.URL;
 
 import javax.swing.*;
@@ -14,10 +15,16 @@ import javax.swing.*;
 public class EvaluationDialog extends JPanel {
 
 	private static final String EVALUATING_LABEL_TEXT = "OOPS! is scanning ...";
+	
+	private static final String CANCEL_BTN_LABEL = "Cancel";
     
     private final JDialog dlg = new JDialog((JFrame) null, "", true);
 
-    public EvaluationDialog() {
+    /**
+     * @param cancelListener
+     *            the listener to call when the user cancels the evaluation
+     */
+    public EvaluationDialog(ActionListener cancelListener) {
         setLayout(new BorderLayout());
         setBorder(BorderFactory.createEmptyBorder(30, 50, 30, 50));
         
@@ -34,7 +41,14 @@ public class EvaluationDialog extends JPanel {
         evaluatingAnimation.setPreferredSize(new Dimension(128, 15));
         URL url = this.getClass().getResource("/evaluating.gif");
         evaluatingAnimation.setIcon(new ImageIcon(url));
-        holder.add(evaluatingAnimation, BorderLayout.SOUTH);
+        holder.add(evaluatingAnimation, BorderLayout.CENTER);
+        
+        JButton btnCancel = new JButton(CANCEL_BTN_LABEL);
+        btnCancel.addActionListener(cancelListener);
+        JPanel buttonHolder = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        buttonHolder.setBorder(BorderFactory.createEmptyBorder(15, 0, 0, 0)); // add a top space
+        buttonHolder.add(btnCancel);
+        holder.add(buttonHolder, BorderLayout.SOUTH);
         
         dlg.setUndecorated(true);
         JPanel contentPane = new JPanel();
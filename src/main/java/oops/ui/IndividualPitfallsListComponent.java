@@ -6,9 +6,8 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.GridLayout;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
 
 import javax.swing.BorderFactory;
 import javax.swing.JLabel;
@@ -36,7 +35,6 @@ import org.slf4j.LoggerFactory;
 
 import oops.evaluation.EvaluationListener;
 import oops.evaluation.OOPSEvaluator;
-import oops.model.ElementPair;
 import oops.model.EvaluationResult;
 import oops.model.Pitfall;
 import oops.model.PitfallImportanceLevel;
@@ -186,42 +184,36 @@ public class IndividualPitfallsListComponent extends AbstractOWLViewComponent
 	private String getPitfallDetails(Pitfall selectedPitfall, OWLEntity selEntity) {
     	String pitfallDetailsText = selectedPitfall.getDescription();
     	
-    	List<ElementPair> additionalInfoElements = null;
+    	List<String> relatedElements = Collections.emptyList();
     	
     	switch (selectedPitfall.getPitfallID()) {
     	case OOPSEvaluator.PITFALL_EQUIVALENT_CLASSES_ID:
-    		additionalInfoElements = evaluationResult.getEquivalentClasses();
+    		relatedElements = evaluationResult.getEquivalentClassesOf(selectedEntityIRI);
     		pitfallDetailsText += "\n\nThis class might be equivalent to the following classes:\n";
     		break;
     	case OOPSEvaluator.PITFALL_MIGHT_BE_EQUIVALENT_ID:
     		if (selEntity.getEntityType() == EntityType.OBJECT_PROPERTY) {
-    			additionalInfoElements = evaluationResult.getEquivalentRelations();
+    			relatedElements = evaluationResult.getEquivalentRelationsOf(selectedEntityIRI);
     			pitfallDetailsText += "\n\nThis relation might be equivalent to the following elements:\n";
     			
     		} else if (selEntity.getEntityType() == EntityType.DATA_PROPERTY) {
-    			additionalInfoElements = evaluationResult.getEquivalentAttributes();
+    			relatedElements = evaluationResult.getEquivalentAttributesOf(selectedEntityIRI);
     			pitfallDetailsText += "\n\nThis attribute might be equivalent to the following elements:\n";
     		}
     		break;
     	case OOPSEvaluator.PITFALL_MIGHT_BE_INVERSE_ID:
-    		additionalInfoElements = evaluationResult.getMightBeInverseRelations();
+    		relatedElements = evaluationResult.getMightBeInverseRelationsOf(selectedEntityIRI);
     		
-    		boolean mightBeInverse = additionalInfoElements.stream()
-    				.filter(pair -> 
-						pair.getElementA().equals(selectedEntityIRI) ||
-						pair.getElementA().equals(selectedEntityIRI))
-    				.count() > 0;
-    		
-    		if (additionalInfoElements != null && additionalInfoElements.size() > 0 && mightBeInverse) {
+    		if (relatedElements.size() > 0) {
     			pitfallDetailsText += "\n\nThis relation could be inverse of:\n";
     		}
     		break;
     	case OOPSEvaluator.PITFALL_SAME_LABEL:
-    		additionalInfoElements = evaluationResult.getElementsWithSameLabel();
+    		relatedElements = evaluationResult.getElementsWithSameLabelAs(selectedEntityIRI);
     		pitfallDetailsText += "\n\nThis element has the same label as:\n";
     		break;
     	case OOPSEvaluator.PITFALL_WRONG_INVERSE_ID:
-    		additionalInfoElements = evaluationResult.getWrongInverseRelations();
+    		relatedElements = evaluationResult.getWrongInverseRelationsOf(selectedEntityIRI);
     		pitfallDetailsText += "\n\nThis relation may not be inverse of:\n";
     		break;
     	}
@@ -229,34 +221,15 @@ public class IndividualPitfallsListComponent extends AbstractOWLViewComponent
     	if (OOPSEvaluator.isGeneralPitfall(selectedPitfall.getPitfallID())) {
     		pitfallDetailsText += "\n\n*This pitfall applies to the ontology in general instead of specific elements.";
     	} else {
-        	if (additionalInfoElements != null && additionalInfoElements.size() > 0) {
-        		List<ElementPair> relatedPairs = additionalInfoElements.stream()
-        				.filter(pair -> 
-        					pair.getElementA().equals(selectedEntityIRI) || 
-        					pair.getElementB().equals(selectedEntityIRI))
-        				.collect(Collectors.toList());
-        		
-        		for (ElementPair relatedPair : relatedPairs) {
-        			String relatedElementIRI = relatedPair.getElementA().equals(selectedEntityIRI) ?
-        					relatedPair.getElementB() : relatedPair.getElementA();
-        			pitfallDetailsText += ">   " + relatedElementIRI + "\n";
-        		}    		
+        	for (String relatedElementIRI : relatedElements) {
+        		pitfallDetailsText += ">   " + relatedElementIRI + "\n";
         	}
     		
         	// if it's the pitfall P13, check if it has suggestions for elements without inverse relationships
-        	if (selectedPitfall.getPitfallID().equals(OOPSEvaluator.PITFALL_MIGHT_BE_INVERSE_ID)) {
-        		List<String> noInverseSuggestions = evaluationResult.getRelationsWithoutInverse();
-        		
-        		if (noInverseSuggestions != null && noInverseSuggestions.size() > 0) {
-        			Optional<String> noInverseSuggestion = noInverseSuggestions.stream()
-        				.filter(element -> element.equals(selectedEntityIRI))
-        				.findFirst();
-        			
-        			if (noInverseSuggestion.isPresent()) {
-        				pitfallDetailsText += "\n\nSorry, OOPS! has no suggestion for this relationship "
-        						+ "without inverse.";
-        			}
-        		}
+        	if (selectedPitfall.getPitfallID().equals(OOPSEvaluator.PITFALL_MIGHT_BE_INVERSE_ID)
+        			&& evaluationResult.isRelationWithoutInverse(selectedEntityIRI)) {
+        		pitfallDetailsText += "\n\nSorry, OOPS! has no suggestion for this relationship "
+        				+ "without inverse.";
         	}
     	}
     	
@@ -411,4 +384,9 @@ public class IndividualPitfallsListComponent extends AbstractOWLViewComponent
 		logger.debug("IndividualPitfallsList received evaluation exception!!");
 	}
 
+	@Override
+	public void onEvaluationCancelled() {
+		logger.debug("IndividualPitfallsList received evaluation cancellation!!");
+	}
+
 }
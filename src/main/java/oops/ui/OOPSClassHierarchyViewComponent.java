@@ -3,6 +3,7 @@ package oops.ui;
 import org.protege.editor.owl.model.event.EventType;
 import org.protege.editor.owl.model.event.OWLModelManagerListener;
 import org.protege.editor.owl.ui.view.cls.ToldOWLClassHierarchyViewComponent;
+import org.semanticweb.owlapi.model.OWLClass;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,6 +32,8 @@ public class OOPSClassHierarchyViewComponent extends ToldOWLClassHierarchyViewCo
     
     private EvaluationResult evaluationResult;
     
+    private SubtreeImportanceIndex<OWLClass> subtreeImportance;
+    
     private TreeCellRenderer defaultRenderer;
     
     private OWLModelManagerListener owlModelManagerListener;
@@ -58,10 +61,12 @@ public class OOPSClassHierarchyViewComponent extends ToldOWLClassHierarchyViewCo
 
 		// set the default cell renderer
 		if (SwingUtilities.isEventDispatchThread()) {
+			disposeSubtreeImportance();
 			getTree().setCellRenderer(defaultRenderer);
 		} else {
 			try {
 				SwingUtilities.invokeAndWait(() -> {
+					disposeSubtreeImportance();
 					getTree().setCellRenderer(defaultRenderer);
 				});
 			} catch (InvocationTargetException | InterruptedException e) {
@@ -76,6 +81,7 @@ public class OOPSClassHierarchyViewComponent extends ToldOWLClassHierarchyViewCo
         
         evaluator.removeListener(this);
         evaluationResult = null;
+        disposeSubtreeImportance();
         getOWLModelManager().removeListener(owlModelManagerListener);
     }
 
@@ -91,11 +97,11 @@ public class OOPSClassHierarchyViewComponent extends ToldOWLClassHierarchyViewCo
 		logger.debug("OOPSClassHierarchy received evaluation results!!");
 		
 		if (SwingUtilities.isEventDispatchThread()) {
-			getTree().setCellRenderer(new OOPSTreeCellRenderer(getOWLEditorKit(), evaluationResult));
+			setResultsRenderer(result);
 		} else {
 			try {
 				SwingUtilities.invokeAndWait(() -> {
-					getTree().setCellRenderer(new OOPSTreeCellRenderer(getOWLEditorKit(), evaluationResult));
+					setResultsRenderer(result);
 				});
 			} catch (InvocationTargetException | InterruptedException e) {
 				logger.error(e.getLocalizedMessage());
@@ -103,8 +109,34 @@ public class OOPSClassHierarchyViewComponent extends ToldOWLClassHierarchyViewCo
 		}
 	}
 
+	/**
+	 * Computes the subtree importance levels of the hierarchy for the given
+	 * results and sets the custom cell renderer. It has to run in the event
+	 * dispatch thread, where the hierarchy is read and changed.
+	 * 
+	 * @param result
+	 *            the evaluation results to show
+	 */
+	private void setResultsRenderer(EvaluationResult result) {
+		disposeSubtreeImportance();
+		subtreeImportance = new SubtreeImportanceIndex<OWLClass>(getHierarchyProvider(), result);
+		getTree().setCellRenderer(new OOPSTreeCellRenderer(getOWLEditorKit(), result, subtreeImportance));
+	}
+
+	private void disposeSubtreeImportance() {
+		if (subtreeImportance != null) {
+			subtreeImportance.dispose();
+			subtreeImportance = null;
+		}
+	}
+
 	@Override
 	public void OnEvaluationException(Throwable exception) {
 		logger.debug("OOPSClassHierarchy received evaluation exception!!");
 	}
+
+	@Override
+	public void onEvaluationCancelled() {
+		logger.debug("OOPSClassHierarchy received evaluation cancellation!!");
+	}
 }
\ No newline at end of file
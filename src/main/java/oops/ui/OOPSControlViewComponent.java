@@ -18,12 +18,15 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.lang.reflect.InvocationTargetException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
-import java.util.TreeMap;
+import java.util.SortedMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -33,23 +36,32 @@ import javax.swing.ButtonGroup;
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
 import javax.swing.JDialog;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JRadioButton;
 import javax.swing.JScrollPane;
+import javax.swing.JSpinner;
 import javax.swing.ScrollPaneConstants;
+import javax.swing.SpinnerNumberModel;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
 import javax.swing.border.Border;
+import javax.swing.event.ChangeListener;
 
 import org.protege.editor.owl.model.event.EventType;
 import org.protege.editor.owl.model.event.OWLModelManagerListener;
+import org.protege.editor.owl.model.inference.OWLReasonerManager;
+import org.protege.editor.owl.model.inference.ReasonerStatus;
 import org.protege.editor.owl.ui.view.AbstractOWLViewComponent;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import oops.evaluation.EvaluationBackend;
+import oops.evaluation.EvaluationJob;
 import oops.evaluation.EvaluationListener;
 import oops.evaluation.OOPSEvaluator;
 import oops.model.ElementPair;
@@ -78,6 +90,9 @@ public class OOPSControlViewComponent extends AbstractOWLViewComponent implement
 	private static final String EVALUATION_ERROR_MSG = "There has been an error while contacting OOPS! Web Service" +
 			"\n\nThe error may be caused by your internet connectivity or the OOPS! service is unavailable.";
 	private static final String EVALUATION_ERROR_TITLE = "Ontology evaluation error";
+	private static final String EVALUATION_REJECTED_MSG = "There are too many evaluations waiting to run." +
+			"\n\nPlease wait for the queued evaluations to finish and try again.";
+	private static final String EVALUATION_REJECTED_TITLE = "Evaluation not started";
 	
 	private static final String OOPS_RESULTS_REFERENCES_TEXT = "<ul><li>[1]	Aguado-De Cea, G., Montiel-Ponsoda, "
 			+ "E., Poveda-Villalón, M., and Giraldo-Pasmin, O.X. (2015). Lexicalizing Ontologies: The issues behind "
@@ -123,6 +138,12 @@ public class OOPSControlViewComponent extends AbstractOWLViewComponent implement
 	private static final Dimension CONFIG_DIALOG_CATEGORY_DIMENSION = new Dimension(750, 500);
 	private static final Dimension CONFIG_DIALOG_CATEGORY_LABEL_DIM = new Dimension(370,35);
 	private static final int CONFIG_DIALOG_CHECKS_PER_ROW = 8;
+	private static final String CONFIG_DIALOG_BACKEND_LABEL = "Evaluation backend: ";
+	private static final String CONFIG_DIALOG_TYPED_BY_IMPORTS_TEXT = "Count the entities declared in imported "
+			+ "ontologies as typed (local engine, P34 and P35)";
+	private static final String CONFIG_DIALOG_CLASS_SIMILARITY_LABEL = "Class name similarity (P30): ";
+	private static final String CONFIG_DIALOG_PROPERTY_SIMILARITY_LABEL = "Property name similarity (P12): ";
+	private static final double SIMILARITY_THRESHOLD_STEP = 0.05;
 	private static final String SELECT_PITFALLS_BTN_TEXT = "Select Pitfalls for Evaluation";
 	private static final String SELECT_CATEGORY_BTN_TEXT = "Select Category for Evaluation";
 	private static final String BTN_SELECT_ALL_TEXT = "Select all";
@@ -239,6 +260,8 @@ public class OOPSControlViewComponent extends AbstractOWLViewComponent implement
 	
 	private EvaluationDialog evaluatingDialog;
 	
+	private EvaluationJob evaluationJob; // the last submitted evaluation
+	
 	private EvaluationResult evaluationResult;
 
 	@Override
@@ -247,7 +270,11 @@ public class OOPSControlViewComponent extends AbstractOWLViewComponent implement
 		
 		evaluator = OOPSEvaluator.getInstance();
 		
-		evaluatingDialog = new EvaluationDialog();
+		evaluatingDialog = new EvaluationDialog(event -> {
+			if (evaluationJob != null) {
+				evaluator.cancel(evaluationJob);
+			}
+		});
 		
 		btnEvaluate = new JButton(EVALUATE_BTN_LABEL);
 		btnEvaluate.setToolTipText(EVALUATE_BTN_TOOLTIP);
@@ -265,6 +292,9 @@ public class OOPSControlViewComponent extends AbstractOWLViewComponent implement
 		
 		evaluator.addListener(this); // listen to evaluation events to change the UI
 		
+		// let the local engine ask the reasoner of the editor, once it has classified the current ontology
+		OOPSEvaluator.setReasonerAccess(this::runReasonerQueries);
+		
 		owlModelManagerListener = event -> {
 			if (event.isType(EventType.ACTIVE_ONTOLOGY_CHANGED)) {
             	reset();
@@ -289,9 +319,15 @@ public class OOPSControlViewComponent extends AbstractOWLViewComponent implement
 					pitfallsSubset = new ArrayList<String>();
 				}
 				
-				evaluator.evaluate(getOWLEditorKit().getOWLModelManager().getActiveOntology(), pitfallsSubset);
-			} catch (InterruptedException ie) {
-				logger.error(ie.getLocalizedMessage());
+				evaluationJob = evaluator.evaluate(getOWLEditorKit().getOWLModelManager().getActiveOntology(),
+						pitfallsSubset);
+			} catch (RejectedExecutionException ree) {
+				logger.warn("The evaluation could not be submitted: " + ree.getLocalizedMessage());
+				
+				JOptionPane.showMessageDialog(null,
+						EVALUATION_REJECTED_MSG,
+						EVALUATION_REJECTED_TITLE,
+						JOptionPane.WARNING_MESSAGE);
 			}
 		});
 		
@@ -305,6 +341,45 @@ public class OOPSControlViewComponent extends AbstractOWLViewComponent implement
 			JPanel contentPane = new JPanel();
 			contentPane.setLayout(new BoxLayout(contentPane, BoxLayout.Y_AXIS));
 			
+			JPanel backendPanel = new JPanel();
+			
+			JComboBox<String> backendComboBox = new JComboBox<String>(OOPSEvaluator.getAvailableBackends().stream()
+					.map(EvaluationBackend::getName)
+					.toArray(String[]::new));
+			backendComboBox.setSelectedIndex(OOPSEvaluator.getAvailableBackends().indexOf(OOPSEvaluator.getBackend()));
+			backendComboBox.addActionListener(e -> OOPSEvaluator.setBackend(
+					OOPSEvaluator.getAvailableBackends().get(backendComboBox.getSelectedIndex())));
+			
+			backendPanel.add(new JLabel(CONFIG_DIALOG_BACKEND_LABEL));
+			backendPanel.add(backendComboBox);
+			
+			JPanel localOptionsPanel = new JPanel();
+			
+			JCheckBox typedByImportsCheckBox = new JCheckBox(CONFIG_DIALOG_TYPED_BY_IMPORTS_TEXT,
+					OOPSEvaluator.isTypedByImports());
+			typedByImportsCheckBox.addActionListener(e ->
+					OOPSEvaluator.setTypedByImports(typedByImportsCheckBox.isSelected()));
+			
+			localOptionsPanel.add(typedByImportsCheckBox);
+			
+			JPanel similarityPanel = new JPanel();
+			
+			JSpinner classSimilaritySpinner = new JSpinner(new SpinnerNumberModel(
+					OOPSEvaluator.getClassSimilarityThreshold(), SIMILARITY_THRESHOLD_STEP, 1.0,
+					SIMILARITY_THRESHOLD_STEP));
+			JSpinner propertySimilaritySpinner = new JSpinner(new SpinnerNumberModel(
+					OOPSEvaluator.getPropertySimilarityThreshold(), SIMILARITY_THRESHOLD_STEP, 1.0,
+					SIMILARITY_THRESHOLD_STEP));
+			ChangeListener similarityListener = e -> OOPSEvaluator.setSimilarityThresholds(
+					(Double) classSimilaritySpinner.getValue(), (Double) propertySimilaritySpinner.getValue());
+			classSimilaritySpinner.addChangeListener(similarityListener);
+			propertySimilaritySpinner.addChangeListener(similarityListener);
+			
+			similarityPanel.add(new JLabel(CONFIG_DIALOG_CLASS_SIMILARITY_LABEL));
+			similarityPanel.add(classSimilaritySpinner);
+			similarityPanel.add(new JLabel(CONFIG_DIALOG_PROPERTY_SIMILARITY_LABEL));
+			similarityPanel.add(propertySimilaritySpinner);
+			
 			JPanel radioButtons = new JPanel();
 			
 			btnGroup = new ButtonGroup();
@@ -336,6 +411,9 @@ public class OOPSControlViewComponent extends AbstractOWLViewComponent implement
 			cards.add(pitfallsSelectionCard, SELECT_PITFALLS_BTN_TEXT);
 			cards.add(categorySelectionCard, SELECT_CATEGORY_BTN_TEXT);
 			
+			contentPane.add(backendPanel);
+			contentPane.add(localOptionsPanel);
+			contentPane.add(similarityPanel);
 			contentPane.add(radioButtons);
 			contentPane.add(cards);
 			
@@ -362,7 +440,7 @@ public class OOPSControlViewComponent extends AbstractOWLViewComponent implement
 					LIST_PITFALLS_BORDER_MARGIN, LIST_PITFALLS_BORDER_MARGIN));
 			contentPane.setBackground(COLOR_PITFALL_BACKGROUND);
 			
-			TreeMap<Pitfall, ArrayList<String>> pitfalls = evaluationResult.pitfallsWithAffectedElements();
+			SortedMap<Pitfall, List<String>> pitfalls = evaluationResult.pitfallsWithAffectedElements();
 			
 			List<InfoElementWithAffectedElems> allInfoElems;
 			
@@ -803,7 +881,7 @@ public class OOPSControlViewComponent extends AbstractOWLViewComponent implement
 	 *            the current evaluation results
 	 * @return a detailed text for the given pitfall
 	 */
-	private String getPitfallText(Pitfall pitfall, ArrayList<String> affectedElements, EvaluationResult evaluationResult) {
+	private String getPitfallText(Pitfall pitfall, List<String> affectedElements, EvaluationResult evaluationResult) {
 		String pitfallText = "<html><br><p>" + pitfall.getDescription() + "</p><br>";
 		
 		switch (pitfall.getPitfallID()) {
@@ -936,9 +1014,48 @@ public class OOPSControlViewComponent extends AbstractOWLViewComponent implement
 		selectedCategory = null;
     }
 	
+	/**
+	 * Runs the queries of the local engine with the reasoner of the editor, on
+	 * the event dispatch thread like the views of the editor do, so they never
+	 * run during a classification. The reasoner is only used if it is in sync
+	 * with the ontology.
+	 * 
+	 * @param queries
+	 *            the queries to run with the reasoner
+	 * @return true if the queries were run, false if there was no ready
+	 *         reasoner
+	 */
+	private boolean runReasonerQueries(Consumer<OWLReasoner> queries) {
+		boolean[] queried = new boolean[1];
+		Runnable runQueries = () -> {
+			OWLReasonerManager reasonerManager = getOWLModelManager().getOWLReasonerManager();
+			
+			if (reasonerManager.getReasonerStatus() == ReasonerStatus.INITIALIZED) {
+				queries.accept(reasonerManager.getCurrentReasoner());
+				queried[0] = true;
+			}
+		};
+		
+		if (SwingUtilities.isEventDispatchThread()) {
+			runQueries.run();
+		} else {
+			try {
+				SwingUtilities.invokeAndWait(runQueries);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			} catch (InvocationTargetException e) {
+				throw new IllegalStateException("The reasoner queries failed", e.getCause());
+			}
+		}
+		
+		return queried[0];
+	}
+	
 	@Override
 	protected void disposeOWLView() {
 		evaluator.removeListener(this);
+		OOPSEvaluator.setReasonerAccess(null);
 		evaluationResult = null;
 		btnListAllPitfalls.setEnabled(false);
 		configurationDone = false;
@@ -970,6 +1087,11 @@ public class OOPSControlViewComponent extends AbstractOWLViewComponent implement
 				    JOptionPane.ERROR_MESSAGE);
 		});
 	}
+
+	@Override
+	public void onEvaluationCancelled() {
+		evaluatingDialog.setVisible(false);
+	}
 	
 	/**
 	 * Custom CardLayout implementation that adapts the layout to each card's preferred size
@@ -3,6 +3,7 @@ package oops.ui;
 import org.protege.editor.owl.model.event.EventType;
 import org.protege.editor.owl.model.event.OWLModelManagerListener;
 import org.protege.editor.owl.ui.view.objectproperty.OWLObjectPropertyHierarchyViewComponent;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,6 +32,8 @@ public class OOPSObjectPropertyHierarchyViewComponent extends OWLObjectPropertyH
     
     private EvaluationResult evaluationResult;
     
+    private SubtreeImportanceIndex<OWLObjectProperty> subtreeImportance;
+    
     private TreeCellRenderer defaultRenderer;
     
     private OWLModelManagerListener owlModelManagerListener;
@@ -64,10 +67,12 @@ public class OOPSObjectPropertyHierarchyViewComponent extends OWLObjectPropertyH
 
 		// set the default cell renderer
 		if (SwingUtilities.isEventDispatchThread()) {
+			disposeSubtreeImportance();
 			getTree().setCellRenderer(defaultRenderer);
 		} else {
 			try {
 				SwingUtilities.invokeAndWait(() -> {
+					disposeSubtreeImportance();
 					getTree().setCellRenderer(defaultRenderer);
 				});
 			} catch (InvocationTargetException | InterruptedException e) {
@@ -82,6 +87,7 @@ public class OOPSObjectPropertyHierarchyViewComponent extends OWLObjectPropertyH
         
         evaluator.removeListener(this);
         evaluationResult = null;
+        disposeSubtreeImportance();
         getOWLModelManager().removeListener(owlModelManagerListener);
     }
 
@@ -97,11 +103,11 @@ public class OOPSObjectPropertyHierarchyViewComponent extends OWLObjectPropertyH
 		logger.debug("OOPSObjectPropertyHierarchy received evaluation results!!");
 		
 		if (SwingUtilities.isEventDispatchThread()) {
-			getTree().setCellRenderer(new OOPSTreeCellRenderer(getOWLEditorKit(), evaluationResult));
+			setResultsRenderer(result);
 		} else {
 			try {
 				SwingUtilities.invokeAndWait(() -> {
-					getTree().setCellRenderer(new OOPSTreeCellRenderer(getOWLEditorKit(), evaluationResult));
+					setResultsRenderer(result);
 				});
 			} catch (InvocationTargetException | InterruptedException e) {
 				logger.error(e.getLocalizedMessage());
@@ -109,8 +115,34 @@ public class OOPSObjectPropertyHierarchyViewComponent extends OWLObjectPropertyH
 		}
 	}
 
+	/**
+	 * Computes the subtree importance levels of the hierarchy for the given
+	 * results and sets the custom cell renderer. It has to run in the event
+	 * dispatch thread, where the hierarchy is read and changed.
+	 * 
+	 * @param result
+	 *            the evaluation results to show
+	 */
+	private void setResultsRenderer(EvaluationResult result) {
+		disposeSubtreeImportance();
+		subtreeImportance = new SubtreeImportanceIndex<OWLObjectProperty>(getHierarchyProvider(), result);
+		getTree().setCellRenderer(new OOPSTreeCellRenderer(getOWLEditorKit(), result, subtreeImportance));
+	}
+
+	private void disposeSubtreeImportance() {
+		if (subtreeImportance != null) {
+			subtreeImportance.dispose();
+			subtreeImportance = null;
+		}
+	}
+
 	@Override
 	public void OnEvaluationException(Throwable exception) {
 		logger.debug("OOPSObjectPropertyHierarchy received evaluation exception!!");
 	}
+
+	@Override
+	public void onEvaluationCancelled() {
+		logger.debug("OOPSObjectPropertyHierarchy received evaluation cancellation!!");
+	}
 }
\ No newline at end of file
@@ -109,6 +109,8 @@ public class OOPSTreeCellRenderer implements TableCellRenderer, TreeCellRenderer
     
     private EvaluationResult evaluationResult;
 
+    private SubtreeImportanceIndex<?> subtreeImportance;
+
 	private PitfallImportanceLevel importance;
 
 	
@@ -118,9 +120,11 @@ public class OOPSTreeCellRenderer implements TableCellRenderer, TreeCellRenderer
         }
     }
 
-    public OOPSTreeCellRenderer(OWLEditorKit owlEditorKit, EvaluationResult evaluationResult) {
+    public OOPSTreeCellRenderer(OWLEditorKit owlEditorKit, EvaluationResult evaluationResult,
+    		SubtreeImportanceIndex<?> subtreeImportance) {
         this(owlEditorKit, true, true);
         this.evaluationResult = evaluationResult;
+        this.subtreeImportance = subtreeImportance;
     }
 
 
@@ -518,7 +522,7 @@ public class OOPSTreeCellRenderer implements TableCellRenderer, TreeCellRenderer
             
             String entityIRI = entity.getIRI().toString();
             
-            PitfallImportanceLevel childrensImportanceLevel = childrensMaxImportanceLevel(entity, node);
+            PitfallImportanceLevel childrensImportanceLevel = subtreeImportance.getMaxImportanceLevel(entity);
             
             // if node presents pitfalls
             if (nodePitfalls != null) {
@@ -561,52 +565,6 @@ public class OOPSTreeCellRenderer implements TableCellRenderer, TreeCellRenderer
         return renderingComponent;
     }
     
-	/**
-	 * Looks for the pitfalls of the children of the specified node and returns
-	 * the importance level of the most important pitfall found
-	 * 
-	 * @param entity
-	 *            the OWL entity associated with the specified node
-	 * @param node
-	 *            the node whose children are to be checked
-	 * @return the highest importance level of the pitfalls of the children of
-	 *         the specified node
-	 */
-	private PitfallImportanceLevel childrensMaxImportanceLevel(OWLEntity entity, OWLObjectTreeNode node) {
-		if (node.isLeaf()) {
-			Optional<PitfallImportanceLevel> mostImportantLevel = 
-        			evaluationResult.getHighestImportanceLevelForEntity(entity.getIRI().toString());
-			if (mostImportantLevel.isPresent()) {
-				return mostImportantLevel.get();
-			} else {
-				return null;
-			}
-		} else {
-			List<PitfallImportanceLevel> importanceLevels = new ArrayList<PitfallImportanceLevel>();
-			for (int i = 0; i < node.getChildCount(); i++) {
-				OWLObjectTreeNode child = (OWLObjectTreeNode) node.getChildAt(i);
-				Object childValue = child.getOWLObject();
-				OWLEntity childEntity = (OWLEntity) childValue;
-				PitfallImportanceLevel childImportanceLevel = childrensMaxImportanceLevel(childEntity, child);
-				if (childImportanceLevel != null) {
-					importanceLevels.add(childImportanceLevel);
-				}
-			}
-			
-			Optional<PitfallImportanceLevel> mostImportantLevel = 
-        			evaluationResult.getHighestImportanceLevelForEntity(entity.getIRI().toString());
-			if (mostImportantLevel.isPresent()) {
-				importanceLevels.add(mostImportantLevel.get());
-			}
-			
-			if (importanceLevels.size() > 0) {
-				return Collections.max(importanceLevels);
-			} else {
-				return null;
-			}
-		}
-	}
-
     protected String getRendering(Object object) {
         if (object instanceof OWLObject) {
             String rendering = getOWLModelManager().getRendering(((OWLObject) object));
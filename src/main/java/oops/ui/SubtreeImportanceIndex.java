@@ -0,0 +1,202 @@
+package oops.ui;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.protege.editor.owl.model.hierarchy.OWLObjectHierarchyProvider;
+import org.protege.editor.owl.model.hierarchy.OWLObjectHierarchyProviderListener;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import oops.model.EvaluationResult;
+import oops.model.PitfallImportanceLevel;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * The highest pitfall importance level found in the subtree of each entity of a hierarchy, so the tree cell renderer
+ * can mark the nodes whose descendants have pitfalls with a single lookup per row. It is computed in one bottom-up
+ * pass over the hierarchy provider when the results arrive, and then updated along the ancestors of the nodes that
+ * the provider reports as changed.
+ */
+public class SubtreeImportanceIndex<E extends OWLEntity> implements OWLObjectHierarchyProviderListener<E> {
+
+	private static final Logger logger = LoggerFactory.getLogger(SubtreeImportanceIndex.class);
+
+	private static final PitfallImportanceLevel IMPORTANCE_LEVELS[] = PitfallImportanceLevel.values();
+
+	private static final Byte NO_PITFALLS = 0;
+
+	private final OWLObjectHierarchyProvider<E> hierarchyProvider;
+
+	private final EvaluationResult evaluationResult;
+
+	// the ordinal + 1 of the highest importance level of each subtree, or 0 for the subtrees without pitfalls
+	private final Map<E, Byte> subtreeImportance = new HashMap<E, Byte>();
+
+	/**
+	 * Computes the subtree importance levels of the given hierarchy and starts
+	 * listening to its changes
+	 *
+	 * @param hierarchyProvider
+	 *            the provider of the hierarchy shown by the view
+	 * @param evaluationResult
+	 *            the results with the pitfalls of each entity
+	 */
+	public SubtreeImportanceIndex(OWLObjectHierarchyProvider<E> hierarchyProvider, EvaluationResult evaluationResult) {
+		this.hierarchyProvider = hierarchyProvider;
+		this.evaluationResult = evaluationResult;
+
+		long startTime = System.currentTimeMillis();
+		computeAll();
+		logger.debug(String.format("SubtreeImportanceIndex computed %d subtrees in %d ms", subtreeImportance.size(),
+				System.currentTimeMillis() - startTime));
+
+		hierarchyProvider.addListener(this);
+	}
+
+	/**
+	 * Returns the highest importance level of the pitfalls of the given entity
+	 * and its descendants
+	 *
+	 * @param entity
+	 *            the entity of a tree node
+	 * @return the highest importance level in the subtree of the entity, or
+	 *         null if none of its elements has pitfalls
+	 */
+	public PitfallImportanceLevel getMaxImportanceLevel(OWLEntity entity) {
+		Byte importance = subtreeImportance.get(entity);
+
+		if (importance == null) { // not reachable from the roots of the hierarchy
+			importance = getOwnImportance(entity);
+		}
+
+		return importance > 0 ? IMPORTANCE_LEVELS[importance - 1] : null;
+	}
+
+	/**
+	 * Stops listening to the changes of the hierarchy
+	 */
+	public void dispose() {
+		hierarchyProvider.removeListener(this);
+	}
+
+	@Override
+	public void hierarchyChanged() {
+		subtreeImportance.clear();
+		computeAll();
+	}
+
+	@Override
+	public void nodeChanged(E node) {
+		// recompute the node and then its ancestors, as long as their levels change
+		Deque<E> pending = new ArrayDeque<E>();
+		Set<E> queued = new HashSet<E>();
+		pending.add(node);
+		queued.add(node);
+
+		while (!pending.isEmpty()) {
+			E entity = pending.poll();
+			queued.remove(entity);
+
+			Byte previous = subtreeImportance.get(entity);
+			byte importance = getOwnImportance(entity);
+
+			for (E child : getChildren(entity)) {
+				Byte childImportance = subtreeImportance.get(child);
+				if (childImportance == null) {
+					compute(child);
+					childImportance = subtreeImportance.get(child);
+				}
+				importance = (byte) Math.max(importance, childImportance);
+			}
+
+			subtreeImportance.put(entity, importance);
+
+			if (previous == null || previous != importance) {
+				for (E parent : getParents(entity)) {
+					if (queued.add(parent)) {
+						pending.add(parent);
+					}
+				}
+			}
+		}
+	}
+
+	private void computeAll() {
+		for (E root : hierarchyProvider.getRoots()) {
+			compute(root);
+		}
+	}
+
+	/**
+	 * Computes the subtree levels of the given entity and its descendants that
+	 * are not known yet, in post-order with an explicit stack, so deep
+	 * hierarchies do not overflow the call stack. The descendants already on
+	 * the stack are skipped, which breaks the cycles of the hierarchy.
+	 */
+	private void compute(E root) {
+		if (subtreeImportance.containsKey(root)) {
+			return;
+		}
+
+		Deque<E> stack = new ArrayDeque<E>();
+		Deque<Iterator<E>> childIterators = new ArrayDeque<Iterator<E>>();
+		Set<E> onStack = new HashSet<E>();
+
+		stack.push(root);
+		childIterators.push(getChildren(root).iterator());
+		onStack.add(root);
+
+		while (!stack.isEmpty()) {
+			Iterator<E> children = childIterators.peek();
+
+			if (children.hasNext()) {
+				E child = children.next();
+
+				if (!subtreeImportance.containsKey(child) && onStack.add(child)) {
+					stack.push(child);
+					childIterators.push(getChildren(child).iterator());
+				}
+			} else {
+				E entity = stack.pop();
+				childIterators.pop();
+				onStack.remove(entity);
+
+				byte importance = getOwnImportance(entity);
+				for (E child : getChildren(entity)) {
+					importance = (byte) Math.max(importance, subtreeImportance.getOrDefault(child, NO_PITFALLS));
+				}
+				subtreeImportance.put(entity, importance);
+			}
+		}
+	}
+
+	private byte getOwnImportance(OWLEntity entity) {
+		Optional<PitfallImportanceLevel> importance =
+				evaluationResult.getHighestImportanceLevelForEntity(entity.getIRI().toString());
+
+		return importance.isPresent() ? (byte) (importance.get().ordinal() + 1) : 0;
+	}
+
+	private Set<E> getChildren(E entity) {
+		Set<E> children = hierarchyProvider.getChildren(entity);
+
+		return children != null ? children : Collections.emptySet();
+	}
+
+	private Set<E> getParents(E entity) {
+		Set<E> parents = hierarchyProvider.getParents(entity);
+
+		return parents != null ? parents : Collections.emptySet();
+	}
+}
@@ -0,0 +1,127 @@
+package oops.evaluation.local;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLDeclarationAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLSubPropertyChainOfAxiom;
+
+/**
+ * Author: Lukas Gedvilas<br>
+ * Universidad Politécnica de Madrid<br><br>
+ *
+ * Benchmark of the axiom passes of the StructuralPitfallsDetector. It times the same three checks run over the axioms
+ * of the type index of the ontology, as the detector does, against a single sweep over all the axioms that dispatches
+ * each one to its check, and against one separate sweep over all the axioms per check.
+ *
+ * Usage: StructuralPitfallsBenchmark &lt;ontology file&gt; [rounds]
+ */
+public class StructuralPitfallsBenchmark {
+
+	private static final int WARMUP_ROUNDS = 5;
+
+	private static final int DEFAULT_ROUNDS = 20;
+
+	public static void main(String[] args) throws OWLOntologyCreationException {
+		if (args.length < 1) {
+			System.err.println("Usage: StructuralPitfallsBenchmark <ontology file> [rounds]");
+			System.exit(1);
+		}
+
+		OWLOntology ontology = OWLManager.createOWLOntologyManager()
+				.loadOntologyFromOntologyDocument(new File(args[0]));
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ROUNDS;
+
+		run(ontology, rounds);
+	}
+
+	/**
+	 * Prints the mean time of each kind of pass over the given ontology
+	 *
+	 * @param ontology
+	 *            the ontology whose axioms are checked
+	 * @param rounds
+	 *            the number of timed rounds of each pass
+	 */
+	public static void run(OWLOntology ontology, int rounds) {
+		System.out.println(String.format("%d axioms, %d rounds", ontology.getAxiomCount(), rounds));
+		System.out.println(String.format("type index:       %8.3f ms", time(() -> typeIndexPass(ontology), rounds)));
+		System.out.println(String.format("single sweep:     %8.3f ms", time(() -> singleSweep(ontology), rounds)));
+		System.out.println(String.format("separate sweeps:  %8.3f ms", time(() -> separateSweeps(ontology), rounds)));
+	}
+
+	private static double time(Runnable pass, int rounds) {
+		for (int i = 0; i < WARMUP_ROUNDS; i++) {
+			pass.run();
+		}
+
+		long startTime = System.nanoTime();
+		for (int i = 0; i < rounds; i++) {
+			pass.run();
+		}
+
+		return (System.nanoTime() - startTime) / 1e6 / rounds;
+	}
+
+	// the detector's pass: every check reads only its own axiom type
+	private static void typeIndexPass(OWLOntology ontology) {
+		List<String> affectedElements = new ArrayList<String>();
+
+		for (OWLDeclarationAxiom axiom : ontology.getAxioms(AxiomType.DECLARATION)) {
+			StructuralPitfallsDetector.checkIsRelationship(axiom, affectedElements);
+		}
+		for (OWLAnnotationAssertionAxiom axiom : ontology.getAxioms(AxiomType.ANNOTATION_ASSERTION)) {
+			StructuralPitfallsDetector.checkMisusedAnnotation(axiom, affectedElements);
+		}
+		for (OWLSubPropertyChainOfAxiom axiom : ontology.getAxioms(AxiomType.SUB_PROPERTY_CHAIN_OF)) {
+			StructuralPitfallsDetector.checkSinglePropertyChain(axiom, affectedElements);
+		}
+	}
+
+	// one walk over all the axioms, shared by the three checks
+	private static void singleSweep(OWLOntology ontology) {
+		List<String> affectedElements = new ArrayList<String>();
+
+		for (OWLAxiom axiom : ontology.getAxioms()) {
+			if (axiom instanceof OWLDeclarationAxiom) {
+				StructuralPitfallsDetector.checkIsRelationship((OWLDeclarationAxiom) axiom, affectedElements);
+			} else if (axiom instanceof OWLAnnotationAssertionAxiom) {
+				StructuralPitfallsDetector.checkMisusedAnnotation((OWLAnnotationAssertionAxiom) axiom,
+						affectedElements);
+			} else if (axiom instanceof OWLSubPropertyChainOfAxiom) {
+				StructuralPitfallsDetector.checkSinglePropertyChain((OWLSubPropertyChainOfAxiom) axiom,
+						affectedElements);
+			}
+		}
+	}
+
+	// one walk over all the axioms per check
+	private static void separateSweeps(OWLOntology ontology) {
+		List<String> affectedElements = new ArrayList<String>();
+
+		for (OWLAxiom axiom : ontology.getAxioms()) {
+			if (axiom instanceof OWLDeclarationAxiom) {
+				StructuralPitfallsDetector.checkIsRelationship((OWLDeclarationAxiom) axiom, affectedElements);
+			}
+		}
+		for (OWLAxiom axiom : ontology.getAxioms()) {
+			if (axiom instanceof OWLAnnotationAssertionAxiom) {
+				StructuralPitfallsDetector.checkMisusedAnnotation((OWLAnnotationAssertionAxiom) axiom,
+						affectedElements);
+			}
+		}
+		for (OWLAxiom axiom : ontology.getAxioms()) {
+			if (axiom instanceof OWLSubPropertyChainOfAxiom) {
+				StructuralPitfallsDetector.checkSinglePropertyChain((OWLSubPropertyChainOfAxiom) axiom,
+						affectedElements);
+			}
+		}
+	}
+}